@@ -0,0 +1,29 @@
+package com.hotelmanagement.quanlikhachsan.config;
+
+import io.micrometer.core.aop.CountedAspect;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics Configuration
+ *
+ * Enables {@code @Timed} and {@code @Counted} on Spring beans. Class-level
+ * {@code @Timed} times every public method, tagged with class, method and
+ * exception. Hikari, Lettuce, JVM and HTTP server metrics come from Spring
+ * Boot; everything is scraped from /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public CountedAspect countedAspect(MeterRegistry registry) {
+        return new CountedAspect(registry);
+    }
+}
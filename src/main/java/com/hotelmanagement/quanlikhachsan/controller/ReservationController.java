@@ -1,15 +1,25 @@
 package com.hotelmanagement.quanlikhachsan.controller;
 
+import com.hotelmanagement.quanlikhachsan.dto.request.reservation.BulkReservationRequest;
+import com.hotelmanagement.quanlikhachsan.dto.request.reservation.ReservationFilter;
 import com.hotelmanagement.quanlikhachsan.dto.request.reservation.ReservationRequest;
 import com.hotelmanagement.quanlikhachsan.dto.response.ApiResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.BulkReservationResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationPageResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationStatusSummaryResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationResponse;
+import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
+import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus;
 import com.hotelmanagement.quanlikhachsan.services.reservation.IReservationService;
+import com.hotelmanagement.quanlikhachsan.services.reservation.ReservationConflictExecutor;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
@@ -28,23 +38,46 @@ import java.util.UUID;
 public class ReservationController {
 
     private final IReservationService reservationService;
+    private final ReservationConflictExecutor conflictExecutor;
 
     /**
      * Create a new reservation.
      *
      * @param request the reservation request containing guest, rooms, and dates
+     * @param authentication the caller; a hold in the request must be theirs
      * @return the created reservation
      */
     @PostMapping
     public ResponseEntity<ApiResponse<ReservationResponse>> createReservation(
-            @Valid @RequestBody ReservationRequest request) {
+            @Valid @RequestBody ReservationRequest request, Authentication authentication) {
         log.info("Creating reservation for keycloakUserId: {}", request.keycloakUserId());
-        ReservationResponse response = reservationService.createReservation(request);
+        ReservationResponse response = reservationService.createReservation(request, authentication.getName());
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Reservation created successfully", response));
     }
 
+    /**
+     * Create a block of reservations in one transaction. Each line is
+     * accepted or rejected on its own; the response reports every line.
+     * A conflicting booking committed concurrently is only detected at commit
+     * and rejects the whole block with 409 ROOM_NOT_AVAILABLE, whose details
+     * carry the colliding roomId; the client should retry the block.
+     *
+     * @param request the reservation lines
+     * @return per-line results; 201 if every line was created, 200 otherwise
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkReservationResponse>> createReservations(
+            @Valid @RequestBody BulkReservationRequest request) {
+        log.info("Creating {} reservations in bulk", request.lines().size());
+        BulkReservationResponse response = reservationService.createReservations(request);
+        return ResponseEntity
+                .status(response.rejected() == 0 ? HttpStatus.CREATED : HttpStatus.OK)
+                .body(ApiResponse.success("Created " + response.created() + " of "
+                        + response.results().size() + " reservations", response));
+    }
+
     /**
      * Get a reservation by its ID.
      *
@@ -59,14 +92,59 @@ public class ReservationController {
     }
 
     /**
-     * Get all reservations.
+     * List reservations newest first, one page at a time.
      *
-     * @return list of all reservations
+     * @param status         optional reservation status
+     * @param keycloakUserId optional guest's Keycloak user ID
+     * @param from           optional start of the stay window (inclusive)
+     * @param to             optional end of the stay window (exclusive)
+     * @param roomId         optional room the stay must include
+     * @param cursor         nextCursor of the previous page, omitted for the first page
+     * @param limit          page size (at most 100)
+     * @return one page of reservations and the cursor for the next one
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ReservationResponse>>> getAllReservations() {
-        log.info("Fetching all reservations");
-        List<ReservationResponse> response = reservationService.getAllReservations();
+    public ResponseEntity<ApiResponse<ReservationPageResponse>> getReservations(
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) UUID keycloakUserId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String roomId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("Fetching reservations page after cursor {}", cursor);
+        ReservationPageResponse response = reservationService.searchReservations(
+                new ReservationFilter(status, keycloakUserId, from, to, roomId), cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * List reservations in one status, newest first.
+     *
+     * @param status the reservation status
+     * @param cursor nextCursor of the previous page, omitted for the first page
+     * @param limit  page size (at most 100)
+     * @return one page of reservations and the cursor for the next one
+     */
+    @GetMapping("/status/{status}")
+    public ResponseEntity<ApiResponse<ReservationPageResponse>> getReservationsByStatus(
+            @PathVariable ReservationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("Fetching reservations with status {}", status);
+        ReservationPageResponse response = reservationService.getReservationsByStatus(status, cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Count reservations in each status, e.g. for a dashboard summary.
+     *
+     * @return count per status and the overall total
+     */
+    @GetMapping("/status-summary")
+    public ResponseEntity<ApiResponse<ReservationStatusSummaryResponse>> getStatusSummary() {
+        log.info("Fetching reservation status summary");
+        ReservationStatusSummaryResponse response = reservationService.getStatusSummary();
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
@@ -105,46 +183,61 @@ public class ReservationController {
      *
      * @param id      the reservation ID
      * @param request the updated reservation data
+     * @param ifMatch the version the client edited, optional; 409 with the
+     *                current reservation if it has changed since
      * @return the updated reservation
      */
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ReservationResponse>> updateReservation(
             @PathVariable UUID id,
-            @Valid @RequestBody ReservationRequest request) {
+            @Valid @RequestBody ReservationRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating reservation with ID: {}", id);
-        ReservationResponse response = reservationService.updateReservation(id, request);
+        Long expectedVersion = parseVersion(ifMatch);
+        ReservationResponse response = conflictExecutor.rejecting("update", id,
+                () -> reservationService.updateReservation(id, request, expectedVersion));
         return ResponseEntity.ok(ApiResponse.success("Reservation updated successfully", response));
     }
 
     /**
      * Add a room to an existing reservation.
      *
-     * @param id     the reservation ID
-     * @param roomId the room ID to add
+     * @param id      the reservation ID
+     * @param roomId  the room ID to add
+     * @param ifMatch the version the client edited, optional
      * @return the updated reservation
      */
     @PostMapping("/{id}/rooms/{roomId}")
     public ResponseEntity<ApiResponse<ReservationResponse>> addRoomToReservation(
             @PathVariable UUID id,
-            @PathVariable UUID roomId) {
+            @PathVariable UUID roomId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Adding room {} to reservation {}", roomId, id);
-        ReservationResponse response = reservationService.addRoomToReservation(id, roomId);
+        Long expectedVersion = parseVersion(ifMatch);
+        ReservationResponse response = conflictExecutor.rejecting("add-room", id,
+                () -> reservationService.addRoomToReservation(id, roomId, expectedVersion));
         return ResponseEntity.ok(ApiResponse.success("Room added to reservation", response));
     }
 
     /**
      * Remove a room from an existing reservation.
      *
-     * @param id     the reservation ID
-     * @param roomId the room ID to remove
+     * @param id      the reservation ID
+     * @param roomId  the room ID to remove
+     * @param ifMatch the version the client edited, optional
      * @return success response
      */
     @DeleteMapping("/{id}/rooms/{roomId}")
     public ResponseEntity<ApiResponse<Void>> removeRoomFromReservation(
             @PathVariable UUID id,
-            @PathVariable UUID roomId) {
+            @PathVariable UUID roomId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Removing room {} from reservation {}", roomId, id);
-        reservationService.removeRoomFromReservation(id, roomId);
+        Long expectedVersion = parseVersion(ifMatch);
+        conflictExecutor.rejecting("remove-room", id, () -> {
+            reservationService.removeRoomFromReservation(id, roomId, expectedVersion);
+            return null;
+        });
         return ResponseEntity.ok(ApiResponse.success("Room removed from reservation", null));
     }
 
@@ -157,7 +250,8 @@ public class ReservationController {
     @PostMapping("/{id}/check-in")
     public ResponseEntity<ApiResponse<ReservationResponse>> checkIn(@PathVariable UUID id) {
         log.info("Checking in reservation with ID: {}", id);
-        ReservationResponse response = reservationService.checkIn(id);
+        ReservationResponse response = conflictExecutor.retrying("check-in", id,
+                () -> reservationService.checkIn(id));
         return ResponseEntity.ok(ApiResponse.success("Check-in successful", response));
     }
 
@@ -170,7 +264,8 @@ public class ReservationController {
     @PostMapping("/{id}/check-out")
     public ResponseEntity<ApiResponse<ReservationResponse>> checkOut(@PathVariable UUID id) {
         log.info("Checking out reservation with ID: {}", id);
-        ReservationResponse response = reservationService.checkOut(id);
+        ReservationResponse response = conflictExecutor.retrying("check-out", id,
+                () -> reservationService.checkOut(id));
         return ResponseEntity.ok(ApiResponse.success("Check-out successful", response));
     }
 
@@ -183,7 +278,8 @@ public class ReservationController {
     @PostMapping("/{id}/cancel")
     public ResponseEntity<ApiResponse<ReservationResponse>> cancelReservation(@PathVariable UUID id) {
         log.info("Cancelling reservation with ID: {}", id);
-        ReservationResponse response = reservationService.cancelReservation(id);
+        ReservationResponse response = conflictExecutor.retrying("cancel", id,
+                () -> reservationService.cancelReservation(id));
         return ResponseEntity.ok(ApiResponse.success("Reservation cancelled successfully", response));
     }
 
@@ -199,4 +295,31 @@ public class ReservationController {
         reservationService.deleteReservation(id);
         return ResponseEntity.ok(ApiResponse.success("Reservation deleted successfully", null));
     }
+
+    // ========== Private Helper Methods ==========
+
+    /**
+     * The reservation version from an If-Match header: the {@code version}
+     * of the response, bare or as an entity tag ({@code "3"}, {@code W/"3"}).
+     *
+     * @return the version, or null if the header is absent
+     */
+    private Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw ErrorDefinition.INVALID_IF_MATCH.toAppError()
+                    .withDetail("ifMatch", ifMatch);
+        }
+    }
 }
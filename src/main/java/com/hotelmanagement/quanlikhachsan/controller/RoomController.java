@@ -4,7 +4,9 @@ import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomAvailabilityReque
 import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomRequest;
 import com.hotelmanagement.quanlikhachsan.dto.response.ApiResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.RoomResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomAvailabilityCalendarResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomAvailabilityResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomTypeInventoryResponse;
 import com.hotelmanagement.quanlikhachsan.services.IRoomService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -84,4 +86,27 @@ public class RoomController {
         List<RoomResponse> response = roomService.getAvailableRooms(checkIn, checkOut);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
+
+    /**
+     * Get a rooms-by-nights availability matrix for a calendar window in one call.
+     */
+    @GetMapping("/availability-calendar")
+    public ResponseEntity<ApiResponse<RoomAvailabilityCalendarResponse>> getAvailabilityCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        RoomAvailabilityCalendarResponse response = roomService.getAvailabilityCalendar(from, to);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Get nightly sold and free counts of a room type for a date range.
+     */
+    @GetMapping("/types/{roomTypeId}/inventory")
+    public ResponseEntity<ApiResponse<List<RoomTypeInventoryResponse>>> getRoomTypeInventory(
+            @PathVariable String roomTypeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<RoomTypeInventoryResponse> response = roomService.getRoomTypeInventory(roomTypeId, from, to);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
 }
@@ -0,0 +1,78 @@
+package com.hotelmanagement.quanlikhachsan.controller;
+
+import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomHoldRequest;
+import com.hotelmanagement.quanlikhachsan.dto.response.ApiResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomHoldResponse;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomHoldService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * REST Controller for room holds.
+ * Holds keep rooms for a guest while they pay; pass the hold ID when
+ * creating the reservation. Unconverted holds expire on their own.
+ * Guests can only see and release their own holds.
+ */
+@RestController
+@RequestMapping("/api/v1/room-holds")
+@RequiredArgsConstructor
+@Slf4j
+public class RoomHoldController {
+
+    private final RoomHoldService roomHoldService;
+
+    /**
+     * Hold rooms for a stay.
+     *
+     * @param request the rooms and dates to hold
+     * @param authentication the guest taking the hold
+     * @return the hold and when it expires
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<RoomHoldResponse>> createHold(@Valid @RequestBody RoomHoldRequest request,
+            Authentication authentication) {
+        UUID owner = roomHoldService.resolveOwner(authentication.getName());
+        log.info("Holding {} rooms for keycloakUserId: {}", request.roomIds().size(), owner);
+        RoomHoldResponse response = roomHoldService.createHold(request, owner);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Rooms held", response));
+    }
+
+    /**
+     * Get a hold that has not expired.
+     *
+     * @param holdId the hold ID
+     * @param authentication the guest who took the hold
+     * @return the hold
+     */
+    @GetMapping("/{holdId}")
+    public ResponseEntity<ApiResponse<RoomHoldResponse>> getHold(@PathVariable UUID holdId,
+            Authentication authentication) {
+        RoomHoldResponse response = roomHoldService.getOwnHold(holdId,
+                roomHoldService.resolveOwner(authentication.getName()));
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    /**
+     * Release a hold before it expires.
+     *
+     * @param holdId the hold ID
+     * @param authentication the guest who took the hold
+     * @return success response
+     */
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<ApiResponse<Void>> releaseHold(@PathVariable UUID holdId,
+            Authentication authentication) {
+        log.info("Releasing hold {}", holdId);
+        roomHoldService.releaseOwnHold(holdId, roomHoldService.resolveOwner(authentication.getName()));
+        return ResponseEntity.ok(ApiResponse.success("Hold released", null));
+    }
+}
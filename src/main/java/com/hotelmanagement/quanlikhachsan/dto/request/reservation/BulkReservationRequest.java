@@ -0,0 +1,19 @@
+package com.hotelmanagement.quanlikhachsan.dto.request.reservation;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Group booking: one reservation per line, validated and stored together.
+ * Lines that fail validation are reported and the rest are booked.
+ *
+ * @param lines reservations to create, in the order results are returned
+ */
+public record BulkReservationRequest(
+        @NotEmpty(message = "At least one reservation line is required")
+        @Size(max = 200, message = "At most 200 reservation lines per request")
+        List<@Valid ReservationRequest> lines) {
+}
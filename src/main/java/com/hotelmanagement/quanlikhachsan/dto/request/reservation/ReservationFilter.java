@@ -0,0 +1,27 @@
+package com.hotelmanagement.quanlikhachsan.dto.request.reservation;
+
+import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Optional filters for the reservation listing. Null fields are not applied.
+ *
+ * @param status         reservation status
+ * @param keycloakUserId guest's Keycloak user ID
+ * @param from           stays with a night on or after this date
+ * @param to             stays with a night before this date
+ * @param roomId         stays that include this room
+ */
+public record ReservationFilter(
+        ReservationStatus status,
+        UUID keycloakUserId,
+        LocalDate from,
+        LocalDate to,
+        String roomId) {
+
+    public static ReservationFilter none() {
+        return new ReservationFilter(null, null, null, null, null);
+    }
+}
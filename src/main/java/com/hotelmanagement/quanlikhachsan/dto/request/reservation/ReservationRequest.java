@@ -21,6 +21,9 @@ public record ReservationRequest(
         @NotNull(message = "Check-out date is required")
         @Future(message = "Check-out date must be in the future") LocalDate checkOut,
 
-        ReservationStatus status
+        ReservationStatus status,
+
+        // Optional hold from POST /api/v1/room-holds to convert into this reservation
+        UUID holdId
 ) {
 }
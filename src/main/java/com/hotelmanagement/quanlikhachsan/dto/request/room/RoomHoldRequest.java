@@ -0,0 +1,22 @@
+package com.hotelmanagement.quanlikhachsan.dto.request.room;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request DTO for holding rooms while a guest completes payment.
+ * The hold belongs to the authenticated guest.
+ */
+public record RoomHoldRequest(
+        @NotEmpty(message = "At least one room is required") List<UUID> roomIds,
+
+        @NotNull(message = "Check-in date is required") @FutureOrPresent(message = "Check-in date must be today or in the future") LocalDate checkIn,
+
+        @NotNull(message = "Check-out date is required") @Future(message = "Check-out date must be in the future") LocalDate checkOut) {
+}
@@ -0,0 +1,36 @@
+package com.hotelmanagement.quanlikhachsan.dto.response.reservation;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outcome of a group booking, one result per request line in request order.
+ */
+public record BulkReservationResponse(
+        int created,
+        int rejected,
+        List<LineResult> results) {
+
+    /**
+     * Result of one line: the new reservation, or the error that rejected it.
+     *
+     * @param line          zero-based index of the request line
+     * @param created       whether a reservation was created
+     * @param reservationId ID of the created reservation
+     * @param totalAmount   total of the created reservation
+     * @param errorCode     error code of a rejected line
+     * @param message       error message of a rejected line
+     * @param details       error details of a rejected line, e.g. roomNumbers
+     */
+    public record LineResult(
+            int line,
+            boolean created,
+            UUID reservationId,
+            BigDecimal totalAmount,
+            String errorCode,
+            String message,
+            Map<String, Object> details) {
+    }
+}
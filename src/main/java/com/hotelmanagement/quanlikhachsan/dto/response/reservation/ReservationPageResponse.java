@@ -0,0 +1,14 @@
+package com.hotelmanagement.quanlikhachsan.dto.response.reservation;
+
+import java.util.List;
+
+/**
+ * One page of reservations, newest first.
+ *
+ * @param items      reservations on this page
+ * @param nextCursor opaque token for the next page, or null on the last page
+ */
+public record ReservationPageResponse(
+        List<ReservationResponse> items,
+        String nextCursor) {
+}
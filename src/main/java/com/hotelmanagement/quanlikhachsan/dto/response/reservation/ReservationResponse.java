@@ -18,6 +18,7 @@ public record ReservationResponse(
         BigDecimal totalAmount,
         ReservationStatus status,
         LocalDateTime createdAt,
-        LocalDateTime updatedAt
+        LocalDateTime updatedAt,
+        Long version
 ) {
 }
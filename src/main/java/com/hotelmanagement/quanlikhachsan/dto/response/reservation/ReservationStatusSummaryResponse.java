@@ -0,0 +1,13 @@
+package com.hotelmanagement.quanlikhachsan.dto.response.reservation;
+
+import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus;
+
+import java.util.Map;
+
+/**
+ * Number of reservations in each status, every status present.
+ */
+public record ReservationStatusSummaryResponse(
+        Map<ReservationStatus, Long> counts,
+        long total) {
+}
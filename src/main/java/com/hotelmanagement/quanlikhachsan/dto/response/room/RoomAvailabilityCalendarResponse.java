@@ -0,0 +1,23 @@
+package com.hotelmanagement.quanlikhachsan.dto.response.room;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response DTO for the rooms-by-nights availability calendar.
+ *
+ * Each room carries {@code booked}: a Base64 little-endian bitset in which bit
+ * {@code i} is set when the room is taken for the night of {@code from + i}.
+ */
+public record RoomAvailabilityCalendarResponse(
+        LocalDate from,
+        LocalDate to,
+        int nights,
+        List<RoomCalendar> rooms) {
+    public record RoomCalendar(
+            String roomId,
+            String roomNumber,
+            String roomTypeId,
+            String booked) {
+    }
+}
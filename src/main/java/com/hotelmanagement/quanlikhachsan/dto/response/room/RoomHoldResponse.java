@@ -0,0 +1,19 @@
+package com.hotelmanagement.quanlikhachsan.dto.response.room;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for a room hold; pass {@code holdId} when creating the
+ * reservation before {@code expiresAt}.
+ */
+public record RoomHoldResponse(
+        UUID holdId,
+        UUID keycloakUserId,
+        List<String> roomIds,
+        LocalDate checkIn,
+        LocalDate checkOut,
+        Instant expiresAt) {
+}
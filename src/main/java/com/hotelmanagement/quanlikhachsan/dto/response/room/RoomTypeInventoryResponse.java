@@ -0,0 +1,13 @@
+package com.hotelmanagement.quanlikhachsan.dto.response.room;
+
+import java.time.LocalDate;
+
+/**
+ * Response DTO for one night of room type inventory.
+ */
+public record RoomTypeInventoryResponse(
+        LocalDate date,
+        int total,
+        int sold,
+        int available) {
+}
@@ -9,6 +9,7 @@ public enum ErrorDefinition {
     ROOM_NOT_FOUND("Room not found.", HttpStatus.NOT_FOUND, "ROOM_001"),
     DUPLICATE_ID("Duplicate ID.", HttpStatus.CONFLICT, "ROOM_002"),
     ROOM_IN_USE("Cannot delete room that is currently occupied or reserved.", HttpStatus.CONFLICT, "ROOM_003"),
+    DATE_WINDOW_TOO_LARGE("Requested date window is too large.", HttpStatus.BAD_REQUEST, "ROOM_004"),
 
     // Reservation errors
     RESERVATION_NOT_FOUND("Reservation not found.", HttpStatus.NOT_FOUND, "RESERVATION_001"),
@@ -20,7 +21,26 @@ public enum ErrorDefinition {
     RESERVATION_ALREADY_CHECKED_IN("Reservation is already checked in.", HttpStatus.CONFLICT, "RESERVATION_006"),
     RESERVATION_CANNOT_MODIFY("Cannot modify a reservation that is checked out or cancelled.", HttpStatus.CONFLICT,
             "RESERVATION_007"),
-    PAST_CHECK_IN_DATE("Check-in date cannot be in the past.", HttpStatus.BAD_REQUEST, "RESERVATION_008");
+    PAST_CHECK_IN_DATE("Check-in date cannot be in the past.", HttpStatus.BAD_REQUEST, "RESERVATION_008"),
+    INVALID_CURSOR("Invalid or expired page cursor.", HttpStatus.BAD_REQUEST, "RESERVATION_009"),
+    HOLD_NOT_FOUND("Room hold not found or expired.", HttpStatus.NOT_FOUND, "RESERVATION_010"),
+    HOLD_MISMATCH("Reservation does not match the room hold.", HttpStatus.CONFLICT, "RESERVATION_011"),
+    HOLD_FORBIDDEN("Room hold belongs to another guest.", HttpStatus.FORBIDDEN, "RESERVATION_012"),
+    HOLD_TOO_LARGE("Room hold covers too many room nights.", HttpStatus.BAD_REQUEST, "RESERVATION_013"),
+    HOLD_LIMIT_EXCEEDED("Too many open room holds. Release one or let it expire.", HttpStatus.TOO_MANY_REQUESTS,
+            "RESERVATION_014"),
+
+    // Request errors
+    TOO_MANY_REQUESTS("Too many requests. Please try again later.", HttpStatus.TOO_MANY_REQUESTS, "REQUEST_001"),
+    INVALID_IDEMPOTENCY_KEY("Idempotency-Key must be at most 255 characters.", HttpStatus.BAD_REQUEST, "REQUEST_002"),
+    IDEMPOTENCY_KEY_REUSED("Idempotency-Key was already used for a different request.",
+            HttpStatus.UNPROCESSABLE_ENTITY, "REQUEST_003"),
+    IDEMPOTENT_REQUEST_IN_PROGRESS("A request with this Idempotency-Key is still being processed.",
+            HttpStatus.CONFLICT, "REQUEST_004"),
+    CONCURRENT_MODIFICATION("This record was changed by another request. Reload it and try again.",
+            HttpStatus.CONFLICT, "REQUEST_005"),
+    INVALID_IF_MATCH("If-Match must be the version of the record, e.g. \"3\".", HttpStatus.BAD_REQUEST,
+            "REQUEST_006");
 
     private final String message;
     private final HttpStatus statusCode;
@@ -2,15 +2,23 @@ package com.hotelmanagement.quanlikhachsan.exception;
 
 import com.hotelmanagement.quanlikhachsan.dto.response.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Global exception handler for the application.
@@ -20,18 +28,42 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    /**
+     * Request attribute set to {@code true} when the error may not recur on a
+     * retry, such as a lost optimistic-lock race. IdempotencyFilter releases
+     * the key of such a request instead of storing its response.
+     */
+    public static final String RETRYABLE_ATTRIBUTE = GlobalExceptionHandler.class.getName() + ".retryable";
+
+    // PostgreSQL SQLSTATE for exclusion_violation
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    // Server detail of the violation: Key (room_id, stay_range)=(<room id>, [...)) conflicts with ...
+    private static final Pattern CONFLICTING_ROOM = Pattern.compile("Key \\(room_id, stay_range\\)=\\(([^,]+),");
+    private static final String CONCURRENT_MODIFICATION_CODE =
+            ErrorDefinition.CONCURRENT_MODIFICATION.toAppError().getErrorCode();
+
     /**
      * Handle AppError exceptions (business logic errors).
      */
     @ExceptionHandler(AppError.class)
     public ResponseEntity<ApiResponse<Map<String, Object>>> handleAppError(AppError ex) {
         log.error("AppError occurred: {} - {}", ex.getErrorCode(), ex.getMessage());
+        if (CONCURRENT_MODIFICATION_CODE.equals(ex.getErrorCode())) {
+            markRetryable();
+        }
 
+        return ResponseEntity.status(ex.getStatusCode()).body(errorBody(ex));
+    }
+
+    /**
+     * Response body for an AppError: its details plus the error code. Also
+     * written by the servlet filters that reject a request before it reaches
+     * a controller.
+     */
+    public static ApiResponse<Map<String, Object>> errorBody(AppError ex) {
         Map<String, Object> errorDetails = new HashMap<>(ex.getDetails());
         errorDetails.put("errorCode", ex.getErrorCode());
-
-        ApiResponse<Map<String, Object>> response = ApiResponse.error(errorDetails, ex.getMessage());
-        return ResponseEntity.status(ex.getStatusCode()).body(response);
+        return ApiResponse.error(errorDetails, ex.getMessage());
     }
 
     /**
@@ -69,6 +101,32 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    /**
+     * Handle database errors. Overlapping stays rejected by the
+     * reservation_rooms_no_overlap exclusion constraint surface here (usually at
+     * commit, since the constraint is deferred) and are reported as
+     * ROOM_NOT_AVAILABLE, with the colliding room when PostgreSQL names it. A stale @Version write is reported as
+     * CONCURRENT_MODIFICATION; anything else is treated as unexpected.
+     */
+    @ExceptionHandler({ DataAccessException.class, TransactionException.class })
+    public ResponseEntity<?> handleDataAccessException(RuntimeException ex) {
+        if (ex instanceof OptimisticLockingFailureException) {
+            log.warn("Concurrent modification rejected: {}", ex.getMessage());
+            return handleAppError(ErrorDefinition.CONCURRENT_MODIFICATION.toAppError().wrap(ex));
+        }
+        SQLException exclusionViolation = findExclusionViolation(ex);
+        if (exclusionViolation != null) {
+            log.warn("Double booking rejected by exclusion constraint: {}", ex.getMessage());
+            AppError error = ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError().wrap(ex);
+            Matcher room = CONFLICTING_ROOM.matcher(String.valueOf(exclusionViolation.getMessage()));
+            if (room.find()) {
+                error.withDetail("roomId", room.group(1));
+            }
+            return handleAppError(error);
+        }
+        return handleGenericException(ex);
+    }
+
     /**
      * Handle all other uncaught exceptions.
      */
@@ -79,4 +137,24 @@ public class GlobalExceptionHandler {
         ApiResponse<String> response = ApiResponse.error("An unexpected error occurred. Please try again later.");
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
+
+    private void markRetryable() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(RETRYABLE_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private SQLException findExclusionViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                for (SQLException next = sqlException; next != null; next = next.getNextException()) {
+                    if (EXCLUSION_VIOLATION.equals(next.getSQLState())) {
+                        return next;
+                    }
+                }
+            }
+        }
+        return null;
+    }
 }
@@ -7,6 +7,7 @@ import com.hotelmanagement.quanlikhachsan.dto.response.RoomTypeResponse;
 import com.hotelmanagement.quanlikhachsan.model.room.Room;
 import com.hotelmanagement.quanlikhachsan.model.room.RoomStatus;
 import com.hotelmanagement.quanlikhachsan.model.room.RoomType;
+import com.hotelmanagement.quanlikhachsan.services.catalog.RoomCatalogCache;
 import org.springframework.stereotype.Component;
 
 import java.util.stream.Collectors;
@@ -14,18 +15,19 @@ import java.util.stream.Collectors;
 public class RoomMapper {
 
     private final RoomImageMapper roomImageMapper;
+    private final RoomCatalogCache catalogCache;
 
-    public RoomMapper(RoomImageMapper roomImageMapper) {
+    public RoomMapper(RoomImageMapper roomImageMapper, RoomCatalogCache catalogCache) {
         this.roomImageMapper = roomImageMapper;
+        this.catalogCache = catalogCache;
     }
 
     public RoomResponse toResponse(Room room) {
         return new RoomResponse(
                 room.getId(),
                 room.getRoomNumber(),
-                new RoomTypeResponse(room.getType().getId(), room.getType().getName(),
-                        room.getType().getDescription(), room.getType().getPricePerNight()),
-                new RoomStatusResponse(room.getStatus().getId(), room.getStatus().getName()),
+                toTypeResponse(room.getType()),
+                toStatusResponse(room.getStatus()),
                 room.getFloor(),
                 room.getNote(),
                 room.getImages().stream()
@@ -48,4 +50,16 @@ public class RoomMapper {
                 .build();
     }
 
+    // Lookup tables come from the catalog cache; only the proxy ID is read from the entity
+    private RoomTypeResponse toTypeResponse(RoomType type) {
+        RoomTypeResponse cached = catalogCache.getRoomType(type.getId());
+        return cached != null ? cached
+                : new RoomTypeResponse(type.getId(), type.getName(), type.getDescription(), type.getPricePerNight());
+    }
+
+    private RoomStatusResponse toStatusResponse(RoomStatus status) {
+        RoomStatusResponse cached = catalogCache.getRoomStatus(status.getId());
+        return cached != null ? cached : new RoomStatusResponse(status.getId(), status.getName());
+    }
+
 }
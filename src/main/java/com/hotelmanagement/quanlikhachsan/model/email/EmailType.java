@@ -0,0 +1,22 @@
+package com.hotelmanagement.quanlikhachsan.model.email;
+
+import java.util.Locale;
+
+/**
+ * Kind of outbound email; selects the subject and template at delivery time.
+ */
+public enum EmailType {
+    VERIFICATION,
+    WELCOME,
+    RESERVATION_CONFIRMATION,
+    RESERVATION_CANCELLATION;
+
+    private final String templateName = name().toLowerCase(Locale.ROOT).replace('_', '-');
+
+    /**
+     * Template file name without locale and extension, e.g. "reservation-confirmation".
+     */
+    public String templateName() {
+        return templateName;
+    }
+}
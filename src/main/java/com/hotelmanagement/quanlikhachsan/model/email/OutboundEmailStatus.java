@@ -0,0 +1,8 @@
+package com.hotelmanagement.quanlikhachsan.model.email;
+
+public enum OutboundEmailStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    DEAD
+}
@@ -36,6 +36,10 @@ public class Room {
 
     private String note;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "room", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<RoomImages> images = new ArrayList<>();
@@ -0,0 +1,44 @@
+package com.hotelmanagement.quanlikhachsan.model.room;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Daily inventory of one room type: how many rooms exist and how many are sold
+ * for the night of {@code stayDate}.
+ */
+@Entity
+@Table(name = "room_type_inventory")
+@IdClass(RoomTypeInventory.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoomTypeInventory {
+
+    @Id
+    @Column(name = "room_type_id")
+    private String roomTypeId;
+
+    @Id
+    @Column(name = "stay_date")
+    private LocalDate stayDate;
+
+    private int total;
+
+    private int sold;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String roomTypeId;
+        private LocalDate stayDate;
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,6 +17,8 @@ public interface GuestRepository extends JpaRepository<Guest, UUID> {
 
     Optional<Guest> findByKeycloakUserId(UUID keycloakUserId);
 
+    List<Guest> findAllByKeycloakUserIdIn(Collection<UUID> keycloakUserIds);
+
     boolean existsByEmail(String email);
 
     boolean existsByKeycloakUserId(UUID keycloakUserId);
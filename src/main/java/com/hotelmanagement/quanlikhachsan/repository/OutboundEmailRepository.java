@@ -0,0 +1,51 @@
+package com.hotelmanagement.quanlikhachsan.repository;
+
+import com.hotelmanagement.quanlikhachsan.model.email.OutboundEmail;
+import com.hotelmanagement.quanlikhachsan.model.email.OutboundEmailStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, UUID> {
+
+    /**
+     * Lock up to {@code limit} deliverable rows: pending and due, or claimed
+     * before {@code staleBefore} by a worker that never finished. Rows locked by
+     * another node are skipped, so concurrent dispatchers never share a row.
+     */
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+            OR (status = 'SENDING' AND claimed_at < :staleBefore)
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboundEmail> lockDeliverable(@Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore,
+            @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboundEmail e WHERE e.status = :status AND e.sentAt < :cutoff")
+    int deleteByStatusAndSentAtBefore(@Param("status") OutboundEmailStatus status,
+            @Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT e.status AS status, COUNT(e) AS count FROM OutboundEmail e GROUP BY e.status")
+    List<StatusCount> countByStatus();
+
+    /**
+     * Projection of one status and its email count.
+     */
+    interface StatusCount {
+        OutboundEmailStatus getStatus();
+
+        Long getCount();
+    }
+}
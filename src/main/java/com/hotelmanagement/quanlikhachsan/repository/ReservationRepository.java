@@ -1,27 +1,50 @@
 package com.hotelmanagement.quanlikhachsan.repository;
 
 import com.hotelmanagement.quanlikhachsan.model.reservation.Reservation;
-import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationRoom;
 import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNullApi;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
-    boolean existsByKeycloakUserId(UUID keycloakUserId);
+public interface ReservationRepository extends JpaRepository<Reservation, UUID>,
+        JpaSpecificationExecutor<Reservation> {
+    @Query("SELECT COUNT(r) > 0 FROM Reservation r WHERE r.guest.keycloakUserId = :keycloakUserId")
+    boolean existsByKeycloakUserId(@Param("keycloakUserId") UUID keycloakUserId);
 
-    List<Reservation> findByKeycloakUserId(UUID keycloakUserId);
+    @EntityGraph(attributePaths = { "guest", "reservationRooms", "reservationRooms.room" })
+    @Query("SELECT r FROM Reservation r WHERE r.guest.keycloakUserId = :keycloakUserId")
+    List<Reservation> findByKeycloakUserId(@Param("keycloakUserId") UUID keycloakUserId);
 
-    List<ReservationRoom> findByRoomId(Long roomId);
+    /**
+     * Load the given reservations with their guest and rooms in one statement. Room
+     * images, types and statuses are batch fetched (hibernate.default_batch_fetch_size),
+     * so mapping N reservations costs a fixed number of queries.
+     */
+    @EntityGraph(attributePaths = { "guest", "reservationRooms", "reservationRooms.room" })
+    @Query("SELECT r FROM Reservation r WHERE r.id IN :ids")
+    List<Reservation> findAllWithDetailsByIdIn(@Param("ids") Collection<UUID> ids);
 
-    List<ReservationRoom> findByReservationStatus(ReservationStatus status);
+    @EntityGraph(attributePaths = { "guest", "reservationRooms", "reservationRooms.room" })
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id")
+    Optional<Reservation> findWithDetailsById(@Param("id") UUID id);
 
+    /**
+     * Reservations per status, answered from idx_reservations_status_created_at_id.
+     */
+    @Query("SELECT r.status AS status, COUNT(r) AS count FROM Reservation r GROUP BY r.status")
+    List<StatusCount> countByStatus();
+
+    @EntityGraph(attributePaths = { "guest", "reservationRooms", "reservationRooms.room" })
     @Query("SELECT r FROM Reservation r WHERE r.checkIn BETWEEN :startDate AND :endDate")
     List<Reservation> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
@@ -38,4 +61,13 @@ public interface ReservationRepository extends JpaRepository<Reservation, UUID>
             @Param("checkOut") LocalDate checkOut);
 
     void deleteById( UUID keycloakUserId);
+
+    /**
+     * Projection of one status and its reservation count.
+     */
+    interface StatusCount {
+        ReservationStatus getStatus();
+
+        Long getCount();
+    }
 }
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,16 +25,18 @@ public interface ReservationRoomRepository extends JpaRepository<ReservationRoom
     /**
      * Check if a room is available for a given date range.
      * A room is not available if there's an overlapping reservation that is not
-     * cancelled or checked out.
+     * cancelled or checked out. Stays are half-open, so a check-out and a
+     * check-in on the same day do not conflict. Served by the GiST index behind
+     * the reservation_rooms_no_overlap exclusion constraint.
      */
-    @Query("""
-            SELECT COUNT(rr) > 0 FROM ReservationRoom rr
-            JOIN rr.reservation r
-            WHERE rr.room.id = :roomId
-            AND r.status NOT IN (com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus.CANCELLED,
-                                  com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus.CHECKED_OUT)
-            AND ((r.checkIn <= :checkOut AND r.checkOut >= :checkIn))
-            """)
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1 FROM reservation_rooms rr
+                WHERE rr.room_id = :roomId
+                AND rr.blocking
+                AND rr.stay_range && daterange(CAST(:checkIn AS date), CAST(:checkOut AS date), '[)')
+            )
+            """, nativeQuery = true)
     boolean hasConflictingReservation(
             @Param("roomId") String roomId,
             @Param("checkIn") LocalDate checkIn,
@@ -44,18 +47,121 @@ public interface ReservationRoomRepository extends JpaRepository<ReservationRoom
      * reservation.
      * Used for updating reservations.
      */
-    @Query("""
-            SELECT COUNT(rr) > 0 FROM ReservationRoom rr
-            JOIN rr.reservation r
-            WHERE rr.room.id = :roomId
-            AND r.id != :excludeReservationId
-            AND r.status NOT IN (com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus.CANCELLED,
-                                  com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus.CHECKED_OUT)
-            AND ((r.checkIn <= :checkOut AND r.checkOut >= :checkIn))
-            """)
+    @Query(value = """
+            SELECT EXISTS (
+                SELECT 1 FROM reservation_rooms rr
+                WHERE rr.room_id = :roomId
+                AND rr.reservation_id <> :excludeReservationId
+                AND rr.blocking
+                AND rr.stay_range && daterange(CAST(:checkIn AS date), CAST(:checkOut AS date), '[)')
+            )
+            """, nativeQuery = true)
     boolean hasConflictingReservationExcluding(
             @Param("roomId") String roomId,
             @Param("checkIn") LocalDate checkIn,
             @Param("checkOut") LocalDate checkOut,
             @Param("excludeReservationId") UUID excludeReservationId);
+
+    /**
+     * Room numbers of the given rooms that are already booked for any night in
+     * the date range, with the same half-open overlap rule as
+     * {@link #hasConflictingReservation}. One statement for a whole group
+     * booking; empty when every room is free.
+     */
+    @Query(value = """
+            SELECT r.room_number FROM rooms r
+            WHERE r.id IN (:roomIds)
+            AND EXISTS (
+                SELECT 1 FROM reservation_rooms rr
+                WHERE rr.room_id = r.id
+                AND rr.blocking
+                AND rr.stay_range && daterange(CAST(:checkIn AS date), CAST(:checkOut AS date), '[)')
+            )
+            ORDER BY r.room_number
+            """, nativeQuery = true)
+    List<String> findConflictingRoomNumbers(
+            @Param("roomIds") Collection<String> roomIds,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut);
+
+    /**
+     * Same as {@link #findConflictingRoomNumbers}, ignoring the stays of the
+     * reservation being updated.
+     */
+    @Query(value = """
+            SELECT r.room_number FROM rooms r
+            WHERE r.id IN (:roomIds)
+            AND EXISTS (
+                SELECT 1 FROM reservation_rooms rr
+                WHERE rr.room_id = r.id
+                AND rr.reservation_id <> :excludeReservationId
+                AND rr.blocking
+                AND rr.stay_range && daterange(CAST(:checkIn AS date), CAST(:checkOut AS date), '[)')
+            )
+            ORDER BY r.room_number
+            """, nativeQuery = true)
+    List<String> findConflictingRoomNumbersExcluding(
+            @Param("roomIds") Collection<String> roomIds,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("excludeReservationId") UUID excludeReservationId);
+
+    /**
+     * Room stays of every active reservation that has not ended before the given
+     * date. Used to seed the in-memory occupancy index.
+     */
+    @Query("""
+            SELECT rr.room.id AS roomId, r.checkIn AS checkIn, r.checkOut AS checkOut
+            FROM ReservationRoom rr
+            JOIN rr.reservation r
+            WHERE r.status NOT IN (com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus.CANCELLED,
+                                  com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus.CHECKED_OUT)
+            AND r.checkOut >= :from
+            """)
+    List<RoomStay> findActiveStaysEndingOnOrAfter(@Param("from") LocalDate from);
+
+    /**
+     * Room stays of every active reservation with at least one night in
+     * {@code [from, to)}. Used to build the availability calendar in one query.
+     */
+    @Query("""
+            SELECT rr.room.id AS roomId, r.checkIn AS checkIn, r.checkOut AS checkOut
+            FROM ReservationRoom rr
+            JOIN rr.reservation r
+            WHERE r.status NOT IN (com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus.CANCELLED,
+                                  com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus.CHECKED_OUT)
+            AND r.checkIn < :to
+            AND r.checkOut > :from
+            """)
+    List<RoomStay> findActiveStaysOverlapping(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Active stays of the given rooms with at least one night in
+     * {@code [from, to)}. Used to check a whole group booking in one query.
+     */
+    @Query("""
+            SELECT rr.room.id AS roomId, r.checkIn AS checkIn, r.checkOut AS checkOut
+            FROM ReservationRoom rr
+            JOIN rr.reservation r
+            WHERE rr.room.id IN :roomIds
+            AND r.status NOT IN (com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus.CANCELLED,
+                                  com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus.CHECKED_OUT)
+            AND r.checkIn < :to
+            AND r.checkOut > :from
+            """)
+    List<RoomStay> findActiveStaysOfRoomsOverlapping(
+            @Param("roomIds") Collection<String> roomIds,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * Projection of a single room booked for a date range.
+     */
+    interface RoomStay {
+        String getRoomId();
+
+        LocalDate getCheckIn();
+
+        LocalDate getCheckOut();
+    }
 }
@@ -2,9 +2,15 @@ package com.hotelmanagement.quanlikhachsan.repository;
 
 import com.hotelmanagement.quanlikhachsan.model.room.Room;
 import com.hotelmanagement.quanlikhachsan.model.room.RoomStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +26,71 @@ public interface RoomRepository extends JpaRepository<Room, String> {
     List<Room> findAllByStatusName(String statusName);
 
     boolean existsByRoomNumber(String roomNumber);
+
+    long countByTypeId(String roomTypeId);
+
+    /**
+     * Rooms by ID with their type loaded in the same statement, for pricing a
+     * booking. IDs that do not exist are simply absent from the result.
+     */
+    @EntityGraph(attributePaths = "type")
+    List<Room> findAllWithTypeByIdIn(Collection<String> roomIds);
+
+    /**
+     * Availability of the given rooms for a date range in a single statement.
+     * Uses the same half-open overlap rule as
+     * {@link ReservationRoomRepository#hasConflictingReservation}.
+     */
+    @Query(value = """
+            SELECT r.id AS roomId, r.room_number AS roomNumber,
+                   t.name AS roomType, t.price_per_night AS pricePerNight,
+                   NOT EXISTS (
+                       SELECT 1 FROM reservation_rooms rr
+                       WHERE rr.room_id = r.id
+                       AND rr.blocking
+                       AND rr.stay_range && daterange(CAST(:checkIn AS date), CAST(:checkOut AS date), '[)')
+                   ) AS available
+            FROM rooms r
+            LEFT JOIN room_types t ON t.id = r.room_type_id
+            WHERE r.id IN (:roomIds)
+            """, nativeQuery = true)
+    List<RoomAvailabilityView> findAvailability(
+            @Param("roomIds") Collection<String> roomIds,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut);
+
+    /**
+     * Availability of every room for a date range in a single statement.
+     */
+    @Query(value = """
+            SELECT r.id AS roomId, r.room_number AS roomNumber,
+                   t.name AS roomType, t.price_per_night AS pricePerNight,
+                   NOT EXISTS (
+                       SELECT 1 FROM reservation_rooms rr
+                       WHERE rr.room_id = r.id
+                       AND rr.blocking
+                       AND rr.stay_range && daterange(CAST(:checkIn AS date), CAST(:checkOut AS date), '[)')
+                   ) AS available
+            FROM rooms r
+            LEFT JOIN room_types t ON t.id = r.room_type_id
+            ORDER BY r.room_number
+            """, nativeQuery = true)
+    List<RoomAvailabilityView> findAvailabilityOfAllRooms(
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut);
+
+    /**
+     * Projection of a room with its type, price and availability flag.
+     */
+    interface RoomAvailabilityView {
+        String getRoomId();
+
+        String getRoomNumber();
+
+        String getRoomType();
+
+        BigDecimal getPricePerNight();
+
+        Boolean getAvailable();
+    }
 }
@@ -0,0 +1,106 @@
+package com.hotelmanagement.quanlikhachsan.repository;
+
+import com.hotelmanagement.quanlikhachsan.model.room.RoomTypeInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RoomTypeInventoryRepository extends JpaRepository<RoomTypeInventory, RoomTypeInventory.Key> {
+
+    List<RoomTypeInventory> findByRoomTypeIdAndStayDateBetweenOrderByStayDate(
+            String roomTypeId, LocalDate from, LocalDate to);
+
+    /**
+     * Take the inventory lock in shared mode until the transaction ends.
+     * Incremental updates hold it so a rebuild cannot run between their
+     * reservation_rooms change and their counter update.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(hashtext('room_type_inventory'))) l",
+            nativeQuery = true)
+    int lockShared();
+
+    /**
+     * Take the inventory lock exclusively until the transaction ends: waits
+     * for in-flight incremental updates to commit and holds off new ones.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('room_type_inventory'))) l",
+            nativeQuery = true)
+    int lockExclusive();
+
+    /**
+     * Add sold rooms for every night of a stay, creating missing rows on the fly.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO room_type_inventory (room_type_id, stay_date, total, sold)
+            SELECT :roomTypeId, CAST(d AS date),
+                   (SELECT COUNT(*) FROM rooms r WHERE r.room_type_id = :roomTypeId),
+                   :rooms
+            FROM generate_series(CAST(:checkIn AS date), CAST(:checkOut AS date) - 1, interval '1 day') d
+            ON CONFLICT (room_type_id, stay_date)
+            DO UPDATE SET sold = room_type_inventory.sold + EXCLUDED.sold
+            """, nativeQuery = true)
+    int addSold(@Param("roomTypeId") String roomTypeId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("rooms") int rooms);
+
+    /**
+     * Give back sold rooms for every night of a stay.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE room_type_inventory
+            SET sold = GREATEST(sold - :rooms, 0)
+            WHERE room_type_id = :roomTypeId
+            AND stay_date >= :checkIn AND stay_date < :checkOut
+            """, nativeQuery = true)
+    int subtractSold(@Param("roomTypeId") String roomTypeId,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut,
+            @Param("rooms") int rooms);
+
+    /**
+     * Change the room count of a type from today onwards.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE room_type_inventory
+            SET total = GREATEST(total + :delta, 0)
+            WHERE room_type_id = :roomTypeId
+            AND stay_date >= CURRENT_DATE
+            """, nativeQuery = true)
+    int adjustTotal(@Param("roomTypeId") String roomTypeId, @Param("delta") int delta);
+
+    /**
+     * Recompute total and sold for every room type and night in the window from
+     * rooms and reservation_rooms. Run under {@link #lockExclusive()} in a
+     * later statement, so its snapshot includes every committed update.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO room_type_inventory (room_type_id, stay_date, total, sold)
+            SELECT t.id, CAST(d AS date),
+                   (SELECT COUNT(*) FROM rooms r WHERE r.room_type_id = t.id),
+                   (SELECT COUNT(*) FROM reservation_rooms rr
+                    JOIN rooms r ON r.id = rr.room_id
+                    WHERE r.room_type_id = t.id
+                    AND rr.blocking
+                    AND rr.stay_range @> CAST(d AS date))
+            FROM room_types t
+            CROSS JOIN generate_series(CAST(:from AS date), CAST(:to AS date) - 1, interval '1 day') d
+            ON CONFLICT (room_type_id, stay_date)
+            DO UPDATE SET total = EXCLUDED.total, sold = EXCLUDED.sold
+            """, nativeQuery = true)
+    int rebuild(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "DELETE FROM room_type_inventory WHERE stay_date < :before", nativeQuery = true)
+    int deleteBefore(@Param("before") LocalDate before);
+}
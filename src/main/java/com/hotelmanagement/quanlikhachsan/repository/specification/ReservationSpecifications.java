@@ -0,0 +1,74 @@
+package com.hotelmanagement.quanlikhachsan.repository.specification;
+
+import com.hotelmanagement.quanlikhachsan.dto.request.reservation.ReservationFilter;
+import com.hotelmanagement.quanlikhachsan.model.reservation.Reservation;
+import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationRoom;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria building blocks for reservation listings. Only the filters that are
+ * set end up in the WHERE clause, so each query can use a matching index.
+ */
+public final class ReservationSpecifications {
+
+    /**
+     * Keyset order: newest first, ID as tie-breaker.
+     */
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    private ReservationSpecifications() {
+    }
+
+    /**
+     * @param guestId ID of the guest resolved from {@code filter.keycloakUserId()},
+     *                or null for all guests. Compared on reservations.guest_id,
+     *                without a join, so the (guest_id, created_at, id) index applies.
+     */
+    public static Specification<Reservation> matching(ReservationFilter filter, String guestId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.status() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.status()));
+            }
+            if (guestId != null) {
+                predicates.add(cb.equal(root.get("guest").get("id"), guestId));
+            }
+            // Half-open stays: a night in [from, to)
+            if (filter.from() != null) {
+                predicates.add(cb.greaterThan(root.get("checkOut"), filter.from()));
+            }
+            if (filter.to() != null) {
+                predicates.add(cb.lessThan(root.get("checkIn"), filter.to()));
+            }
+            if (filter.roomId() != null) {
+                Subquery<UUID> rooms = query.subquery(UUID.class);
+                Root<ReservationRoom> reservationRoom = rooms.from(ReservationRoom.class);
+                rooms.select(reservationRoom.get("id")).where(
+                        cb.equal(reservationRoom.get("reservation"), root),
+                        cb.equal(reservationRoom.get("room").get("id"), filter.roomId()));
+                predicates.add(cb.exists(rooms));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Rows after the given position in {@link #KEYSET_ORDER}.
+     */
+    public static Specification<Reservation> after(LocalDateTime createdAt, UUID id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(
+                        cb.equal(root.get("createdAt"), createdAt),
+                        cb.lessThan(root.get("id"), id)));
+    }
+}
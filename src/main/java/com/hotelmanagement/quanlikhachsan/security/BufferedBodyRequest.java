@@ -0,0 +1,98 @@
+package com.hotelmanagement.quanlikhachsan.security;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Buffers the start of the body for inspection by a filter and replays it,
+ * followed by anything not yet read, to the rest of the chain.
+ *
+ * Non-blocking reads (setReadListener) are served from the buffer, so they
+ * work only when the whole body fit into it.
+ */
+final class BufferedBodyRequest extends HttpServletRequestWrapper {
+    private final byte[] head;
+    private final InputStream body;
+    private final boolean complete;
+
+    BufferedBodyRequest(HttpServletRequest request, int maxBuffered) throws IOException {
+        super(request);
+        InputStream original = request.getInputStream();
+        byte[] read = original.readNBytes(maxBuffered + 1);
+        this.complete = read.length <= maxBuffered;
+        this.head = complete ? read : Arrays.copyOf(read, maxBuffered);
+        InputStream rest = complete ? InputStream.nullInputStream() : new SequenceInputStream(
+                new ByteArrayInputStream(read, maxBuffered, 1), original);
+        this.body = new SequenceInputStream(new ByteArrayInputStream(head), rest);
+    }
+
+    /**
+     * The buffered bytes; the whole body if it fit.
+     */
+    byte[] head() {
+        return head;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            @Override
+            public int read() throws IOException {
+                return body.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return body.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                try {
+                    return body.available() == 0;
+                } catch (IOException e) {
+                    return true;
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                if (!complete) {
+                    throw new IllegalStateException("Non-blocking read of a body larger than "
+                            + head.length + " bytes is not supported");
+                }
+                // Everything is in memory: it is all available now
+                try {
+                    readListener.onDataAvailable();
+                    readListener.onAllDataRead();
+                } catch (IOException e) {
+                    readListener.onError(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        String encoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+    }
+}
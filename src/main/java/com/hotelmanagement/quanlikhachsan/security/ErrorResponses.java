@@ -0,0 +1,27 @@
+package com.hotelmanagement.quanlikhachsan.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanagement.quanlikhachsan.exception.AppError;
+import com.hotelmanagement.quanlikhachsan.exception.GlobalExceptionHandler;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes an AppError from a filter with the same status and body that
+ * GlobalExceptionHandler gives it inside the dispatcher.
+ */
+final class ErrorResponses {
+
+    private ErrorResponses() {
+    }
+
+    static void write(HttpServletResponse response, ObjectMapper objectMapper, AppError error) throws IOException {
+        response.setStatus(error.getStatusCode().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), GlobalExceptionHandler.errorBody(error));
+    }
+}
@@ -0,0 +1,227 @@
+package com.hotelmanagement.quanlikhachsan.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanagement.quanlikhachsan.exception.AppError;
+import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
+import com.hotelmanagement.quanlikhachsan.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Makes retried reservation writes safe. A POST with an Idempotency-Key
+ * header runs once per user and key; retries with the same body get the
+ * stored response without reaching the database, and a retry that arrives
+ * while the first attempt is still running waits for its result.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    // Reservation bodies are small; a bulk request of 200 lines is well under this
+    private static final int MAX_BODY = 1024 * 1024;
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${idempotency.paths:/api/v1/reservations,/api/v1/reservations/bulk,/api/v1/reservations/*/check-in,/api/v1/reservations/*/check-out,/api/v1/reservations/*/cancel}")
+    private List<String> paths;
+
+    @Value("${idempotency.wait-timeout:5s}")
+    private Duration waitTimeout;
+
+    @Value("${idempotency.poll-interval:50ms}")
+    private Duration pollInterval;
+
+    private MeterRegistry registry;
+
+    @PostConstruct
+    void init() {
+        registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        return key == null || key.isBlank()
+                || paths.stream().noneMatch(path -> PATH_MATCHER.match(path, request.getRequestURI()));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, ErrorDefinition.INVALID_IDEMPOTENCY_KEY.toAppError());
+            return;
+        }
+
+        BufferedBodyRequest bufferedRequest = new BufferedBodyRequest(request, MAX_BODY);
+        String key = scopeOf(request) + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request, bufferedRequest.head());
+        String owner = UUID.randomUUID().toString();
+
+        IdempotencyStore.Entry entry;
+        try {
+            entry = awaitEntry(key, fingerprint, owner);
+        } catch (RuntimeException e) {
+            // Redis unavailable: run the request without replay protection rather than fail it
+            count("bypassed");
+            log.warn("Idempotency store unavailable, running {} without replay protection: {}",
+                    request.getRequestURI(), e.getMessage());
+            filterChain.doFilter(bufferedRequest, response);
+            return;
+        }
+
+        if (entry == null) {
+            count("executed");
+            execute(bufferedRequest, response, filterChain, key, owner);
+        } else if (!entry.fingerprint().equals(fingerprint)) {
+            count("mismatch");
+            log.warn("Idempotency-Key reused for a different request on {}", request.getRequestURI());
+            writeError(response, ErrorDefinition.IDEMPOTENCY_KEY_REUSED.toAppError());
+        } else if (entry.response() == null) {
+            count("in_progress");
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            writeError(response, ErrorDefinition.IDEMPOTENT_REQUEST_IN_PROGRESS.toAppError());
+        } else {
+            count("replayed");
+            replay(response, entry.response());
+        }
+    }
+
+    // ========== Private Helper Methods ==========
+
+    /**
+     * Claim the key, or wait up to wait-timeout for a running duplicate to
+     * finish. If the running request fails, its key is released and this
+     * request claims it.
+     */
+    private IdempotencyStore.Entry awaitEntry(String key, String fingerprint, String owner)
+            throws ServletException {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        IdempotencyStore.Entry entry = store.begin(key, fingerprint, owner);
+        while (entry != null && entry.response() == null && entry.fingerprint().equals(fingerprint)
+                && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for a duplicate request", e);
+            }
+            entry = store.begin(key, fingerprint, owner);
+        }
+        return entry;
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+            String key, String owner) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, cachingResponse);
+            if (!isRetryable(request, cachingResponse)) {
+                store.complete(key, owner, new IdempotencyStore.StoredResponse(cachingResponse.getStatus(),
+                        cachingResponse.getContentType(), cachingResponse.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(key, owner);
+            }
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Client errors are answers too, except those that a retry may get past:
+     * server errors, rate limiting and errors GlobalExceptionHandler marks as
+     * retryable, such as lost concurrent-modification races. Their keys are
+     * released instead of stored.
+     */
+    private boolean isRetryable(HttpServletRequest request, HttpServletResponse response) {
+        int status = response.getStatus();
+        return status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                || status == HttpStatus.TOO_MANY_REQUESTS.value()
+                || Boolean.TRUE.equals(request.getAttribute(GlobalExceptionHandler.RETRYABLE_ATTRIBUTE));
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    /**
+     * Keys are per user, so two users cannot collide on the same key.
+     */
+    private String scopeOf(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? principal.getName() : "anonymous";
+    }
+
+    private String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void count(String result) {
+        registry.counter("idempotency.requests", "result", result).increment();
+    }
+
+    private void writeError(HttpServletResponse response, AppError error) throws IOException {
+        ErrorResponses.write(response, objectMapper, error);
+    }
+}
@@ -0,0 +1,112 @@
+package com.hotelmanagement.quanlikhachsan.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Idempotency Store
+ *
+ * Responses of requests sent with an Idempotency-Key, kept in one Redis hash
+ * per key. The first request claims the key with a short lock; its response
+ * then replaces the lock and is kept for response-ttl. Each call is a single
+ * Lua script round trip.
+ *
+ * The claiming request passes a random owner token. Completing or releasing
+ * the key checks it, so a request whose lock expired cannot overwrite or
+ * delete a key that a later request has claimed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyStore {
+
+    private static final String KEY_PREFIX = "idem:";
+    private static final RedisScript<List> BEGIN_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/idempotency/begin.lua"), List.class);
+    private static final RedisScript<Long> COMPLETE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/idempotency/complete.lua"), Long.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/idempotency/release.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${idempotency.lock-ttl:30s}")
+    private Duration lockTtl;
+
+    @Value("${idempotency.response-ttl:24h}")
+    private Duration responseTtl;
+
+    /**
+     * A response to replay.
+     */
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    /**
+     * What is stored under a key owned by another request; {@code response}
+     * is null while that request is still running.
+     */
+    public record Entry(String fingerprint, StoredResponse response) {
+    }
+
+    /**
+     * Claim the key for a request.
+     *
+     * @param owner random token of the calling request, passed again to
+     *              complete or release
+     * @return null if the caller now owns the key and must run the request,
+     *         otherwise the entry already stored under it
+     */
+    public Entry begin(String key, String fingerprint, String owner) {
+        List<?> result = redisTemplate.execute(BEGIN_SCRIPT, List.of(KEY_PREFIX + key),
+                fingerprint, String.valueOf(lockTtl.toMillis()), owner);
+        if (result == null || result.isEmpty()) {
+            return null;
+        }
+        if (result.get(1) == null) {
+            return new Entry((String) result.get(0), null);
+        }
+        String contentType = (String) result.get(2);
+        return new Entry((String) result.get(0), new StoredResponse(
+                Integer.parseInt((String) result.get(1)),
+                contentType == null || contentType.isEmpty() ? null : contentType,
+                ((String) result.get(3)).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Store the response of a request that owns the key. A failure is only
+     * logged: the request already ran, and a retry will run it again.
+     */
+    public void complete(String key, String owner, StoredResponse response) {
+        try {
+            redisTemplate.execute(COMPLETE_SCRIPT, List.of(KEY_PREFIX + key), owner,
+                    String.valueOf(response.status()),
+                    response.contentType() != null ? response.contentType() : "",
+                    new String(response.body(), StandardCharsets.UTF_8),
+                    String.valueOf(responseTtl.toMillis()));
+        } catch (Exception e) {
+            log.warn("Failed to store idempotent response for key {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the key after a failed request so a retry runs it again, unless
+     * another request has claimed it since.
+     */
+    public void release(String key, String owner) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + key), owner);
+        } catch (Exception e) {
+            log.warn("Failed to release idempotency key {}; it expires in {}: {}", key, lockTtl, e.getMessage());
+        }
+    }
+}
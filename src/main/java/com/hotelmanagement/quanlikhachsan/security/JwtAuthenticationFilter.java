@@ -1,11 +1,13 @@
 package com.hotelmanagement.quanlikhachsan.security;
 
 import com.hotelmanagement.quanlikhachsan.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -17,12 +19,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private JwtUtil jwtUtil;
+    private final JwtUtil jwtUtil;
     private static final String JWT_COOKIE_NAME = "jwt";
 
     @Override
@@ -34,9 +38,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractJwtFromCookie(request);
 
-            if (jwt != null && jwtUtil.isTokenValid(jwt) && !jwtUtil.isTokenExpired(jwt)) {
-                String email = jwtUtil.extractEmail(jwt);
-                String role = jwtUtil.extractRole(jwt);
+            // Verify once; email and role come from the same parsed claims
+            Optional<Claims> claims = jwt != null ? jwtUtil.parseVerifiedClaims(jwt) : Optional.empty();
+            if (claims.isPresent()) {
+                String email = claims.get().getSubject();
+                String role = claims.get().get("role", String.class);
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         email,
@@ -0,0 +1,138 @@
+package com.hotelmanagement.quanlikhachsan.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanagement.quanlikhachsan.exception.AppError;
+import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the credential and OTP endpoints per client IP and per email in
+ * the request body. Rejected requests get 429 with Retry-After before they
+ * reach Keycloak or the mail queue.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Only this much of the body is buffered to look for the email
+    private static final int MAX_INSPECTED_BODY = 16 * 1024;
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.paths:/api/v1/auth/login,/api/v1/auth/register,/api/v1/email/send-otp,/api/v1/email/resend-otp}")
+    private Set<String> paths;
+
+    @Value("${rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${rate-limit.ip.refill-per-minute:10}")
+    private double ipRefillPerMinute;
+
+    @Value("${rate-limit.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${rate-limit.email.refill-per-minute:2}")
+    private double emailRefillPerMinute;
+
+    private MeterRegistry registry;
+    private Timer checkTimer;
+
+    @PostConstruct
+    void init() {
+        registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        checkTimer = registry.timer("ratelimit.check.duration");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !paths.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        String endpoint = request.getRequestURI();
+        BufferedBodyRequest bufferedRequest = new BufferedBodyRequest(request, MAX_INSPECTED_BODY);
+
+        List<String> scopes = new ArrayList<>(2);
+        List<RateLimiter.Limit> limits = new ArrayList<>(2);
+        scopes.add("ip");
+        limits.add(new RateLimiter.Limit(endpoint + ":ip:" + request.getRemoteAddr(), ipCapacity,
+                ipRefillPerMinute));
+        String email = extractEmail(bufferedRequest.head());
+        if (email != null) {
+            scopes.add("email");
+            limits.add(new RateLimiter.Limit(endpoint + ":email:" + email, emailCapacity, emailRefillPerMinute));
+        }
+
+        long start = System.nanoTime();
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(limits);
+        checkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (decision.allowed()) {
+            filterChain.doFilter(bufferedRequest, response);
+            return;
+        }
+
+        String scope = scopes.get(decision.rejectedBy());
+        registry.counter("ratelimit.rejected", "endpoint", endpoint, "scope", scope).increment();
+        log.warn("Rate limited {} by {} for {}", endpoint, scope,
+                "ip".equals(scope) ? request.getRemoteAddr() : email);
+        writeRejection(response, decision.retryAfterMillis());
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private String extractEmail(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            // Malformed or truncated body: limit by IP only; validation rejects it later
+            return null;
+        }
+    }
+
+    private void writeRejection(HttpServletResponse response, long retryAfterMillis) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999));
+        AppError error = ErrorDefinition.TOO_MANY_REQUESTS.toAppError()
+                .withDetail("retryAfterSeconds", retryAfterSeconds);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        ErrorResponses.write(response, objectMapper, error);
+    }
+}
@@ -0,0 +1,152 @@
+package com.hotelmanagement.quanlikhachsan.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate Limiter
+ *
+ * Token buckets shared by all nodes in Redis. One Lua script call checks and
+ * takes a token from every bucket of a request, so a check is a single
+ * round trip. If Redis fails, decisions fall back to in-process buckets for
+ * fallback.retry-after before Redis is tried again; during that window the
+ * limits apply per node.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimiter {
+
+    private static final String KEY_PREFIX = "rl:";
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/ratelimit/token-bucket.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${rate-limit.fallback.retry-after:5s}")
+    private Duration fallbackRetryAfter;
+
+    @Value("${rate-limit.fallback.max-buckets:100000}")
+    private long fallbackMaxBuckets;
+
+    private Cache<String, LocalBucket> localBuckets;
+    private Counter fallbackDecisions;
+    private volatile long redisRetryAt;
+
+    /**
+     * One bucket: up to {@code capacity} requests at once, refilled at
+     * {@code refillPerMinute}.
+     */
+    public record Limit(String key, int capacity, double refillPerMinute) {
+
+        double tokensPerMilli() {
+            return refillPerMinute / Duration.ofMinutes(1).toMillis();
+        }
+    }
+
+    /**
+     * Outcome of a check; {@code rejectedBy} is the index of the first empty
+     * bucket, or -1 when allowed.
+     */
+    public record Decision(boolean allowed, long retryAfterMillis, int rejectedBy) {
+
+        public static final Decision ALLOWED = new Decision(true, 0, -1);
+    }
+
+    @PostConstruct
+    void init() {
+        localBuckets = Caffeine.newBuilder()
+                .maximumSize(fallbackMaxBuckets)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        fallbackDecisions = meterRegistry.getIfAvailable(SimpleMeterRegistry::new)
+                .counter("ratelimit.fallback.decisions");
+    }
+
+    /**
+     * Take one token from each bucket if all of them have one.
+     */
+    public Decision tryAcquire(List<Limit> limits) {
+        long now = System.currentTimeMillis();
+        if (now >= redisRetryAt) {
+            try {
+                return acquireInRedis(limits, now);
+            } catch (Exception e) {
+                redisRetryAt = now + fallbackRetryAfter.toMillis();
+                log.warn("Rate limiter falling back to local buckets for {}: {}", fallbackRetryAfter,
+                        e.getMessage());
+            }
+        }
+        fallbackDecisions.increment();
+        return acquireLocally(limits, now);
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private Decision acquireInRedis(List<Limit> limits, long now) {
+        List<String> keys = new ArrayList<>(limits.size());
+        Object[] args = new Object[1 + 2 * limits.size()];
+        args[0] = String.valueOf(now);
+        for (int i = 0; i < limits.size(); i++) {
+            Limit limit = limits.get(i);
+            keys.add(KEY_PREFIX + limit.key());
+            args[1 + 2 * i] = String.valueOf(limit.capacity());
+            args[2 + 2 * i] = String.valueOf(limit.tokensPerMilli());
+        }
+
+        List<?> result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, keys, args);
+        long retryAfter = ((Number) result.get(0)).longValue();
+        if (retryAfter == 0) {
+            return Decision.ALLOWED;
+        }
+        // Lua indexes from 1
+        return new Decision(false, retryAfter, ((Number) result.get(1)).intValue() - 1);
+    }
+
+    private synchronized Decision acquireLocally(List<Limit> limits, long now) {
+        List<LocalBucket> buckets = new ArrayList<>(limits.size());
+        for (int i = 0; i < limits.size(); i++) {
+            Limit limit = limits.get(i);
+            LocalBucket bucket = localBuckets.get(limit.key(), key -> new LocalBucket(limit.capacity(), now));
+            bucket.refill(limit, now);
+            if (bucket.tokens < 1) {
+                return new Decision(false, (long) Math.ceil((1 - bucket.tokens) / limit.tokensPerMilli()), i);
+            }
+            buckets.add(bucket);
+        }
+        buckets.forEach(bucket -> bucket.tokens--);
+        return Decision.ALLOWED;
+    }
+
+    private static final class LocalBucket {
+        private double tokens;
+        private long lastRefill;
+
+        private LocalBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        private void refill(Limit limit, long now) {
+            tokens = Math.min(limit.capacity(), tokens + Math.max(0, now - lastRefill) * limit.tokensPerMilli());
+            lastRefill = now;
+        }
+    }
+}
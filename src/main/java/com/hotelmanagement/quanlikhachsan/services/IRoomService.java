@@ -3,7 +3,9 @@ package com.hotelmanagement.quanlikhachsan.services;
 import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomAvailabilityRequest;
 import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomRequest;
 import com.hotelmanagement.quanlikhachsan.dto.response.RoomResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomAvailabilityCalendarResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomAvailabilityResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomTypeInventoryResponse;
 import com.hotelmanagement.quanlikhachsan.model.room.RoomStatus;
 
 import java.time.LocalDate;
@@ -41,4 +43,23 @@ public interface IRoomService {
      * @return list of available rooms
      */
     List<RoomResponse> getAvailableRooms(LocalDate checkIn, LocalDate checkOut);
+
+    /**
+     * Get sold and free rooms of one room type for each night of a date range.
+     *
+     * @param roomTypeId room type ID
+     * @param from       first night
+     * @param to         day after the last night
+     * @return one entry per night
+     */
+    List<RoomTypeInventoryResponse> getRoomTypeInventory(String roomTypeId, LocalDate from, LocalDate to);
+
+    /**
+     * Get a rooms-by-nights availability matrix for a date window.
+     *
+     * @param from first night
+     * @param to   day after the last night
+     * @return one booked-nights bitset per room
+     */
+    RoomAvailabilityCalendarResponse getAvailabilityCalendar(LocalDate from, LocalDate to);
 }
@@ -3,7 +3,9 @@ package com.hotelmanagement.quanlikhachsan.services;
 import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomAvailabilityRequest;
 import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomRequest;
 import com.hotelmanagement.quanlikhachsan.dto.response.RoomResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomAvailabilityCalendarResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomAvailabilityResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomTypeInventoryResponse;
 import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
 import com.hotelmanagement.quanlikhachsan.mapper.RoomMapper;
 
@@ -12,8 +14,15 @@ import com.hotelmanagement.quanlikhachsan.model.room.RoomStatus;
 import com.hotelmanagement.quanlikhachsan.model.room.RoomType;
 import com.hotelmanagement.quanlikhachsan.repository.ReservationRoomRepository;
 import com.hotelmanagement.quanlikhachsan.repository.RoomRepository;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomHoldService;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomOccupancyIndex;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomTypeInventoryService;
+import com.hotelmanagement.quanlikhachsan.services.catalog.RoomCatalogCache;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,18 +30,36 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed("room.service")
 public class RoomServiceImpl implements IRoomService {
 
+    // Open upper bound for "every stay from today on"
+    private static final LocalDate LAST_STAY_DATE = LocalDate.of(9999, 12, 31);
+
     private final RoomRepository roomRepository;
     private final ReservationRoomRepository reservationRoomRepository;
     private final RoomMapper roomMapper;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final RoomTypeInventoryService inventoryService;
+    private final RoomCatalogCache catalogCache;
+    private final RoomHoldService roomHoldService;
+
+    @Value("${availability.calendar.max-nights:62}")
+    private int calendarMaxNights;
 
     /*
      * Return all rooms in hotel
@@ -41,29 +68,31 @@ public class RoomServiceImpl implements IRoomService {
     @Override
     @Transactional(readOnly = true)
     public List<RoomResponse> getAllRooms() {
-        return roomRepository.findAll().stream()
+        return catalogCache.getAllRooms(() -> roomRepository.findAll().stream()
                 .map(roomMapper::toResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Transactional(readOnly = true)
     public Optional<RoomResponse> getRoomById(String roomId) {
-        Room room = roomRepository.findById(roomId)
-                .orElseThrow(() -> ErrorDefinition.ROOM_NOT_FOUND.toAppError().withDetail("productId", roomId));
-        return Optional.ofNullable(roomMapper.toResponse(room));
+        return Optional.ofNullable(catalogCache.getRoom(roomId, () -> {
+            Room room = roomRepository.findById(roomId)
+                    .orElseThrow(() -> ErrorDefinition.ROOM_NOT_FOUND.toAppError().withDetail("productId", roomId));
+            return roomMapper.toResponse(room);
+        }));
     }
 
     @Transactional(readOnly = true)
     public List<RoomResponse> getRoomsByStatus(RoomStatus status) {
-        return roomRepository.findAllByStatus(status).stream()
-                .map(roomMapper::toResponse)
+        return getAllRooms().stream()
+                .filter(room -> room.roomStatus() != null && room.roomStatus().id().equals(status.getId()))
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     public List<RoomResponse> getRoomsByStatusName(String statusName) {
-        return roomRepository.findAllByStatusName(statusName).stream()
-                .map(roomMapper::toResponse)
+        return getAllRooms().stream()
+                .filter(room -> room.roomStatus() != null && statusName.equals(room.roomStatus().name()))
                 .collect(Collectors.toList());
     }
 
@@ -76,6 +105,8 @@ public class RoomServiceImpl implements IRoomService {
 
         Room room = roomMapper.toEntity(request);
         Room savedRoom = roomRepository.save(room);
+        inventoryService.adjustTotal(roomTypeIdOf(savedRoom), 1);
+        catalogCache.invalidateRoom(savedRoom.getId());
 
         return roomMapper.toResponse(savedRoom);
     }
@@ -91,6 +122,8 @@ public class RoomServiceImpl implements IRoomService {
             throw ErrorDefinition.DUPLICATE_ID.toAppError().withDetail("roomNumber", request.roomNumber());
         }
 
+        String previousTypeId = roomTypeIdOf(room);
+
         room.setRoomNumber(request.roomNumber());
         room.setType(RoomType.builder().id(request.roomTypeId()).build());
         if (request.roomStatusId() != null) {
@@ -100,6 +133,14 @@ public class RoomServiceImpl implements IRoomService {
         room.setNote(request.note());
 
         Room updatedRoom = roomRepository.save(room);
+
+        // A re-typed room takes its remaining bookings with it to the new type
+        String typeId = roomTypeIdOf(updatedRoom);
+        if (previousTypeId != null && !previousTypeId.equals(typeId)) {
+            inventoryService.changeRoomType(previousTypeId, typeId, reservationRoomRepository
+                    .findActiveStaysOfRoomsOverlapping(List.of(roomId), LocalDate.now(), LAST_STAY_DATE));
+        }
+        catalogCache.invalidateRoom(roomId);
         return roomMapper.toResponse(updatedRoom);
     }
 
@@ -120,10 +161,13 @@ public class RoomServiceImpl implements IRoomService {
         }
 
         roomRepository.delete(room);
+        inventoryService.adjustTotal(roomTypeIdOf(room), -1);
+        catalogCache.invalidateRoom(roomId);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "room.availability.search", histogram = true)
     public RoomAvailabilityResponse checkAvailability(RoomAvailabilityRequest request) {
         List<RoomAvailabilityResponse.RoomAvailabilityDetail> details = new ArrayList<>();
         boolean allAvailable = true;
@@ -132,29 +176,20 @@ public class RoomServiceImpl implements IRoomService {
         if (nights < 1)
             nights = 1;
 
-        List<String> roomIds = request.roomIds();
-        if (roomIds == null || roomIds.isEmpty()) {
-            // If no specific rooms provided, check all rooms
-            roomIds = roomRepository.findAll().stream()
-                    .map(Room::getId)
-                    .collect(Collectors.toList());
-        }
-
-        for (String roomId : roomIds) {
-            Room room = roomRepository.findById(roomId)
-                    .orElseThrow(() -> ErrorDefinition.ROOM_NOT_FOUND.toAppError()
-                            .withDetail("roomId", roomId));
+        List<RoomRepository.RoomAvailabilityView> views = findAvailabilityViews(request);
+        // Rooms held while another guest pays are not available either
+        Set<String> held = roomHoldService.findHeldRoomIds(
+                views.stream().map(RoomRepository.RoomAvailabilityView::getRoomId).toList(),
+                request.checkIn(), request.checkOut(), null);
 
-            boolean hasConflict = reservationRoomRepository.hasConflictingReservation(
-                    room.getId(), request.checkIn(), request.checkOut());
-
-            boolean isAvailable = !hasConflict;
+        for (RoomRepository.RoomAvailabilityView room : views) {
+            boolean isAvailable = Boolean.TRUE.equals(room.getAvailable()) && !held.contains(room.getRoomId());
             if (!isAvailable) {
                 allAvailable = false;
             }
 
-            BigDecimal pricePerNight = room.getType() != null && room.getType().getPricePerNight() != null
-                    ? BigDecimal.valueOf(room.getType().getPricePerNight())
+            BigDecimal pricePerNight = room.getPricePerNight() != null
+                    ? room.getPricePerNight()
                     : BigDecimal.ZERO;
 
             if (isAvailable) {
@@ -162,10 +197,10 @@ public class RoomServiceImpl implements IRoomService {
             }
 
             details.add(new RoomAvailabilityResponse.RoomAvailabilityDetail(
-                    room.getId(),
+                    room.getRoomId(),
                     room.getRoomNumber(),
                     isAvailable,
-                    room.getType() != null ? room.getType().getName() : null,
+                    room.getRoomType(),
                     pricePerNight));
         }
 
@@ -180,11 +215,108 @@ public class RoomServiceImpl implements IRoomService {
 
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "room.availability.search", histogram = true)
     public List<RoomResponse> getAvailableRooms(LocalDate checkIn, LocalDate checkOut) {
-        return roomRepository.findAll().stream()
-                .filter(room -> !reservationRoomRepository.hasConflictingReservation(
-                        room.getId(), checkIn, checkOut))
-                .map(roomMapper::toResponse)
+        Optional<Set<String>> occupied = occupancyIndex.findOccupiedRoomIds(checkIn, checkOut);
+        List<RoomResponse> free;
+        if (occupied.isPresent()) {
+            Set<String> occupiedIds = occupied.get();
+            free = getAllRooms().stream()
+                    .filter(room -> !occupiedIds.contains(room.id()))
+                    .collect(Collectors.toList());
+        } else {
+            // Index not ready or range outside its horizon - one set-based query
+            Set<String> availableIds = roomRepository.findAvailabilityOfAllRooms(checkIn, checkOut).stream()
+                    .filter(view -> Boolean.TRUE.equals(view.getAvailable()))
+                    .map(RoomRepository.RoomAvailabilityView::getRoomId)
+                    .collect(Collectors.toSet());
+            free = getAllRooms().stream()
+                    .filter(room -> availableIds.contains(room.id()))
+                    .collect(Collectors.toList());
+        }
+
+        // Rooms held while another guest pays are not available either
+        Set<String> held = roomHoldService.findHeldRoomIds(free.stream().map(RoomResponse::id).toList(),
+                checkIn, checkOut, null);
+        if (!held.isEmpty()) {
+            free.removeIf(room -> held.contains(room.id()));
+        }
+        return free;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RoomTypeInventoryResponse> getRoomTypeInventory(String roomTypeId, LocalDate from, LocalDate to) {
+        return inventoryService.getInventory(roomTypeId, from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RoomAvailabilityCalendarResponse getAvailabilityCalendar(LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) {
+            throw ErrorDefinition.INVALID_DATE_RANGE.toAppError()
+                    .withDetail("from", from)
+                    .withDetail("to", to);
+        }
+        int nights = (int) ChronoUnit.DAYS.between(from, to);
+        if (nights > calendarMaxNights) {
+            throw ErrorDefinition.DATE_WINDOW_TOO_LARGE.toAppError()
+                    .withDetail("nights", nights)
+                    .withDetail("maxNights", calendarMaxNights);
+        }
+
+        // One range query for every stay touching the window, folded into bitsets
+        Map<String, BitSet> booked = new HashMap<>();
+        for (ReservationRoomRepository.RoomStay stay : reservationRoomRepository.findActiveStaysOverlapping(from, to)) {
+            int start = (int) Math.max(0, ChronoUnit.DAYS.between(from, stay.getCheckIn()));
+            int end = (int) Math.min(nights, ChronoUnit.DAYS.between(from, stay.getCheckOut()));
+            if (start < end) {
+                booked.computeIfAbsent(stay.getRoomId(), id -> new BitSet(nights)).set(start, end);
+            }
+        }
+
+        Base64.Encoder encoder = Base64.getEncoder();
+        List<RoomAvailabilityCalendarResponse.RoomCalendar> rooms = roomRepository
+                .findAll(Sort.by("roomNumber")).stream()
+                .map(room -> new RoomAvailabilityCalendarResponse.RoomCalendar(
+                        room.getId(),
+                        room.getRoomNumber(),
+                        roomTypeIdOf(room),
+                        encoder.encodeToString(booked.getOrDefault(room.getId(), new BitSet()).toByteArray())))
                 .collect(Collectors.toList());
+
+        return new RoomAvailabilityCalendarResponse(from, to, nights, rooms);
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private String roomTypeIdOf(Room room) {
+        return room.getType() != null ? room.getType().getId() : null;
+    }
+
+    /**
+     * Load availability for the requested rooms (or all rooms) with one query,
+     * keeping the order in which the rooms were requested.
+     */
+    private List<RoomRepository.RoomAvailabilityView> findAvailabilityViews(RoomAvailabilityRequest request) {
+        List<String> roomIds = request.roomIds();
+        if (roomIds == null || roomIds.isEmpty()) {
+            // If no specific rooms provided, check all rooms
+            return roomRepository.findAvailabilityOfAllRooms(request.checkIn(), request.checkOut());
+        }
+
+        Map<String, RoomRepository.RoomAvailabilityView> byId = roomRepository
+                .findAvailability(new LinkedHashSet<>(roomIds), request.checkIn(), request.checkOut()).stream()
+                .collect(Collectors.toMap(RoomRepository.RoomAvailabilityView::getRoomId, Function.identity()));
+
+        List<RoomRepository.RoomAvailabilityView> views = new ArrayList<>(roomIds.size());
+        for (String roomId : roomIds) {
+            RoomRepository.RoomAvailabilityView view = byId.get(roomId);
+            if (view == null) {
+                throw ErrorDefinition.ROOM_NOT_FOUND.toAppError().withDetail("roomId", roomId);
+            }
+            views.add(view);
+        }
+        return views;
     }
 }
@@ -9,10 +9,10 @@ import com.hotelmanagement.quanlikhachsan.dto.response.guest.GuestResponse;
 import com.hotelmanagement.quanlikhachsan.services.guest.IGuestService;
 import com.hotelmanagement.quanlikhachsan.services.keycloak.IKeycloakService;
 import com.hotelmanagement.quanlikhachsan.util.JwtUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.keycloak.representations.AccessTokenResponse;
-import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
@@ -29,6 +29,7 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("auth.service")
 public class AuthService {
 
     // Dependencies injected via constructor (Dependency Inversion Principle)
@@ -42,8 +43,8 @@ public class AuthService {
      * 
      * Flow:
      * 1. Authenticate with Keycloak
-     * 2. Retrieve user from Keycloak
-     * 3. Get guest info from database
+     * 2. Read the Keycloak user ID from the access token
+     * 3. Get guest info (cached per Keycloak user)
      * 4. Generate JWT token
      * 
      * @param request Login credentials
@@ -59,11 +60,10 @@ public class AuthService {
                     request.email(),
                     request.password());
 
-            // Step 2: Get user info from Keycloak
-            UserRepresentation keycloakUser = keycloakAuthService.getUserByEmail(request.email());
-            String keycloakUserId = keycloakUser.getId();
+            // Step 2: Keycloak user ID from the token subject, no admin search
+            String keycloakUserId = keycloakAuthService.resolveUserId(tokenResponse, request.email());
 
-            // Step 3: Get guest info from database
+            // Step 3: Get guest info
             GuestResponse guest = guestService.getGuestByKeycloakUserId(
                     java.util.UUID.fromString(keycloakUserId));
 
@@ -1,15 +1,19 @@
 package com.hotelmanagement.quanlikhachsan.services.auth;
 
 import com.hotelmanagement.quanlikhachsan.dto.response.auth.UserInfo;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.keycloak.TokenVerifier;
 import org.keycloak.admin.client.Keycloak;
-import org.keycloak.admin.client.KeycloakBuilder;
+import org.keycloak.common.VerificationException;
+import org.keycloak.representations.AccessToken;
 import org.keycloak.representations.AccessTokenResponse;
 import org.keycloak.representations.idm.UserRepresentation;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.List;
 
@@ -20,19 +24,15 @@ import java.util.List;
 @Component
 @RequiredArgsConstructor
 @Slf4j
+@Timed("keycloak.client")
 public class KeycloakAuthenticationService {
 
     private final Keycloak adminKeycloak;
-
-    @Value("${keycloak.auth-server-url}")
-    private String authServerUrl;
+    private final KeycloakTokenClient tokenClient;
 
     @Value("${keycloak.realm}")
     private String realm;
 
-    @Value("${keycloak.resource}")
-    private String clientId;
-
     /**
      * Authenticate user with Keycloak and retrieve access token
      * 
@@ -43,18 +43,8 @@ public class KeycloakAuthenticationService {
      */
     public AccessTokenResponse authenticateUser(String email, String password) {
         try {
-            // Create user-specific Keycloak instance for authentication
-            Keycloak userKeycloak = KeycloakBuilder.builder()
-                    .serverUrl(authServerUrl)
-                    .realm(realm)
-                    .clientId(clientId)
-                    .username(email)
-                    .password(password)
-                    .grantType("password") // Resource Owner Password Credentials flow
-                    .build();
-
-            // Attempt to get access token - this validates credentials
-            AccessTokenResponse tokenResponse = userKeycloak.tokenManager().getAccessToken();
+            // Password grant over the shared, pooled token client
+            AccessTokenResponse tokenResponse = tokenClient.passwordGrant(email, password);
 
             if (tokenResponse == null) {
                 throw new BadCredentialsException("Authentication failed");
@@ -63,12 +53,39 @@ public class KeycloakAuthenticationService {
             log.info("Successfully authenticated user: {}", email);
             return tokenResponse;
 
+        } catch (HttpClientErrorException e) {
+            log.warn("Keycloak rejected credentials for user: {} ({})", email, e.getStatusCode());
+            throw new BadCredentialsException("Invalid email or password");
         } catch (Exception e) {
             log.error("Authentication failed for user: {}", email, e);
             throw new BadCredentialsException("Invalid email or password");
         }
     }
 
+    /**
+     * Resolve the Keycloak user ID for a freshly issued token
+     * The token was received directly from Keycloak, so its subject is read
+     * without another signature check. Falls back to an admin search by email
+     * when the token carries no subject.
+     *
+     * @param tokenResponse Token response from {@link #authenticateUser}
+     * @param email User email
+     * @return Keycloak user ID
+     */
+    public String resolveUserId(AccessTokenResponse tokenResponse, String email) {
+        try {
+            String subject = TokenVerifier.create(tokenResponse.getToken(), AccessToken.class)
+                    .getToken()
+                    .getSubject();
+            if (subject != null && !subject.isBlank()) {
+                return subject;
+            }
+        } catch (VerificationException e) {
+            log.warn("Could not read subject from access token for user {}: {}", email, e.getMessage());
+        }
+        return getUserByEmail(email).getId();
+    }
+
     /**
      * Get user information from Keycloak by email
      * 
@@ -0,0 +1,149 @@
+package com.hotelmanagement.quanlikhachsan.services.auth;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.keycloak.representations.AccessTokenResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * Keycloak Token Client
+ *
+ * Shared HTTP client for the realm token endpoint:
+ * - One bounded, keep-alive connection pool for every login
+ * - Connect, response and pool-wait timeouts
+ * - Pool gauges and a per-outcome request timer
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KeycloakTokenClient {
+
+    private static final String TOKEN_PATH = "/realms/{realm}/protocol/openid-connect/token";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${keycloak.auth-server-url}")
+    private String authServerUrl;
+
+    @Value("${keycloak.realm}")
+    private String realm;
+
+    @Value("${keycloak.resource}")
+    private String clientId;
+
+    @Value("${keycloak.token-client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${keycloak.token-client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${keycloak.token-client.response-timeout:5s}")
+    private Duration responseTimeout;
+
+    @Value("${keycloak.token-client.pool-timeout:1s}")
+    private Duration poolTimeout;
+
+    @Value("${keycloak.token-client.keep-alive:30s}")
+    private Duration keepAlive;
+
+    private CloseableHttpClient httpClient;
+    private RestClient restClient;
+    private MeterRegistry registry;
+
+    @PostConstruct
+    void init() {
+        // Every request goes to the same host, so the route may use the whole pool
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .build();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                .disableCookieManagement()
+                .build();
+
+        restClient = RestClient.builder()
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+                .baseUrl(authServerUrl)
+                .build();
+
+        registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "keycloak-token").bindTo(registry);
+    }
+
+    @PreDestroy
+    void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    /**
+     * Exchange user credentials for tokens (Resource Owner Password Credentials flow).
+     *
+     * @param username User email
+     * @param password User password
+     * @return token response from Keycloak
+     * @throws HttpClientErrorException if Keycloak rejects the credentials
+     */
+    public AccessTokenResponse passwordGrant(String username, String password) {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "password");
+        form.add("client_id", clientId);
+        form.add("username", username);
+        form.add("password", password);
+
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            AccessTokenResponse tokenResponse = restClient.post()
+                    .uri(TOKEN_PATH, realm)
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .body(form)
+                    .retrieve()
+                    .body(AccessTokenResponse.class);
+            outcome = "success";
+            return tokenResponse;
+        } catch (HttpClientErrorException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(registry.timer("keycloak.token.requests", "outcome", outcome));
+        }
+    }
+}
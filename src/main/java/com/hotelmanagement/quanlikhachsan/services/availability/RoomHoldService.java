@@ -0,0 +1,317 @@
+package com.hotelmanagement.quanlikhachsan.services.availability;
+
+import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomHoldRequest;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomHoldResponse;
+import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
+import com.hotelmanagement.quanlikhachsan.model.guest.Guest;
+import com.hotelmanagement.quanlikhachsan.model.room.Room;
+import com.hotelmanagement.quanlikhachsan.repository.GuestRepository;
+import com.hotelmanagement.quanlikhachsan.repository.ReservationRoomRepository;
+import com.hotelmanagement.quanlikhachsan.repository.RoomRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Room Hold Service
+ *
+ * Short-lived holds on rooms while a guest completes payment, kept only in
+ * Redis: one key per room and night naming the hold, plus one hash per hold.
+ * Every key carries the hold's TTL, so an abandoned hold simply expires and
+ * the database never sees it. Holds are taken and released by Lua scripts,
+ * all nights at once or none.
+ *
+ * A hold belongs to the authenticated guest who took it. Each hold is capped
+ * in room nights, and each guest in open holds, so one account cannot hold
+ * the whole hotel through repeated calls.
+ *
+ * Availability checks treat rooms held by others as taken; createReservation
+ * converts a hold into a reservation and releases it after commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+@Timed("room.hold.service")
+public class RoomHoldService {
+
+    private static final String HOLD_PREFIX = "hold:";
+    private static final String NIGHT_PREFIX = "hold:night:";
+    private static final String OWNER_PREFIX = "hold:owner:";
+    private static final RedisScript<List> CREATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/hold/create.lua"), List.class);
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/hold/release.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RoomRepository roomRepository;
+    private final ReservationRoomRepository reservationRoomRepository;
+    private final GuestRepository guestRepository;
+
+    @Value("${availability.hold.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${availability.hold.max-nights:30}")
+    private int maxNights;
+
+    @Value("${availability.hold.max-room-nights:60}")
+    private int maxRoomNights;
+
+    @Value("${availability.hold.max-open-per-guest:3}")
+    private int maxOpenPerGuest;
+
+    /**
+     * Keycloak user ID of the authenticated guest, who owns the holds they take.
+     *
+     * @param email the authenticated principal
+     * @throws com.hotelmanagement.quanlikhachsan.exception.AppError
+     *         GUEST_NOT_FOUND if no guest is linked to the account
+     */
+    public UUID resolveOwner(String email) {
+        return guestRepository.findByEmail(email)
+                .map(Guest::getKeycloakUserId)
+                .orElseThrow(() -> ErrorDefinition.GUEST_NOT_FOUND.toAppError()
+                        .withDetail("email", email));
+    }
+
+    /**
+     * Hold rooms for a stay on behalf of {@code owner}.
+     *
+     * @throws com.hotelmanagement.quanlikhachsan.exception.AppError
+     *         ROOM_NOT_AVAILABLE if any room is booked or held by someone else,
+     *         HOLD_TOO_LARGE or HOLD_LIMIT_EXCEEDED if a cap is reached
+     */
+    public RoomHoldResponse createHold(RoomHoldRequest request, UUID owner) {
+        validateStay(request.checkIn(), request.checkOut());
+        List<String> roomIds = request.roomIds().stream()
+                .map(UUID::toString)
+                .collect(Collectors.toCollection(LinkedHashSet::new)).stream()
+                .toList();
+        List<LocalDate> nights = nightsOf(request.checkIn(), request.checkOut());
+        long roomNights = (long) roomIds.size() * nights.size();
+        if (roomNights > maxRoomNights) {
+            throw ErrorDefinition.HOLD_TOO_LARGE.toAppError()
+                    .withDetail("roomNights", roomNights)
+                    .withDetail("maxRoomNights", maxRoomNights);
+        }
+        Map<String, Room> rooms = roomRepository.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        List<String> missing = roomIds.stream().filter(id -> !rooms.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw ErrorDefinition.ROOM_NOT_FOUND.toAppError()
+                    .withDetail("roomIds", missing);
+        }
+
+        // Straight from the database: another node's occupancy index may not have caught up yet
+        List<String> booked = reservationRoomRepository.findConflictingRoomNumbers(rooms.keySet(),
+                request.checkIn(), request.checkOut());
+        if (!booked.isEmpty()) {
+            throw ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError()
+                    .withDetail("roomNumbers", booked);
+        }
+
+        UUID holdId = UUID.randomUUID();
+        List<String> keys = new ArrayList<>(2 + roomIds.size() * nights.size());
+        keys.add(HOLD_PREFIX + holdId);
+        keys.add(OWNER_PREFIX + owner);
+        for (String roomId : roomIds) {
+            nights.forEach(night -> keys.add(nightKey(roomId, night)));
+        }
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+
+        List<?> taken = redisTemplate.execute(CREATE_SCRIPT, keys, holdId.toString(),
+                String.valueOf(ttl.toMillis()), owner.toString(), String.join(",", roomIds),
+                request.checkIn().toString(), request.checkOut().toString(),
+                String.valueOf(expiresAt.toEpochMilli()), String.valueOf(now.toEpochMilli()),
+                String.valueOf(maxOpenPerGuest));
+        if (taken != null && taken.equals(List.of(-1L))) {
+            throw ErrorDefinition.HOLD_LIMIT_EXCEEDED.toAppError()
+                    .withDetail("maxOpenHolds", maxOpenPerGuest);
+        }
+        if (taken != null && !taken.isEmpty()) {
+            // Night keys are grouped by room; positions are 1-based
+            Set<String> heldNumbers = new TreeSet<>();
+            for (Object position : taken) {
+                String roomId = roomIds.get((((Number) position).intValue() - 1) / nights.size());
+                heldNumbers.add(rooms.get(roomId).getRoomNumber());
+            }
+            throw ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError()
+                    .withDetail("roomNumbers", List.copyOf(heldNumbers));
+        }
+
+        log.debug("Held {} rooms for {} nights as hold {}", roomIds.size(), nights.size(), holdId);
+        return new RoomHoldResponse(holdId, owner, roomIds, request.checkIn(), request.checkOut(), expiresAt);
+    }
+
+    /**
+     * Get an unexpired hold of {@code owner}.
+     *
+     * @throws com.hotelmanagement.quanlikhachsan.exception.AppError
+     *         HOLD_NOT_FOUND if the hold is gone, HOLD_FORBIDDEN if another
+     *         guest owns it
+     */
+    public RoomHoldResponse getOwnHold(UUID holdId, UUID owner) {
+        RoomHoldResponse hold = findHold(holdId)
+                .orElseThrow(() -> ErrorDefinition.HOLD_NOT_FOUND.toAppError()
+                        .withDetail("holdId", holdId));
+        if (!hold.keycloakUserId().equals(owner)) {
+            throw ErrorDefinition.HOLD_FORBIDDEN.toAppError()
+                    .withDetail("holdId", holdId);
+        }
+        return hold;
+    }
+
+    /**
+     * Release a hold of {@code owner} before it expires.
+     *
+     * @throws com.hotelmanagement.quanlikhachsan.exception.AppError
+     *         HOLD_NOT_FOUND or HOLD_FORBIDDEN, see {@link #getOwnHold}
+     */
+    public void releaseOwnHold(UUID holdId, UUID owner) {
+        getOwnHold(holdId, owner);
+        release(holdId);
+    }
+
+    /**
+     * Look up a hold that has not expired.
+     */
+    public Optional<RoomHoldResponse> findHold(UUID holdId) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(HOLD_PREFIX + holdId);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new RoomHoldResponse(
+                holdId,
+                UUID.fromString((String) fields.get("owner")),
+                Arrays.asList(((String) fields.get("rooms")).split(",")),
+                LocalDate.parse((String) fields.get("checkIn")),
+                LocalDate.parse((String) fields.get("checkOut")),
+                Instant.ofEpochMilli(Long.parseLong((String) fields.get("expiresAt")))));
+    }
+
+    /**
+     * Release a hold before it expires. A hold that is already gone is
+     * ignored, and a Redis failure is only logged since the hold expires
+     * on its own.
+     */
+    public void release(UUID holdId) {
+        try {
+            findHold(holdId).ifPresent(hold -> {
+                List<String> keys = new ArrayList<>();
+                keys.add(HOLD_PREFIX + holdId);
+                keys.add(OWNER_PREFIX + hold.keycloakUserId());
+                List<LocalDate> nights = nightsOf(hold.checkIn(), hold.checkOut());
+                for (String roomId : hold.roomIds()) {
+                    nights.forEach(night -> keys.add(nightKey(roomId, night)));
+                }
+                redisTemplate.execute(RELEASE_SCRIPT, keys, holdId.toString());
+                log.debug("Released hold {}", holdId);
+            });
+        } catch (Exception e) {
+            log.warn("Failed to release hold {}; it expires within {}: {}", holdId, ttl, e.getMessage());
+        }
+    }
+
+    /**
+     * Nights of a stay on which each room is held by a hold other than
+     * {@code exceptHoldId}, read with one MGET. If Redis cannot be read the
+     * rooms are reported as not held: holds protect the payment step, while
+     * double booking is prevented by the database.
+     */
+    public Map<String, List<LocalDate>> findHeldNights(Collection<String> roomIds, LocalDate checkIn,
+            LocalDate checkOut, UUID exceptHoldId) {
+        List<String> ids = List.copyOf(roomIds);
+        List<LocalDate> nights = nightsOf(checkIn, checkOut);
+        if (ids.isEmpty() || nights.isEmpty()) {
+            return Map.of();
+        }
+        List<String> keys = new ArrayList<>(ids.size() * nights.size());
+        for (String roomId : ids) {
+            nights.forEach(night -> keys.add(nightKey(roomId, night)));
+        }
+
+        List<String> holders;
+        try {
+            holders = redisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            log.warn("Could not read room holds, treating rooms as not held: {}", e.getMessage());
+            return Map.of();
+        }
+        if (holders == null) {
+            return Map.of();
+        }
+
+        String except = exceptHoldId != null ? exceptHoldId.toString() : null;
+        Map<String, List<LocalDate>> held = new HashMap<>();
+        for (int i = 0; i < holders.size(); i++) {
+            String holder = holders.get(i);
+            if (holder != null && !holder.equals(except)) {
+                held.computeIfAbsent(ids.get(i / nights.size()), id -> new ArrayList<>())
+                        .add(nights.get(i % nights.size()));
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Rooms held for any night of a stay by a hold other than
+     * {@code exceptHoldId}.
+     */
+    public Set<String> findHeldRoomIds(Collection<String> roomIds, LocalDate checkIn, LocalDate checkOut,
+            UUID exceptHoldId) {
+        return findHeldNights(roomIds, checkIn, checkOut, exceptHoldId).keySet();
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private void validateStay(LocalDate checkIn, LocalDate checkOut) {
+        if (!checkOut.isAfter(checkIn)) {
+            throw ErrorDefinition.INVALID_DATE_RANGE.toAppError()
+                    .withDetail("checkIn", checkIn)
+                    .withDetail("checkOut", checkOut);
+        }
+        if (checkIn.isBefore(LocalDate.now())) {
+            throw ErrorDefinition.PAST_CHECK_IN_DATE.toAppError()
+                    .withDetail("checkIn", checkIn);
+        }
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights > maxNights) {
+            throw ErrorDefinition.DATE_WINDOW_TOO_LARGE.toAppError()
+                    .withDetail("nights", nights)
+                    .withDetail("maxNights", maxNights);
+        }
+    }
+
+    private List<LocalDate> nightsOf(LocalDate checkIn, LocalDate checkOut) {
+        return checkIn.datesUntil(checkOut).toList();
+    }
+
+    private String nightKey(String roomId, LocalDate night) {
+        return NIGHT_PREFIX + roomId + ":" + night;
+    }
+}
@@ -0,0 +1,248 @@
+package com.hotelmanagement.quanlikhachsan.services.availability;
+
+import com.hotelmanagement.quanlikhachsan.repository.ReservationRoomRepository;
+import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory room occupancy index
+ *
+ * Keeps one day-granular bitset per room over a rolling horizon starting
+ * today. Bit {@code i} is set when the room is booked for the night of
+ * {@code start + i}. Availability searches become a bit scan across all rooms
+ * instead of one conflict query per room; the database remains the source of
+ * truth for the final conflict check at booking time.
+ *
+ * Callers must treat an empty result as "index cannot answer" (not built yet,
+ * rebuild in progress, or range outside the horizon) and fall back to the
+ * database.
+ *
+ * Each node keeps its own index, so occupy/release are published on a Redis
+ * channel and applied by every other node. A node that misses a message
+ * (Redis down, resubscribe) stays stale until the daily rebuild; the
+ * exclusion constraint still rejects the booking itself.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomOccupancyIndex implements MessageListener {
+
+    private static final String OCCUPY = "occupy";
+    private static final String RELEASE = "release";
+
+    private final ReservationRoomRepository reservationRoomRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${availability.index.horizon-days:365}")
+    private int horizonDays;
+
+    @Value("${availability.index.sync-channel:availability:occupancy}")
+    private String syncChannel;
+
+    // Tells this node's own messages apart from other nodes'
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<String, BitSet> occupancy = new HashMap<>();
+    private long startEpochDay;
+    private int days;
+    private boolean ready;
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(syncChannel));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the index from active reservations. Runs at startup and once a
+     * day so the horizon keeps rolling forward.
+     */
+    @Scheduled(cron = "${availability.index.rebuild-cron:0 5 0 * * *}")
+    public void rebuild() {
+        LocalDate start = LocalDate.now();
+        lock.writeLock().lock();
+        try {
+            List<ReservationRoomRepository.RoomStay> stays = reservationRoomRepository
+                    .findActiveStaysEndingOnOrAfter(start);
+
+            occupancy.clear();
+            startEpochDay = start.toEpochDay();
+            days = horizonDays;
+            for (ReservationRoomRepository.RoomStay stay : stays) {
+                mark(stay.getRoomId(), stay.getCheckIn(), stay.getCheckOut(), true);
+            }
+            ready = true;
+            log.info("Room occupancy index built: {} stays across {} rooms, {} days from {}",
+                    stays.size(), occupancy.size(), days, start);
+        } catch (Exception e) {
+            ready = false;
+            log.error("Failed to build room occupancy index, availability will use the database", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find rooms that conflict with the given stay.
+     *
+     * Uses the same half-open overlap rule as
+     * {@link ReservationRoomRepository#hasConflictingReservation}: only the
+     * nights from check-in up to, but excluding, check-out are compared.
+     *
+     * @param checkIn  check-in date
+     * @param checkOut check-out date
+     * @return IDs of conflicting rooms, or empty if the index cannot answer
+     */
+    public Optional<Set<String>> findOccupiedRoomIds(LocalDate checkIn, LocalDate checkOut) {
+        if (!lock.readLock().tryLock()) {
+            return Optional.empty();
+        }
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            int from = (int) (checkIn.toEpochDay() - startEpochDay);
+            int to = (int) (checkOut.toEpochDay() - startEpochDay);
+            if (from < 0 || to > days || from >= to) {
+                return Optional.empty();
+            }
+
+            Set<String> occupied = new HashSet<>();
+            for (Map.Entry<String, BitSet> entry : occupancy.entrySet()) {
+                int next = entry.getValue().nextSetBit(from);
+                if (next >= 0 && next < to) {
+                    occupied.add(entry.getKey());
+                }
+            }
+            return Optional.of(occupied);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mark rooms as booked for the nights of the given stay, on every node.
+     */
+    public void occupy(Collection<String> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        update(roomIds, checkIn, checkOut, true);
+        publish(OCCUPY, roomIds, checkIn, checkOut);
+    }
+
+    /**
+     * Mark rooms as free for the nights of the given stay, on every node.
+     */
+    public void release(Collection<String> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        update(roomIds, checkIn, checkOut, false);
+        publish(RELEASE, roomIds, checkIn, checkOut);
+    }
+
+    /**
+     * Occupancy change from another node. This node's own messages are
+     * skipped: it applied them before publishing, and replaying one late
+     * could undo a newer local change.
+     *
+     * Message format: {@code nodeId|occupy or release|checkIn|checkOut|roomId,roomId}
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", -1);
+        if (parts.length != 5 || parts[0].equals(nodeId)) {
+            return;
+        }
+        try {
+            List<String> roomIds = Arrays.asList(parts[4].split(","));
+            update(roomIds, LocalDate.parse(parts[2]), LocalDate.parse(parts[3]), OCCUPY.equals(parts[1]));
+            log.debug("Applied {} of {} rooms from node {}", parts[1], roomIds.size(), parts[0]);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed occupancy message: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private void update(Collection<String> roomIds, LocalDate checkIn, LocalDate checkOut, boolean booked) {
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                return;
+            }
+            for (String roomId : roomIds) {
+                mark(roomId, checkIn, checkOut, booked);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void publish(String change, Collection<String> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        if (roomIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(syncChannel,
+                    String.join("|", nodeId, change, checkIn.toString(), checkOut.toString(),
+                            String.join(",", roomIds)));
+        } catch (Exception e) {
+            log.warn("Failed to publish occupancy {} for {}; other nodes catch up on the next rebuild: {}",
+                    change, roomIds, e.getMessage());
+        }
+    }
+
+    private void mark(String roomId, LocalDate checkIn, LocalDate checkOut, boolean booked) {
+        int from = (int) Math.max(0, checkIn.toEpochDay() - startEpochDay);
+        int to = (int) Math.min(days, checkOut.toEpochDay() - startEpochDay);
+        if (from >= to) {
+            return;
+        }
+        if (booked) {
+            occupancy.computeIfAbsent(roomId, id -> new BitSet(days)).set(from, to);
+        } else {
+            BitSet bits = occupancy.get(roomId);
+            if (bits != null) {
+                bits.clear(from, to);
+            }
+        }
+    }
+}
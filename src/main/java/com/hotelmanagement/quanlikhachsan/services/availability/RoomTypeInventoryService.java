@@ -0,0 +1,190 @@
+package com.hotelmanagement.quanlikhachsan.services.availability;
+
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomTypeInventoryResponse;
+import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
+import com.hotelmanagement.quanlikhachsan.model.room.Room;
+import com.hotelmanagement.quanlikhachsan.model.room.RoomTypeInventory;
+import com.hotelmanagement.quanlikhachsan.repository.ReservationRoomRepository;
+import com.hotelmanagement.quanlikhachsan.repository.RoomRepository;
+import com.hotelmanagement.quanlikhachsan.repository.RoomTypeInventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Room Type Inventory Service
+ *
+ * Maintains the per-room-type daily inventory grid (room_type_inventory):
+ * - Incremental sold/total updates inside the caller's transaction
+ * - Nightly reconciliation from rooms and reservation_rooms
+ * - Nightly availability lookup for one room type
+ *
+ * Incremental updates share a database advisory lock that reconciliation
+ * takes exclusively, so a rebuild never overwrites a count with a snapshot
+ * that misses a concurrent booking.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class RoomTypeInventoryService {
+
+    private final RoomTypeInventoryRepository inventoryRepository;
+    private final RoomRepository roomRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${availability.inventory.horizon-days:365}")
+    private int horizonDays;
+
+    /**
+     * Count the given rooms as sold for every night of the stay.
+     */
+    public void reserve(Collection<Room> rooms, LocalDate checkIn, LocalDate checkOut) {
+        Map<String, Long> byType = countByType(rooms);
+        if (byType.isEmpty()) {
+            return;
+        }
+        inventoryRepository.lockShared();
+        byType.forEach((roomTypeId, count) -> inventoryRepository.addSold(
+                roomTypeId, checkIn, checkOut, count.intValue()));
+    }
+
+    /**
+     * Give the given rooms back for every night of the stay.
+     */
+    public void release(Collection<Room> rooms, LocalDate checkIn, LocalDate checkOut) {
+        Map<String, Long> byType = countByType(rooms);
+        if (byType.isEmpty()) {
+            return;
+        }
+        inventoryRepository.lockShared();
+        byType.forEach((roomTypeId, count) -> inventoryRepository.subtractSold(
+                roomTypeId, checkIn, checkOut, count.intValue()));
+    }
+
+    /**
+     * Add or remove rooms of a type from today onwards.
+     */
+    public void adjustTotal(String roomTypeId, int delta) {
+        if (roomTypeId != null && delta != 0) {
+            inventoryRepository.lockShared();
+            inventoryRepository.adjustTotal(roomTypeId, delta);
+        }
+    }
+
+    /**
+     * Move one room from one type to another from today onwards: its count
+     * and the nights of its stays that have not passed yet.
+     */
+    public void changeRoomType(String fromTypeId, String toTypeId,
+            Collection<ReservationRoomRepository.RoomStay> stays) {
+        if (fromTypeId == null || toTypeId == null || fromTypeId.equals(toTypeId)) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        inventoryRepository.lockShared();
+        inventoryRepository.adjustTotal(fromTypeId, -1);
+        inventoryRepository.adjustTotal(toTypeId, 1);
+        for (ReservationRoomRepository.RoomStay stay : stays) {
+            LocalDate from = stay.getCheckIn().isBefore(today) ? today : stay.getCheckIn();
+            if (from.isBefore(stay.getCheckOut())) {
+                inventoryRepository.subtractSold(fromTypeId, from, stay.getCheckOut(), 1);
+                inventoryRepository.addSold(toTypeId, from, stay.getCheckOut(), 1);
+            }
+        }
+    }
+
+    /**
+     * Get free rooms of a type for each night from {@code from} up to, but
+     * excluding, {@code to}.
+     *
+     * @param roomTypeId room type ID
+     * @param from       first night
+     * @param to         day after the last night
+     * @return one entry per night
+     */
+    @Transactional(readOnly = true)
+    public List<RoomTypeInventoryResponse> getInventory(String roomTypeId, LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) {
+            throw ErrorDefinition.INVALID_DATE_RANGE.toAppError()
+                    .withDetail("from", from)
+                    .withDetail("to", to);
+        }
+
+        Map<LocalDate, RoomTypeInventory> byDate = inventoryRepository
+                .findByRoomTypeIdAndStayDateBetweenOrderByStayDate(roomTypeId, from, to.minusDays(1)).stream()
+                .collect(Collectors.toMap(RoomTypeInventory::getStayDate, Function.identity()));
+
+        // Nights outside the maintained window have nothing sold yet
+        Integer roomCount = null;
+        List<RoomTypeInventoryResponse> nights = new ArrayList<>();
+        for (LocalDate date = from; date.isBefore(to); date = date.plusDays(1)) {
+            RoomTypeInventory row = byDate.get(date);
+            if (row != null) {
+                nights.add(new RoomTypeInventoryResponse(date, row.getTotal(), row.getSold(),
+                        Math.max(0, row.getTotal() - row.getSold())));
+            } else {
+                if (roomCount == null) {
+                    roomCount = (int) roomRepository.countByTypeId(roomTypeId);
+                }
+                nights.add(new RoomTypeInventoryResponse(date, roomCount, 0, roomCount));
+            }
+        }
+        return nights;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    /**
+     * Rebuild the inventory grid for the rolling horizon from reservation_rooms
+     * and drop nights that have passed. Corrects any drift from the incremental
+     * updates.
+     *
+     * Runs in its own transaction so a failure is logged here rather than
+     * surfacing as a rollback in the caller.
+     */
+    @Scheduled(cron = "${availability.inventory.reconcile-cron:0 15 0 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                inventoryRepository.lockExclusive();
+                int rows = inventoryRepository.rebuild(today, today.plusDays(horizonDays));
+                int pruned = inventoryRepository.deleteBefore(today);
+                log.info("Room type inventory reconciled: {} rows rebuilt, {} past rows removed", rows, pruned);
+            });
+        } catch (Exception e) {
+            log.error("Failed to reconcile room type inventory", e);
+        }
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private Map<String, Long> countByType(Collection<Room> rooms) {
+        return rooms.stream()
+                .map(Room::getType)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(type -> type.getId(), Collectors.counting()));
+    }
+}
@@ -0,0 +1,311 @@
+package com.hotelmanagement.quanlikhachsan.services.catalog;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotelmanagement.quanlikhachsan.dto.response.RoomResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.RoomStatusResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.RoomTypeResponse;
+import com.hotelmanagement.quanlikhachsan.repository.RoomStatusRepository;
+import com.hotelmanagement.quanlikhachsan.repository.RoomTypeRepository;
+import com.hotelmanagement.quanlikhachsan.util.TransactionHooks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Room Catalog Cache
+ *
+ * Two-level read-through cache for rooms and the room type / room status
+ * lookup tables:
+ * - L1: bounded per-node Caffeine cache
+ * - L2: shared Redis entries (JSON) with a TTL
+ * - Room writes delete the L2 entries and publish the keys on a Redis channel
+ *   so every node drops them from its L1
+ * - Every invalidation bumps a generation counter in Redis; a load writes
+ *   back to L2 only if the counter is unchanged since it read L2, so a load
+ *   that raced with an invalidation on another node cannot restore the old
+ *   entry
+ *
+ * Room types and statuses have no write path in the application; they change
+ * only through Flyway migrations. The deploy that ships one restarts every
+ * node, warm-up rewrites the type and status entries, and rooms that embed
+ * them expire from L2 within remote-ttl. A manual database edit needs the
+ * catalog:* keys deleted by hand.
+ *
+ * Redis failures are logged and treated as misses; the database stays the
+ * source of truth.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomCatalogCache implements MessageListener {
+
+    private static final String KEY_PREFIX = "catalog:";
+    private static final String ALL_ROOMS_KEY = KEY_PREFIX + "room:all";
+    private static final String ROOM_KEY_PREFIX = KEY_PREFIX + "room:";
+    private static final String ROOM_TYPE_KEY_PREFIX = KEY_PREFIX + "roomType:";
+    private static final String ROOM_STATUS_KEY_PREFIX = KEY_PREFIX + "roomStatus:";
+    private static final String GENERATION_KEY = KEY_PREFIX + "generation";
+    private static final RedisScript<Long> PUT_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/catalog/put.lua"), Long.class);
+    private static final RedisScript<Long> INVALIDATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/catalog/invalidate.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final RoomTypeRepository roomTypeRepository;
+    private final RoomStatusRepository roomStatusRepository;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${catalog.cache.local-max-entries:1000}")
+    private long localMaxEntries;
+
+    @Value("${catalog.cache.local-ttl:10m}")
+    private Duration localTtl;
+
+    @Value("${catalog.cache.remote-ttl:1h}")
+    private Duration remoteTtl;
+
+    @Value("${catalog.cache.invalidation-channel:catalog:invalidate}")
+    private String invalidationChannel;
+
+    private Cache<String, Object> local;
+
+    // Bumped on every invalidation so a load racing with it is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter remoteHits;
+    private Counter remoteMisses;
+    private Counter remoteErrors;
+
+    @PostConstruct
+    void init() {
+        local = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        CaffeineCacheMetrics.monitor(registry, local, "catalog");
+        remoteHits = registry.counter("catalog.cache.remote", "result", "hit");
+        remoteMisses = registry.counter("catalog.cache.remote", "result", "miss");
+        remoteErrors = registry.counter("catalog.cache.remote", "result", "error");
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(invalidationChannel));
+    }
+
+    /**
+     * Load every room type and room status so lookups never reach the database
+     * after startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            String remoteGeneration = readGeneration();
+            roomTypeRepository.findAll().forEach(type -> put(ROOM_TYPE_KEY_PREFIX + type.getId(),
+                    new RoomTypeResponse(type.getId(), type.getName(), type.getDescription(),
+                            type.getPricePerNight()), remoteGeneration));
+            roomStatusRepository.findAll().forEach(status -> put(ROOM_STATUS_KEY_PREFIX + status.getId(),
+                    new RoomStatusResponse(status.getId(), status.getName()), remoteGeneration));
+            log.info("Room catalog cache warmed up with {} entries", local.estimatedSize());
+        } catch (Exception e) {
+            log.warn("Failed to warm up room catalog cache", e);
+        }
+    }
+
+    /**
+     * The same list instance is handed to every caller while it is cached, so
+     * it is unmodifiable.
+     */
+    public List<RoomResponse> getAllRooms(Supplier<List<RoomResponse>> loader) {
+        return getOrLoad(ALL_ROOMS_KEY,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, RoomResponse.class), loader,
+                List::copyOf);
+    }
+
+    public RoomResponse getRoom(String roomId, Supplier<RoomResponse> loader) {
+        return getOrLoad(ROOM_KEY_PREFIX + roomId, objectMapper.constructType(RoomResponse.class), loader);
+    }
+
+    /**
+     * @return the room type, or null if it does not exist
+     */
+    public RoomTypeResponse getRoomType(String roomTypeId) {
+        return getOrLoad(ROOM_TYPE_KEY_PREFIX + roomTypeId, objectMapper.constructType(RoomTypeResponse.class),
+                () -> roomTypeRepository.findById(roomTypeId)
+                        .map(type -> new RoomTypeResponse(type.getId(), type.getName(), type.getDescription(),
+                                type.getPricePerNight()))
+                        .orElse(null));
+    }
+
+    /**
+     * @return the room status, or null if it does not exist
+     */
+    public RoomStatusResponse getRoomStatus(String roomStatusId) {
+        return getOrLoad(ROOM_STATUS_KEY_PREFIX + roomStatusId, objectMapper.constructType(RoomStatusResponse.class),
+                () -> roomStatusRepository.findById(roomStatusId)
+                        .map(status -> new RoomStatusResponse(status.getId(), status.getName()))
+                        .orElse(null));
+    }
+
+    /**
+     * Drop a room and the room list on every node. Runs after the surrounding
+     * transaction commits so no node reloads the pre-commit state.
+     */
+    public void invalidateRoom(String roomId) {
+        TransactionHooks.afterCommit(() -> invalidate(ALL_ROOMS_KEY, ROOM_KEY_PREFIX + roomId));
+    }
+
+    /**
+     * Invalidation message from any node, including this one.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        List<String> keys = Arrays.asList(new String(message.getBody(), StandardCharsets.UTF_8).split(","));
+        generation.incrementAndGet();
+        local.invalidateAll(keys);
+        log.debug("Evicted {} catalog entries on invalidation message", keys.size());
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private <T> T getOrLoad(String key, JavaType type, Supplier<T> loader) {
+        return getOrLoad(key, type, loader, UnaryOperator.identity());
+    }
+
+    /**
+     * @param freeze applied to a value from Redis or the loader before it is
+     *               cached locally
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getOrLoad(String key, JavaType type, Supplier<T> loader, UnaryOperator<T> freeze) {
+        Object cached = local.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        long loadGeneration = generation.get();
+        Remote<T> remote = readRemote(key, type);
+        T value = remote != null && remote.value() != null ? freeze.apply(remote.value()) : null;
+        if (value == null) {
+            value = loader.get();
+            if (value == null) {
+                return null;
+            }
+            value = freeze.apply(value);
+            // Skipped when Redis could not be read: there is no generation to compare
+            if (remote != null && generation.get() == loadGeneration) {
+                writeRemote(key, value, remote.generation());
+            }
+        }
+        if (generation.get() == loadGeneration) {
+            local.put(key, value);
+        }
+        return value;
+    }
+
+    private void put(String key, Object value, String remoteGeneration) {
+        local.put(key, value);
+        if (remoteGeneration != null) {
+            writeRemote(key, value, remoteGeneration);
+        }
+    }
+
+    /**
+     * Read an L2 entry together with the catalog generation.
+     *
+     * @return the entry (null value on a miss), or null if Redis failed
+     */
+    private <T> Remote<T> readRemote(String key, JavaType type) {
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(key, GENERATION_KEY));
+            String json = values != null ? values.get(0) : null;
+            String remoteGeneration = values != null && values.get(1) != null ? values.get(1) : "";
+            if (json == null) {
+                remoteMisses.increment();
+                return new Remote<>(null, remoteGeneration);
+            }
+            remoteHits.increment();
+            return new Remote<>(objectMapper.readValue(json, type), remoteGeneration);
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("Failed to read catalog entry {} from Redis: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the catalog generation ("" if never bumped), or null if Redis failed
+     */
+    private String readGeneration() {
+        try {
+            String remoteGeneration = redisTemplate.opsForValue().get(GENERATION_KEY);
+            return remoteGeneration != null ? remoteGeneration : "";
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("Failed to read catalog generation from Redis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(String key, Object value, String remoteGeneration) {
+        try {
+            Long written = redisTemplate.execute(PUT_SCRIPT, List.of(key, GENERATION_KEY), remoteGeneration,
+                    objectMapper.writeValueAsString(value), String.valueOf(remoteTtl.toMillis()));
+            if (written != null && written == 0) {
+                log.debug("Catalog entry {} was invalidated while loading, not cached in Redis", key);
+            }
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("Failed to write catalog entry {} to Redis: {}", key, e.getMessage());
+        }
+    }
+
+    private void invalidate(String... keys) {
+        List<String> keyList = List.of(keys);
+        generation.incrementAndGet();
+        local.invalidateAll(keyList);
+        try {
+            List<String> scriptKeys = new ArrayList<>(keyList.size() + 1);
+            scriptKeys.add(GENERATION_KEY);
+            scriptKeys.addAll(keyList);
+            redisTemplate.execute(INVALIDATE_SCRIPT, scriptKeys);
+            redisTemplate.convertAndSend(invalidationChannel, String.join(",", keyList));
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("Failed to publish catalog invalidation for {}: {}", keyList, e.getMessage());
+        }
+    }
+
+    private record Remote<T>(T value, String generation) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import com.hotelmanagement.quanlikhachsan.model.email.OutboundEmail;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Email Dispatcher
+ *
+ * Drains the outbound email queue on a fixed-size worker pool. A poll claims
+ * at most one batch per idle worker, so claimed rows never wait in memory; the
+ * rest stay in the table for the next poll or another node. Each worker sends
+ * its batch over a single pooled SMTP connection. Newly queued emails wake a
+ * poller thread, so the enqueuing request never claims or sends itself.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailDispatcher {
+
+    private final EmailQueue emailQueue;
+    private final EmailService emailService;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${email.queue.workers:4}")
+    private int workers;
+
+    @Value("${email.queue.batch-size:20}")
+    private int batchSize;
+
+    @Value("${email.queue.worker-batch-size:10}")
+    private int workerBatchSize;
+
+    private ThreadPoolTaskExecutor executor;
+    private ThreadPoolTaskExecutor poller;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private Semaphore idleWorkers;
+    private Timer deliveryTimer;
+
+    @PostConstruct
+    void init() {
+        idleWorkers = new Semaphore(workers);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        // Deliveries are capped by idleWorkers, so the queue never overflows
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("email-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        // One wake-up runs at a time and at most one waits, see onEmailEnqueued
+        poller = new ThreadPoolTaskExecutor();
+        poller.setCorePoolSize(1);
+        poller.setMaxPoolSize(1);
+        poller.setQueueCapacity(1);
+        poller.setThreadNamePrefix("email-poller-");
+        poller.initialize();
+
+        deliveryTimer = Timer.builder("email.delivery.batch.duration")
+                .description("Time to render and hand one worker batch to the SMTP server")
+                .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdown();
+        executor.shutdown();
+    }
+
+    /**
+     * Wake the poller for a freshly queued email instead of waiting for the
+     * next scheduled poll. Runs after the enqueuing transaction commits and
+     * returns at once; wake-ups arriving while one is pending are merged, and
+     * when every worker is busy the scheduled poll picks the email up.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailEnqueued(EmailQueue.EmailEnqueuedEvent event) {
+        if (idleWorkers.availablePermits() == 0 || !wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        poller.execute(() -> {
+            wakeUpPending.set(false);
+            poll();
+        });
+    }
+
+    /**
+     * Claim due emails for the idle workers and hand each worker a batch.
+     */
+    @Scheduled(fixedDelayString = "${email.queue.poll-interval:1s}")
+    public void poll() {
+        int idle = idleWorkers.availablePermits();
+        if (idle == 0 || !idleWorkers.tryAcquire(idle)) {
+            return;
+        }
+
+        List<OutboundEmail> claimed;
+        try {
+            claimed = emailQueue.claim(Math.min(batchSize, idle * workerBatchSize));
+        } catch (Exception e) {
+            idleWorkers.release(idle);
+            log.warn("Failed to claim queued emails: {}", e.getMessage());
+            return;
+        }
+
+        // Spread the claim evenly over the idle workers
+        List<List<OutboundEmail>> batches = new ArrayList<>();
+        int perWorker = Math.max(1, (claimed.size() + idle - 1) / idle);
+        for (int from = 0; from < claimed.size(); from += perWorker) {
+            batches.add(claimed.subList(from, Math.min(from + perWorker, claimed.size())));
+        }
+
+        idleWorkers.release(idle - batches.size());
+        for (List<OutboundEmail> batch : batches) {
+            executor.execute(() -> {
+                try {
+                    deliver(batch);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        }
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private void deliver(List<OutboundEmail> batch) {
+        Map<UUID, Exception> failures;
+        try {
+            failures = deliveryTimer.recordCallable(() -> emailService.deliverBatch(batch));
+        } catch (Exception e) {
+            failures = new HashMap<>();
+            for (OutboundEmail email : batch) {
+                failures.put(email.getId(), e);
+            }
+        }
+
+        for (OutboundEmail email : batch) {
+            Exception failure = failures.get(email.getId());
+            if (failure == null) {
+                emailQueue.markSent(email.getId());
+                log.info("{} email sent to: {}", email.getType(), email.getRecipient());
+            } else {
+                emailQueue.markFailed(email.getId(), failure);
+            }
+        }
+    }
+}
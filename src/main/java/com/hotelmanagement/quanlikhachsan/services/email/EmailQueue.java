@@ -0,0 +1,212 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import com.hotelmanagement.quanlikhachsan.model.email.EmailType;
+import com.hotelmanagement.quanlikhachsan.model.email.OutboundEmail;
+import com.hotelmanagement.quanlikhachsan.model.email.OutboundEmailStatus;
+import com.hotelmanagement.quanlikhachsan.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Email Queue
+ *
+ * Durable outbound email queue on the email_outbox table:
+ * - Enqueue inside the caller's transaction; the dispatcher is woken after commit
+ * - Claim due rows for delivery without blocking other nodes
+ * - Exponential backoff on failure and dead-lettering after max attempts
+ * - Queue depth gauges per status and delivery outcome counters
+ * - Latency histogram from enqueue to delivery
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class EmailQueue {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${email.queue.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${email.queue.initial-backoff:30s}")
+    private Duration initialBackoff;
+
+    @Value("${email.queue.max-backoff:30m}")
+    private Duration maxBackoff;
+
+    @Value("${email.queue.claim-timeout:5m}")
+    private Duration claimTimeout;
+
+    @Value("${email.queue.retention:7d}")
+    private Duration retention;
+
+    private final Map<OutboundEmailStatus, AtomicLong> depth = new EnumMap<>(OutboundEmailStatus.class);
+    private Counter sent;
+    private Counter retried;
+    private Counter deadLettered;
+    private Timer queueLatency;
+
+    /**
+     * Published when an email is queued; the dispatcher reacts after commit.
+     */
+    public record EmailEnqueuedEvent(UUID emailId) {
+    }
+
+    @PostConstruct
+    void init() {
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        for (OutboundEmailStatus status : OutboundEmailStatus.values()) {
+            AtomicLong gauge = new AtomicLong();
+            depth.put(status, gauge);
+            registry.gauge("email.queue.depth", Tags.of("status", status.name().toLowerCase()), gauge);
+        }
+        sent = registry.counter("email.delivery", "result", "sent");
+        retried = registry.counter("email.delivery", "result", "retry");
+        deadLettered = registry.counter("email.delivery", "result", "dead");
+        queueLatency = Timer.builder("email.queue.latency")
+                .description("Time from enqueue to successful delivery")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Queue an email for delivery.
+     *
+     * @param type      template to render
+     * @param recipient recipient address
+     * @param payload   template parameters
+     * @return ID of the queued email
+     */
+    public UUID enqueue(EmailType type, String recipient, Map<String, String> payload) {
+        OutboundEmail email = outboundEmailRepository.save(OutboundEmail.builder()
+                .type(type)
+                .recipient(recipient)
+                .payload(new HashMap<>(payload))
+                .build());
+        eventPublisher.publishEvent(new EmailEnqueuedEvent(email.getId()));
+        log.debug("Queued {} email {} for {}", type, email.getId(), recipient);
+        return email.getId();
+    }
+
+    /**
+     * Claim up to {@code limit} due emails and mark them SENDING. Commits on its
+     * own so the row locks are held only for the claim itself.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<OutboundEmail> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboundEmail> claimed = outboundEmailRepository.lockDeliverable(now, now.minus(claimTimeout), limit);
+        for (OutboundEmail email : claimed) {
+            email.setStatus(OutboundEmailStatus.SENDING);
+            email.setClaimedAt(now);
+            email.setAttempts(email.getAttempts() + 1);
+        }
+        return claimed;
+    }
+
+    /**
+     * Record a successful delivery. The payload is cleared so one-time codes do
+     * not outlive the message.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markSent(UUID emailId) {
+        outboundEmailRepository.findById(emailId).ifPresent(email -> {
+            email.setStatus(OutboundEmailStatus.SENT);
+            email.setSentAt(LocalDateTime.now());
+            if (email.getCreatedAt() != null) {
+                queueLatency.record(Duration.between(email.getCreatedAt(), email.getSentAt()));
+            }
+            email.setPayload(new HashMap<>());
+            email.setLastError(null);
+        });
+        sent.increment();
+    }
+
+    /**
+     * Record a failed delivery: retry with exponential backoff, or dead-letter
+     * once the attempts are used up.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markFailed(UUID emailId, Exception error) {
+        outboundEmailRepository.findById(emailId).ifPresent(email -> {
+            email.setLastError(truncate(error.toString()));
+            email.setClaimedAt(null);
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(OutboundEmailStatus.DEAD);
+                deadLettered.increment();
+                log.error("Dead-lettered {} email {} to {} after {} attempts: {}", email.getType(), emailId,
+                        email.getRecipient(), email.getAttempts(), error.getMessage());
+            } else {
+                email.setStatus(OutboundEmailStatus.PENDING);
+                email.setNextAttemptAt(LocalDateTime.now().plus(backoff(email.getAttempts())));
+                retried.increment();
+                log.warn("Delivery of {} email {} failed (attempt {}/{}), retrying at {}: {}", email.getType(),
+                        emailId, email.getAttempts(), maxAttempts, email.getNextAttemptAt(), error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Refresh the queue depth gauges.
+     */
+    @Scheduled(fixedDelayString = "${email.queue.metrics-interval:15s}")
+    @Transactional(readOnly = true)
+    public void refreshDepth() {
+        try {
+            depth.values().forEach(gauge -> gauge.set(0));
+            outboundEmailRepository.countByStatus()
+                    .forEach(count -> depth.get(count.getStatus()).set(count.getCount()));
+        } catch (Exception e) {
+            log.warn("Failed to refresh email queue depth: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Remove delivered emails older than the retention period. Dead letters
+     * are kept for inspection.
+     */
+    @Scheduled(cron = "${email.queue.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int removed = outboundEmailRepository.deleteByStatusAndSentAtBefore(OutboundEmailStatus.SENT,
+                LocalDateTime.now().minus(retention));
+        log.info("Purged {} delivered emails from the outbox", removed);
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private Duration backoff(int attempts) {
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration delay = initialBackoff.multipliedBy(factor);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
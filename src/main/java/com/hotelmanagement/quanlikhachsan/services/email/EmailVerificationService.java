@@ -38,16 +38,13 @@ public class EmailVerificationService {
     public long sendOTP(String email, String fullName) {
         log.info("Sending OTP to email: {}", email);
 
-        // Check cooldown
-        if (!otpService.canResendOTP(email)) {
+        // Generate OTP; the cooldown check is part of the same Redis script
+        String otp = otpService.generateOTP(email).orElseThrow(() -> {
             log.warn("Resend cooldown active for email: {}", email);
-            throw new ResendCooldownException("Please wait before requesting another OTP");
-        }
-
-        // Generate OTP
-        String otp = otpService.generateOTP(email);
+            return new ResendCooldownException("Please wait before requesting another OTP");
+        });
 
-        // Send email
+        // Queue email; the request does not wait for SMTP
         emailService.sendVerificationEmail(email, otp, fullName, expirationMinutes);
 
         // Return expiration time
@@ -67,12 +64,10 @@ public class EmailVerificationService {
     public boolean verifyOTP(String email, String otp) {
         log.info("Verifying OTP for email: {}", email);
 
-        try {
-            boolean isValid = otpService.validateOTP(email, otp);
-
-            if (isValid) {
+        switch (otpService.validateOTP(email, otp)) {
+            case VALID -> {
                 log.info("OTP verified successfully for email: {}", email);
-                // Send welcome email asynchronously
+                // Queue welcome email; delivery happens off the request thread
                 try {
                     emailService.sendWelcomeEmail(email, extractNameFromEmail(email));
                 } catch (Exception e) {
@@ -80,16 +75,17 @@ public class EmailVerificationService {
                     // Don't fail verification if welcome email fails
                 }
                 return true;
-            } else {
+            }
+            case INVALID -> {
                 int remainingAttempts = otpService.getRemainingAttempts(email);
                 log.warn("Invalid OTP for email: {}. Remaining attempts: {}", email, remainingAttempts);
                 throw new OTPInvalidException("Invalid OTP code");
             }
-        } catch (RuntimeException e) {
-            if (e.getMessage().contains("Maximum verification attempts exceeded")) {
-                throw new OTPAttemptsExceededException(e.getMessage());
-            }
-            throw e;
+            case EXPIRED -> throw new OTPExpiredException(
+                    "OTP has expired or was not requested. Please request a new OTP.");
+            case ATTEMPTS_EXCEEDED -> throw new OTPAttemptsExceededException(
+                    "Maximum verification attempts exceeded. Please request a new OTP.");
+            default -> throw new IllegalStateException("Unexpected OTP validation result");
         }
     }
 
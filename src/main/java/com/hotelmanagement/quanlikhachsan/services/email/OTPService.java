@@ -1,12 +1,25 @@
 package com.hotelmanagement.quanlikhachsan.services.email;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -18,15 +31,32 @@ import java.util.concurrent.TimeUnit;
  * - Automatic expiration
  * - Attempt limiting
  * - Resend cooldown
+ * 
+ * Generate and validate each run as one Lua script (EVALSHA), so every
+ * operation is a single atomic round trip.
+ * 
+ * All state for an email lives in one small Redis hash of plain decimal
+ * strings (no JSON type metadata). Each field carries its own expiry
+ * timestamp and the key TTL follows the longest-lived field, so Redis
+ * expires one key per sign-up.
+ * 
+ * Issue and validation outcomes are counted per result.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed("otp.service")
 public class OTPService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
 
+    private static final RedisScript<Long> GENERATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/otp/generate.lua"), Long.class);
+    private static final RedisScript<Long> VALIDATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/otp/validate.lua"), Long.class);
+
     @Value("${email.verification.otp-length}")
     private int otpLength;
 
@@ -39,88 +69,99 @@ public class OTPService {
     @Value("${email.verification.resend-cooldown-seconds}")
     private long resendCooldownSeconds;
 
-    private static final String OTP_PREFIX = "otp:";
-    private static final String ATTEMPTS_PREFIX = "otp:attempts:";
-    private static final String COOLDOWN_PREFIX = "otp:cooldown:";
-    private static final String VERIFIED_PREFIX = "verified:";
+    private static final String STATE_PREFIX = "otp:state:";
+    private static final long VERIFIED_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    // Hash fields, one letter each to keep the hash small; times are epoch millis
+    private static final String FIELD_CODE = "c";
+    private static final String FIELD_EXPIRES_AT = "e";
+    private static final String FIELD_ATTEMPTS = "a";
+    private static final String FIELD_RESEND_AT = "r";
+    private static final String FIELD_VERIFIED_UNTIL = "v";
+
+    private final Map<ValidationResult, Counter> validations = new EnumMap<>(ValidationResult.class);
+    private Counter issued;
+    private Counter cooldownRejected;
+
+    /**
+     * Outcome of an OTP check. The order matches the codes returned by
+     * scripts/otp/validate.lua.
+     */
+    public enum ValidationResult {
+        EXPIRED,
+        VALID,
+        INVALID,
+        ATTEMPTS_EXCEEDED
+    }
+
+    @PostConstruct
+    void init() {
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        for (ValidationResult result : ValidationResult.values()) {
+            validations.put(result, registry.counter("otp.validations", "result",
+                    result.name().toLowerCase(Locale.ROOT)));
+        }
+        issued = registry.counter("otp.issued", "result", "issued");
+        cooldownRejected = registry.counter("otp.issued", "result", "cooldown");
+    }
 
     /**
-     * Generate a new OTP for the given email
+     * Generate a new OTP for the given email, unless the resend cooldown is
+     * still active
      * 
      * @param email User email
-     * @return Generated OTP string
+     * @return Generated OTP string, or empty while in cooldown
      */
-    public String generateOTP(String email) {
+    public Optional<String> generateOTP(String email) {
         // Generate 6-digit OTP using SecureRandom
         int otp = SECURE_RANDOM.nextInt((int) Math.pow(10, otpLength));
-        String otpString = String.format("%0" + otpLength + "d", otp);
-
-        // Store in Redis with expiration
-        String key = OTP_PREFIX + email;
-        redisTemplate.opsForValue().set(key, otpString, expirationMinutes, TimeUnit.MINUTES);
-
-        // Reset attempts counter
-        String attemptsKey = ATTEMPTS_PREFIX + email;
-        redisTemplate.opsForValue().set(attemptsKey, 0, expirationMinutes, TimeUnit.MINUTES);
+        String otpString = formatOTP(otp, otpLength);
+
+        // Store OTP, reset attempts and start the cooldown in one step
+        Long cooldown = redisTemplate.execute(GENERATE_SCRIPT,
+                List.of(STATE_PREFIX + email),
+                otpString,
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(TimeUnit.MINUTES.toMillis(expirationMinutes)),
+                String.valueOf(TimeUnit.SECONDS.toMillis(resendCooldownSeconds)));
+
+        if (cooldown != null && cooldown > 0) {
+            log.debug("Resend cooldown active for email: {}. Remaining: {} ms", email, cooldown);
+            cooldownRejected.increment();
+            return Optional.empty();
+        }
 
-        // Set resend cooldown
-        String cooldownKey = COOLDOWN_PREFIX + email;
-        redisTemplate.opsForValue().set(cooldownKey, System.currentTimeMillis(),
-                resendCooldownSeconds, TimeUnit.SECONDS);
+        issued.increment();
 
         log.info("OTP generated for email: {} (expires in {} minutes)", email, expirationMinutes);
-        return otpString;
+        return Optional.of(otpString);
     }
 
     /**
-     * Validate OTP for the given email
+     * Validate OTP for the given email. A correct OTP marks the email as
+     * verified and removes the OTP; running out of attempts removes it too.
      * 
      * @param email User email
      * @param otp   OTP to validate
-     * @return true if OTP is valid, false otherwise
-     * @throws RuntimeException if max attempts exceeded
+     * @return validation result
      */
-    public boolean validateOTP(String email, String otp) {
-        String key = OTP_PREFIX + email;
-        String attemptsKey = ATTEMPTS_PREFIX + email;
-
-        // Check if OTP exists
-        String storedOTP = (String) redisTemplate.opsForValue().get(key);
-        if (storedOTP == null) {
-            log.warn("OTP not found or expired for email: {}", email);
-            return false;
-        }
-
-        // Check attempts
-        Integer attempts = (Integer) redisTemplate.opsForValue().get(attemptsKey);
-        if (attempts == null) {
-            attempts = 0;
-        }
-
-        if (attempts >= maxAttempts) {
-            log.warn("Max OTP attempts ({}) exceeded for email: {}", maxAttempts, email);
-            // Invalidate OTP
-            invalidateOTP(email);
-            throw new RuntimeException("Maximum verification attempts exceeded. Please request a new OTP.");
+    public ValidationResult validateOTP(String email, String otp) {
+        Long code = redisTemplate.execute(VALIDATE_SCRIPT,
+                List.of(STATE_PREFIX + email),
+                otp,
+                String.valueOf(maxAttempts),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(VERIFIED_TTL_MILLIS));
+
+        ValidationResult result = ValidationResult.values()[code.intValue()];
+        validations.get(result).increment();
+        switch (result) {
+            case VALID -> log.info("OTP validated successfully for email: {}", email);
+            case INVALID -> log.warn("Invalid OTP attempt for email: {}", email);
+            case EXPIRED -> log.warn("OTP not found or expired for email: {}", email);
+            case ATTEMPTS_EXCEEDED -> log.warn("Max OTP attempts ({}) exceeded for email: {}", maxAttempts, email);
         }
-
-        // Increment attempts
-        redisTemplate.opsForValue().increment(attemptsKey);
-
-        // Validate OTP
-        boolean isValid = storedOTP.equals(otp);
-
-        if (isValid) {
-            log.info("OTP validated successfully for email: {}", email);
-            // Mark as verified
-            markAsVerified(email);
-            // Clean up OTP data
-            invalidateOTP(email);
-        } else {
-            log.warn("Invalid OTP attempt for email: {}. Attempts: {}/{}", email, attempts + 1, maxAttempts);
-        }
-
-        return isValid;
+        return result;
     }
 
     /**
@@ -129,11 +170,7 @@ public class OTPService {
      * @param email User email
      */
     public void invalidateOTP(String email) {
-        String otpKey = OTP_PREFIX + email;
-        String attemptsKey = ATTEMPTS_PREFIX + email;
-
-        redisTemplate.delete(otpKey);
-        redisTemplate.delete(attemptsKey);
+        redisTemplate.opsForHash().delete(STATE_PREFIX + email, FIELD_CODE, FIELD_EXPIRES_AT, FIELD_ATTEMPTS);
 
         log.debug("OTP invalidated for email: {}", email);
     }
@@ -145,22 +182,7 @@ public class OTPService {
      * @return true if can resend, false if in cooldown
      */
     public boolean canResendOTP(String email) {
-        String cooldownKey = COOLDOWN_PREFIX + email;
-        Long lastSentTime = (Long) redisTemplate.opsForValue().get(cooldownKey);
-
-        if (lastSentTime == null) {
-            return true;
-        }
-
-        long elapsedSeconds = (System.currentTimeMillis() - lastSentTime) / 1000;
-        boolean canResend = elapsedSeconds >= resendCooldownSeconds;
-
-        if (!canResend) {
-            long remainingSeconds = resendCooldownSeconds - elapsedSeconds;
-            log.debug("Resend cooldown active for email: {}. Remaining: {} seconds", email, remainingSeconds);
-        }
-
-        return canResend;
+        return readTime(email, FIELD_RESEND_AT) <= System.currentTimeMillis();
     }
 
     /**
@@ -170,26 +192,13 @@ public class OTPService {
      * @return remaining attempts count
      */
     public int getRemainingAttempts(String email) {
-        String attemptsKey = ATTEMPTS_PREFIX + email;
-        Integer attempts = (Integer) redisTemplate.opsForValue().get(attemptsKey);
+        String attempts = (String) redisTemplate.opsForHash().get(STATE_PREFIX + email, FIELD_ATTEMPTS);
 
         if (attempts == null) {
             return maxAttempts;
         }
 
-        return Math.max(0, maxAttempts - attempts);
-    }
-
-    /**
-     * Mark email as verified
-     * 
-     * @param email User email
-     */
-    private void markAsVerified(String email) {
-        String verifiedKey = VERIFIED_PREFIX + email;
-        redisTemplate.opsForValue().set(verifiedKey, System.currentTimeMillis(),
-                1, TimeUnit.HOURS);
-        log.info("Email marked as verified: {}", email);
+        return Math.max(0, maxAttempts - Integer.parseInt(attempts));
     }
 
     /**
@@ -199,8 +208,7 @@ public class OTPService {
      * @return true if verified, false otherwise
      */
     public boolean isVerified(String email) {
-        String verifiedKey = VERIFIED_PREFIX + email;
-        return redisTemplate.hasKey(verifiedKey);
+        return readTime(email, FIELD_VERIFIED_UNTIL) > System.currentTimeMillis();
     }
 
     /**
@@ -210,8 +218,22 @@ public class OTPService {
      * @return remaining seconds, or 0 if expired
      */
     public long getRemainingExpirationTime(String email) {
-        String key = OTP_PREFIX + email;
-        Long expireTime = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-        return expireTime != null && expireTime > 0 ? expireTime : 0;
+        long remainingMillis = readTime(email, FIELD_EXPIRES_AT) - System.currentTimeMillis();
+        return remainingMillis > 0 ? TimeUnit.MILLISECONDS.toSeconds(remainingMillis) : 0;
+    }
+
+    /**
+     * Zero-pad an OTP to the configured length
+     */
+    static String formatOTP(int otp, int length) {
+        return String.format("%0" + length + "d", otp);
+    }
+
+    /**
+     * Read an epoch-millis field of the email's OTP state, 0 if absent
+     */
+    private long readTime(String email, String field) {
+        Object value = redisTemplate.opsForHash().get(STATE_PREFIX + email, field);
+        return value != null ? Long.parseLong((String) value) : 0;
     }
 }
@@ -0,0 +1,243 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SMTP Connection Pool
+ *
+ * Small pool of connected, authenticated SMTP transports built from the
+ * JavaMailSender session, so a batch of messages pays for connect, STARTTLS
+ * and AUTH once:
+ * - At most max-connections open transports; callers wait up to borrow-timeout
+ * - A connection is retired after messages-per-connection sends or when it
+ *   has been idle longer than idle-timeout
+ * - Sends on one connection are spaced to at most rate-per-connection per second
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SmtpConnectionPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${email.smtp.pool.max-connections:4}")
+    private int maxConnections;
+
+    @Value("${email.smtp.pool.messages-per-connection:100}")
+    private int messagesPerConnection;
+
+    @Value("${email.smtp.pool.rate-per-connection:0}")
+    private double ratePerConnection;
+
+    @Value("${email.smtp.pool.idle-timeout:30s}")
+    private Duration idleTimeout;
+
+    @Value("${email.smtp.pool.borrow-timeout:10s}")
+    private Duration borrowTimeout;
+
+    // Most recently used first, so idle connections age out at the tail
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private Counter connects;
+
+    /**
+     * Sends messages over one borrowed connection.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        void send(MimeMessage message) throws MessagingException;
+    }
+
+    /**
+     * Work done while holding a connection.
+     */
+    @FunctionalInterface
+    public interface SenderCallback<T> {
+        T doWith(Sender sender) throws MessagingException;
+    }
+
+    @PostConstruct
+    void init() {
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        connects = registry.counter("email.smtp.connects");
+        registry.gauge("email.smtp.connections", open);
+    }
+
+    @PreDestroy
+    void close() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Run {@code callback} with a pooled connection. The connection goes back
+     * to the pool afterwards unless it failed at the connection level.
+     */
+    public <T> T withConnection(SenderCallback<T> callback) throws MessagingException {
+        PooledTransport pooled = borrow();
+        boolean healthy = false;
+        try {
+            T result = callback.doWith(message -> send(pooled, message));
+            healthy = true;
+            return result;
+        } catch (SendFailedException e) {
+            // Rejected recipients; the session itself is still usable
+            healthy = true;
+            throw e;
+        } finally {
+            if (healthy) {
+                release(pooled);
+            } else {
+                discard(pooled);
+            }
+        }
+    }
+
+    /**
+     * Close connections idle for longer than the idle timeout, before the
+     * server drops them on its side.
+     */
+    @Scheduled(fixedDelayString = "${email.smtp.pool.idle-timeout:30s}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - idleTimeout.toNanos();
+        List<PooledTransport> expired = new ArrayList<>();
+        for (PooledTransport pooled : idle) {
+            if (pooled.lastUsed < cutoff && idle.remove(pooled)) {
+                expired.add(pooled);
+            }
+        }
+        expired.forEach(this::discard);
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private PooledTransport borrow() throws MessagingException {
+        long deadline = System.nanoTime() + borrowTimeout.toNanos();
+        while (true) {
+            PooledTransport pooled = idle.pollFirst();
+            if (pooled == null) {
+                if (open.incrementAndGet() <= maxConnections) {
+                    try {
+                        return connect();
+                    } catch (MessagingException | RuntimeException e) {
+                        open.decrementAndGet();
+                        throw e;
+                    }
+                }
+                open.decrementAndGet();
+                pooled = awaitIdle(deadline);
+            }
+
+            if (pooled.transport.isConnected()) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+    }
+
+    private PooledTransport awaitIdle(long deadline) throws MessagingException {
+        try {
+            long remaining = deadline - System.nanoTime();
+            PooledTransport pooled = remaining > 0 ? idle.pollFirst(remaining, TimeUnit.NANOSECONDS) : null;
+            if (pooled == null) {
+                throw new MessagingException("No SMTP connection available within " + borrowTimeout);
+            }
+            return pooled;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+                mailSender.getPassword());
+        connects.increment();
+        log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private void send(PooledTransport pooled, MimeMessage message) throws MessagingException {
+        if (ratePerConnection > 0) {
+            long wait = pooled.nextSendAt - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MessagingException("Interrupted while rate limiting", e);
+                }
+            }
+            pooled.nextSendAt = System.nanoTime() + (long) (TimeUnit.SECONDS.toNanos(1) / ratePerConnection);
+        }
+
+        // Same header handling as JavaMailSenderImpl
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+        pooled.transport.sendMessage(message, message.getAllRecipients());
+        pooled.sent++;
+    }
+
+    private void release(PooledTransport pooled) {
+        if (pooled.sent >= messagesPerConnection) {
+            discard(pooled);
+            return;
+        }
+        pooled.lastUsed = System.nanoTime();
+        idle.offerFirst(pooled);
+    }
+
+    private void discard(PooledTransport pooled) {
+        open.decrementAndGet();
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int sent;
+        private long lastUsed = System.nanoTime();
+        private long nextSendAt;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.hotelmanagement.quanlikhachsan.services.email.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Email Template
+ *
+ * A template compiled once into alternating literal segments and named slots:
+ * literals[0] slots[0] literals[1] ... slots[n-1] literals[n]. Rendering only
+ * appends to the caller's buffer; slot values are HTML-escaped when the
+ * template is markup.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final String[] literals;
+    private final String[] slots;
+    private final boolean html;
+    private final int literalLength;
+
+    private EmailTemplate(String name, String[] literals, String[] slots, boolean html) {
+        this.name = name;
+        this.literals = literals;
+        this.slots = slots;
+        this.html = html;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compile {@code {{slot}}} placeholders in {@code source}.
+     *
+     * @param name   template name, used in error messages
+     * @param source template text
+     * @param html   escape slot values for HTML
+     * @throws IllegalArgumentException on an unterminated or empty placeholder
+     */
+    public static EmailTemplate compile(String name, String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, from)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder in template " + name + " at " + open);
+            }
+            String slot = source.substring(open + OPEN.length(), close).strip();
+            if (slot.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder in template " + name + " at " + open);
+            }
+            literals.add(source.substring(from, open));
+            slots.add(slot);
+            from = close + CLOSE.length();
+        }
+        literals.add(source.substring(from));
+        return new EmailTemplate(name, literals.toArray(String[]::new), slots.toArray(String[]::new), html);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Length of the template without slot values; a lower bound for the output.
+     */
+    public int literalLength() {
+        return literalLength;
+    }
+
+    /**
+     * Append the rendered template to {@code out}. Missing values render empty.
+     */
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        out.ensureCapacity(out.length() + literalLength + slots.length * 16);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(slots[i]);
+            if (value != null) {
+                if (html) {
+                    appendEscaped(out, value);
+                } else {
+                    out.append(value);
+                }
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String entity = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(value, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+}
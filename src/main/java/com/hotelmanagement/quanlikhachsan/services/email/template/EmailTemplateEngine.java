@@ -0,0 +1,137 @@
+package com.hotelmanagement.quanlikhachsan.services.email.template;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Email Template Engine
+ *
+ * Loads every email template from the classpath at startup and compiles it
+ * once, so a send only fills slots:
+ * - Bodies: {name}.{language}.html, e.g. welcome.vi.html
+ * - Subjects: subjects_{language}.properties, keyed by template name
+ * - Unknown languages fall back to the default locale
+ * - Rendering reuses a per-thread buffer; only the final strings are allocated
+ */
+@Component
+@Slf4j
+public class EmailTemplateEngine {
+
+    private static final Pattern BODY_FILE = Pattern.compile("(.+)\\.([a-z]{2})\\.html");
+    private static final Pattern SUBJECT_FILE = Pattern.compile("subjects_([a-z]{2})\\.properties");
+
+    // Buffers that grew past this are dropped instead of kept on the thread
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    private final Map<String, EmailTemplate> bodies = new HashMap<>();
+    private final Map<String, EmailTemplate> subjects = new HashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    @Value("${email.templates.location:classpath:templates/email/}")
+    private String location;
+
+    @Value("${email.templates.default-locale:vi}")
+    private String defaultLanguage;
+
+    /**
+     * Subject and HTML body of a rendered email.
+     */
+    public record RenderedEmail(String subject, String html) {
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        String base = location.endsWith("/") ? location : location + "/";
+        for (Resource resource : resolver.getResources(base + "*.html")) {
+            Matcher matcher = BODY_FILE.matcher(resource.getFilename());
+            if (matcher.matches()) {
+                String key = key(matcher.group(1), matcher.group(2));
+                bodies.put(key, EmailTemplate.compile(key, resource.getContentAsString(StandardCharsets.UTF_8), true));
+            }
+        }
+        for (Resource resource : resolver.getResources(base + "subjects_*.properties")) {
+            Matcher matcher = SUBJECT_FILE.matcher(resource.getFilename());
+            if (!matcher.matches()) {
+                continue;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            for (String name : properties.stringPropertyNames()) {
+                String key = key(name, matcher.group(1));
+                subjects.put(key, EmailTemplate.compile(key, properties.getProperty(name), false));
+            }
+        }
+
+        for (String key : bodies.keySet()) {
+            if (!subjects.containsKey(key)) {
+                throw new IllegalStateException("Missing subject for email template " + key);
+            }
+        }
+        log.info("Compiled {} email templates from {}", bodies.size(), base);
+    }
+
+    /**
+     * Render a template in the given locale, falling back to the default locale.
+     *
+     * @param name   template name, e.g. "welcome"
+     * @param locale preferred locale, may be null
+     * @param values slot values; missing slots render empty
+     * @throws IllegalArgumentException if the template does not exist
+     */
+    public RenderedEmail render(String name, Locale locale, Map<String, String> values) {
+        String key = resolve(name, locale);
+        StringBuilder buffer = buffers.get();
+        try {
+            buffer.setLength(0);
+            subjects.get(key).renderTo(buffer, values);
+            String subject = buffer.toString();
+
+            buffer.setLength(0);
+            bodies.get(key).renderTo(buffer, values);
+            return new RenderedEmail(subject, buffer.toString());
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                buffers.remove();
+            }
+        }
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private String resolve(String name, Locale locale) {
+        if (locale != null) {
+            String key = key(name, locale.getLanguage());
+            if (bodies.containsKey(key)) {
+                return key;
+            }
+        }
+        String key = key(name, defaultLanguage);
+        if (!bodies.containsKey(key)) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        return key;
+    }
+
+    private static String key(String name, String language) {
+        return name + "." + language;
+    }
+}
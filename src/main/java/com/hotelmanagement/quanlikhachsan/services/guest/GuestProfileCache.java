@@ -0,0 +1,102 @@
+package com.hotelmanagement.quanlikhachsan.services.guest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotelmanagement.quanlikhachsan.dto.response.guest.GuestResponse;
+import com.hotelmanagement.quanlikhachsan.util.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Guest Profile Cache
+ *
+ * Per-node cache of guest profiles keyed by Keycloak user ID, used on the
+ * login path. Entries expire after a short TTL. Guest updates and deletes
+ * evict the entry after commit and publish the Keycloak user ID on a Redis
+ * channel so every node drops it, as RoomCatalogCache does for rooms. If the
+ * publish fails, the TTL bounds how long other nodes serve the old profile.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GuestProfileCache implements MessageListener {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${guest.profile-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${guest.profile-cache.ttl:5m}")
+    private Duration ttl;
+
+    @Value("${guest.profile-cache.invalidation-channel:guest:invalidate}")
+    private String invalidationChannel;
+
+    private Cache<UUID, GuestResponse> profiles;
+
+    @PostConstruct
+    void init() {
+        profiles = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), profiles, "guestProfile");
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(invalidationChannel));
+    }
+
+    /**
+     * Get the profile for a Keycloak user, loading it on a miss. Loader
+     * exceptions propagate and nothing is cached.
+     */
+    public GuestResponse get(UUID keycloakUserId, Function<UUID, GuestResponse> loader) {
+        return profiles.get(keycloakUserId, loader);
+    }
+
+    /**
+     * Drop a profile on every node once the surrounding transaction commits.
+     */
+    public void invalidate(UUID keycloakUserId) {
+        if (keycloakUserId == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> {
+            profiles.invalidate(keycloakUserId);
+            try {
+                redisTemplate.convertAndSend(invalidationChannel, keycloakUserId.toString());
+            } catch (Exception e) {
+                log.warn("Failed to publish guest profile invalidation for {}: {}", keycloakUserId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Invalidation message from any node, including this one.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        UUID keycloakUserId = UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8));
+        profiles.invalidate(keycloakUserId);
+        log.debug("Evicted guest profile for Keycloak user {}", keycloakUserId);
+    }
+}
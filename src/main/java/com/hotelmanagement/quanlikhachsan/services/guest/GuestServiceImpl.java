@@ -28,6 +28,7 @@ public class GuestServiceImpl implements IGuestService {
     private final GuestRepository guestRepository;
     private final IKeycloakService  keycloakService;
     private final GuestMapper guestMapper;
+    private final GuestProfileCache guestProfileCache;
     @Override
     public GuestResponse createGuest(GuestRequest request) {
         log.debug("Creating guest for email: {}", request.email());
@@ -72,10 +73,12 @@ public class GuestServiceImpl implements IGuestService {
 
     @Override
     public GuestResponse getGuestByKeycloakUserId(UUID keycloakUserId) {
-        log.debug("Fetching guest with Keycloak User ID: {}", keycloakUserId);
-        Guest guest = guestRepository.findByKeycloakUserId(keycloakUserId)
-                .orElseThrow(() -> new ResourceNotFoundException("Guest", "keycloakUserId", keycloakUserId));
-        return guestMapper.toResponse(guest);
+        return guestProfileCache.get(keycloakUserId, id -> {
+            log.debug("Fetching guest with Keycloak User ID: {}", id);
+            Guest guest = guestRepository.findByKeycloakUserId(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Guest", "keycloakUserId", id));
+            return guestMapper.toResponse(guest);
+        });
     }
 
     @Override
@@ -101,16 +104,17 @@ public class GuestServiceImpl implements IGuestService {
         // For now, we assume basic profile update.
 
         Guest updatedGuest = guestRepository.save(guest);
+        guestProfileCache.invalidate(updatedGuest.getKeycloakUserId());
         return guestMapper.toResponse(updatedGuest);
     }
 
     @Override
     public void deleteGuest(String id) {
         log.debug("Deleting guest with ID: {}", id);
-        if (!guestRepository.existsById(UUID.fromString(id))) {
-            throw new ResourceNotFoundException("Guest", "id", id);
-        }
+        Guest guest = guestRepository.findById(UUID.fromString(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Guest", "id", id));
         guestRepository.deleteById(UUID.fromString(id));
+        guestProfileCache.invalidate(guest.getKeycloakUserId());
     }
 
     private Optional<Keycloak> findKeycloakByUserId(UUID keycloakUserId) {
@@ -1,6 +1,12 @@
 package com.hotelmanagement.quanlikhachsan.services.reservation;
 
+import com.hotelmanagement.quanlikhachsan.dto.request.reservation.BulkReservationRequest;
+import com.hotelmanagement.quanlikhachsan.dto.request.reservation.ReservationFilter;
 import com.hotelmanagement.quanlikhachsan.dto.request.reservation.ReservationRequest;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.BulkReservationResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationPageResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationStatusSummaryResponse;
+import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus;
 import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationResponse;
 
 import java.time.LocalDate;
@@ -11,25 +17,62 @@ import java.util.UUID;
  * Service interface for Reservation management
  */
 public interface IReservationService {
-    ReservationResponse createReservation(ReservationRequest request);
+    /**
+     * Create a reservation, converting the hold in the request if there is one.
+     *
+     * @param request   the reservation request
+     * @param principal the authenticated user; a hold being converted must be theirs
+     */
+    ReservationResponse createReservation(ReservationRequest request, String principal);
+
+    /**
+     * Create many reservations in one transaction. Every line is validated up
+     * front with set-based queries; rejected lines are reported and the rest
+     * are inserted in JDBC batches.
+     *
+     * A booking committed by another request after the validation is caught
+     * only by the deferred reservation_rooms_no_overlap constraint at commit.
+     * That rolls back the whole block, which is then rejected as one
+     * ROOM_NOT_AVAILABLE naming the room that collided, without line results.
+     */
+    BulkReservationResponse createReservations(BulkReservationRequest request);
 
     ReservationResponse getReservationById(UUID id);
 
-    List<ReservationResponse> getAllReservations();
+    /**
+     * List reservations newest first, one page at a time.
+     *
+     * @param filter optional filters
+     * @param cursor token from the previous page, or null for the first page
+     * @param limit  page size
+     * @return the page and the cursor for the next one
+     */
+    ReservationPageResponse searchReservations(ReservationFilter filter, String cursor, int limit);
 
     List<ReservationResponse> getReservationsByGuestId(UUID guestId);
 
-    List<ReservationResponse> getReservationsByStatus(UUID statusId);
+    /**
+     * List reservations in one status, newest first, one page at a time.
+     */
+    ReservationPageResponse getReservationsByStatus(ReservationStatus status, String cursor, int limit);
+
+    /**
+     * Count reservations per status.
+     */
+    ReservationStatusSummaryResponse getStatusSummary();
 
     List<ReservationResponse> getReservationsByDateRange(LocalDate startDate, LocalDate endDate);
 
-    ReservationResponse updateReservation(UUID id, ReservationRequest request);
+    /**
+     * @param expectedVersion version the client edited (If-Match), or null to skip the check
+     */
+    ReservationResponse updateReservation(UUID id, ReservationRequest request, Long expectedVersion);
 
     ReservationResponse updateReservationStatus(UUID id, UUID statusId);
 
-    ReservationResponse addRoomToReservation(UUID reservationId, UUID roomId);
+    ReservationResponse addRoomToReservation(UUID reservationId, UUID roomId, Long expectedVersion);
 
-    void removeRoomFromReservation(UUID reservationId, UUID roomId);
+    void removeRoomFromReservation(UUID reservationId, UUID roomId, Long expectedVersion);
 
     ReservationResponse addServiceToReservation(UUID reservationId, UUID serviceId, Integer quantity);
 
@@ -0,0 +1,115 @@
+package com.hotelmanagement.quanlikhachsan.services.reservation;
+
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationResponse;
+import com.hotelmanagement.quanlikhachsan.exception.AppError;
+import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Reservation Conflict Executor
+ *
+ * Runs reservation writes that may lose an optimistic lock race. Each call
+ * of the action must open its own transaction, so invoke it from outside
+ * the service (the controller), never from inside a transaction.
+ *
+ * Status transitions re-read the reservation and re-check it on every
+ * attempt, so they are retried. Edits that carry the client's intent
+ * (dates, rooms) are not: the conflict is returned as 409 with the current
+ * state so the client can decide.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationConflictExecutor {
+
+    private final IReservationService reservationService;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${reservation.conflict-retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${reservation.conflict-retry.backoff:20ms}")
+    private Duration backoff;
+
+    private MeterRegistry registry;
+
+    @PostConstruct
+    void init() {
+        registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+    }
+
+    /**
+     * Run an idempotent transition, retrying it on a conflict.
+     *
+     * @throws AppError CONCURRENT_MODIFICATION with the current reservation
+     *                  once max-attempts conflicts in a row
+     */
+    public <T> T retrying(String operation, UUID reservationId, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    registry.counter("reservation.conflicts", "operation", operation, "outcome", "exhausted")
+                            .increment();
+                    throw conflict(reservationId, e);
+                }
+                registry.counter("reservation.conflicts", "operation", operation, "outcome", "retried").increment();
+                log.debug("Conflict on {} of reservation {}, attempt {} of {}", operation, reservationId, attempt,
+                        maxAttempts);
+                pause(attempt);
+            }
+        }
+    }
+
+    /**
+     * Run an edit once.
+     *
+     * @throws AppError CONCURRENT_MODIFICATION with the current reservation if
+     *                  another request changed it first
+     */
+    public <T> T rejecting(String operation, UUID reservationId, Supplier<T> action) {
+        try {
+            return action.get();
+        } catch (OptimisticLockingFailureException e) {
+            registry.counter("reservation.conflicts", "operation", operation, "outcome", "rejected").increment();
+            throw conflict(reservationId, e);
+        }
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private AppError conflict(UUID reservationId, OptimisticLockingFailureException cause) {
+        log.warn("Concurrent modification of reservation {}: {}", reservationId, cause.getMessage());
+        ReservationResponse current = reservationService.getReservationById(reservationId);
+        return ErrorDefinition.CONCURRENT_MODIFICATION.toAppError()
+                .withDetail("current", current)
+                .wrap(cause);
+    }
+
+    /**
+     * Linear backoff with jitter, so racing retries spread out.
+     */
+    private void pause(int attempt) {
+        long millis = backoff.toMillis() * attempt;
+        try {
+            Thread.sleep(millis + ThreadLocalRandom.current().nextLong(millis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a reservation update", e);
+        }
+    }
+}
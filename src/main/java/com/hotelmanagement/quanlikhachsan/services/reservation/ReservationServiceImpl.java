@@ -1,7 +1,15 @@
 package com.hotelmanagement.quanlikhachsan.services.reservation;
 
+import com.hotelmanagement.quanlikhachsan.dto.request.reservation.BulkReservationRequest;
+import com.hotelmanagement.quanlikhachsan.dto.request.reservation.ReservationFilter;
 import com.hotelmanagement.quanlikhachsan.dto.request.reservation.ReservationRequest;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.BulkReservationResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.BulkReservationResponse.LineResult;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationPageResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationStatusSummaryResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomHoldResponse;
+import com.hotelmanagement.quanlikhachsan.exception.AppError;
 import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
 import com.hotelmanagement.quanlikhachsan.mapper.ReservationMapper;
 import com.hotelmanagement.quanlikhachsan.model.guest.Guest;
@@ -13,8 +21,18 @@ import com.hotelmanagement.quanlikhachsan.repository.GuestRepository;
 import com.hotelmanagement.quanlikhachsan.repository.ReservationRepository;
 import com.hotelmanagement.quanlikhachsan.repository.ReservationRoomRepository;
 import com.hotelmanagement.quanlikhachsan.repository.RoomRepository;
+import com.hotelmanagement.quanlikhachsan.repository.specification.ReservationSpecifications;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomHoldService;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomOccupancyIndex;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomTypeInventoryService;
+import com.hotelmanagement.quanlikhachsan.services.email.EmailService;
+import com.hotelmanagement.quanlikhachsan.util.TransactionHooks;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,23 +40,41 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 @Slf4j
+@Timed("reservation.service")
 public class ReservationServiceImpl implements IReservationService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ReservationRepository reservationRepository;
     private final ReservationRoomRepository reservationRoomRepository;
     private final GuestRepository guestRepository;
     private final RoomRepository roomRepository;
     private final ReservationMapper reservationMapper;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final RoomTypeInventoryService inventoryService;
+    private final EmailService emailService;
+    private final RoomHoldService roomHoldService;
 
     @Override
-    public ReservationResponse createReservation(ReservationRequest request) {
+    @Counted("reservations.created")
+    public ReservationResponse createReservation(ReservationRequest request, String principal) {
         log.debug("Creating reservation for keycloakUserId: {}", request.keycloakUserId());
 
         // Validate dates
@@ -49,8 +85,14 @@ public class ReservationServiceImpl implements IReservationService {
                 .orElseThrow(() -> ErrorDefinition.GUEST_NOT_FOUND.toAppError()
                         .withDetail("keycloakUserId", request.keycloakUserId()));
 
+        // A hold being converted must belong to the caller and this guest and cover the booking
+        if (request.holdId() != null) {
+            verifyHold(request, principal);
+        }
+
         // Validate room availability
-        List<Room> rooms = validateAndGetRooms(request.roomIds(), request.checkIn(), request.checkOut(), null);
+        List<Room> rooms = validateAndGetRooms(request.roomIds(), request.checkIn(), request.checkOut(), null,
+                request.holdId());
 
         // Calculate total amount
         BigDecimal totalAmount = calculateTotalAmount(rooms, request.checkIn(), request.checkOut());
@@ -78,25 +120,146 @@ public class ReservationServiceImpl implements IReservationService {
 
         savedReservation = reservationRepository.save(savedReservation);
 
+        if (isBlocking(savedReservation.getStatus())) {
+            inventoryService.reserve(rooms, savedReservation.getCheckIn(), savedReservation.getCheckOut());
+            occupyAfterCommit(roomIdsOf(rooms), savedReservation.getCheckIn(), savedReservation.getCheckOut());
+        }
+
+        if (request.holdId() != null) {
+            UUID holdId = request.holdId();
+            TransactionHooks.afterCommit(() -> roomHoldService.release(holdId));
+        }
+
+        emailService.sendReservationConfirmation(guest.getEmail(), guest.getFullName(), savedReservation.getId(),
+                savedReservation.getCheckIn(), savedReservation.getCheckOut(), roomNumbersOf(rooms), totalAmount);
+
         log.info("Reservation created successfully with ID: {}", savedReservation.getId());
         return reservationMapper.toResponse(savedReservation);
     }
 
+    @Override
+    public BulkReservationResponse createReservations(BulkReservationRequest request) {
+        List<ReservationRequest> lines = request.lines();
+        log.debug("Creating {} reservations in bulk", lines.size());
+
+        // Everything the lines refer to, one query each: guests, rooms with types, existing stays
+        Map<UUID, Guest> guests = guestRepository.findAllByKeycloakUserIdIn(lines.stream()
+                        .map(ReservationRequest::keycloakUserId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Guest::getKeycloakUserId, Function.identity(), (first, second) -> first));
+        Set<String> roomIds = lines.stream()
+                .flatMap(line -> line.roomIds().stream())
+                .map(UUID::toString)
+                .collect(Collectors.toSet());
+        Map<String, Room> roomsById = roomRepository.findAllWithTypeByIdIn(roomIds).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
+        LocalDate from = lines.stream().map(ReservationRequest::checkIn).min(LocalDate::compareTo).orElseThrow();
+        LocalDate to = lines.stream().map(ReservationRequest::checkOut).max(LocalDate::compareTo).orElseThrow();
+        Map<String, List<Stay>> stays = new HashMap<>();
+        reservationRoomRepository.findActiveStaysOfRoomsOverlapping(roomIds, from, to)
+                .forEach(stay -> stays.computeIfAbsent(stay.getRoomId(), id -> new ArrayList<>())
+                        .add(new Stay(stay.getCheckIn(), stay.getCheckOut())));
+        // Rooms held by guests still paying count as taken; bulk lines do not convert holds
+        roomHoldService.findHeldNights(roomIds, from, to, null)
+                .forEach((roomId, nights) -> nights.forEach(night -> stays
+                        .computeIfAbsent(roomId, id -> new ArrayList<>())
+                        .add(new Stay(night, night.plusDays(1)))));
+
+        LineResult[] results = new LineResult[lines.size()];
+        Map<Integer, Reservation> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                accepted.put(i, newBulkReservation(lines.get(i), guests, roomsById, stays));
+            } catch (AppError e) {
+                results[i] = new LineResult(i, false, null, null, e.getErrorCode(), e.getMessage(), e.getDetails());
+            }
+        }
+
+        // New UUID keys are assigned in memory, so the inserts go out in JDBC batches at flush
+        reservationRepository.saveAll(accepted.values());
+
+        Map<List<LocalDate>, List<Room>> soldByStay = new HashMap<>();
+        accepted.forEach((line, reservation) -> {
+            List<Room> rooms = roomsOf(reservation);
+            if (isBlocking(reservation.getStatus())) {
+                soldByStay.computeIfAbsent(List.of(reservation.getCheckIn(), reservation.getCheckOut()),
+                        stay -> new ArrayList<>()).addAll(rooms);
+                occupyAfterCommit(roomIdsOf(rooms), reservation.getCheckIn(), reservation.getCheckOut());
+            }
+            emailService.sendReservationConfirmation(reservation.getGuest().getEmail(),
+                    reservation.getGuest().getFullName(), reservation.getId(), reservation.getCheckIn(),
+                    reservation.getCheckOut(), roomNumbersOf(rooms), reservation.getTotalAmount());
+            results[line] = new LineResult(line, true, reservation.getId(), reservation.getTotalAmount(), null,
+                    null, null);
+        });
+        // One inventory update per room type and stay, not per line
+        soldByStay.forEach((stay, rooms) -> inventoryService.reserve(rooms, stay.get(0), stay.get(1)));
+
+        log.info("Bulk reservation created {} of {} reservations", accepted.size(), lines.size());
+        return new BulkReservationResponse(accepted.size(), lines.size() - accepted.size(), List.of(results));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ReservationResponse getReservationById(UUID id) {
         log.debug("Fetching reservation with ID: {}", id);
-        Reservation reservation = findReservationById(id);
+        Reservation reservation = reservationRepository.findWithDetailsById(id)
+                .orElseThrow(() -> ErrorDefinition.RESERVATION_NOT_FOUND.toAppError()
+                        .withDetail("reservationId", id));
         return reservationMapper.toResponse(reservation);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ReservationResponse> getAllReservations() {
-        log.debug("Fetching all reservations");
-        return reservationRepository.findAll().stream()
+    public ReservationPageResponse searchReservations(ReservationFilter filter, String cursor, int limit) {
+        log.debug("Searching reservations with filter {} after cursor {}", filter, cursor);
+        if (filter.from() != null && filter.to() != null && !filter.to().isAfter(filter.from())) {
+            throw ErrorDefinition.INVALID_DATE_RANGE.toAppError()
+                    .withDetail("from", filter.from())
+                    .withDetail("to", filter.to());
+        }
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+
+        // Filter on guest_id rather than joining guests, so the per-guest keyset index is used
+        String guestId = null;
+        if (filter.keycloakUserId() != null) {
+            Optional<Guest> guest = guestRepository.findByKeycloakUserId(filter.keycloakUserId());
+            if (guest.isEmpty()) {
+                return new ReservationPageResponse(List.of(), null);
+            }
+            guestId = guest.get().getId();
+        }
+
+        Specification<Reservation> spec = ReservationSpecifications.matching(filter, guestId);
+        if (cursor != null && !cursor.isBlank()) {
+            ReservationCursor after = ReservationCursor.decode(cursor);
+            spec = spec.and(ReservationSpecifications.after(after.createdAt(), after.id()));
+        }
+
+        // Keyset probe on the reservations table only; one extra row tells whether a next page exists
+        List<Reservation> rows = reservationRepository.findBy(spec, query -> query
+                .sortBy(ReservationSpecifications.KEYSET_ORDER)
+                .limit(pageSize + 1)
+                .all());
+        boolean hasMore = rows.size() > pageSize;
+        List<Reservation> page = hasMore ? rows.subList(0, pageSize) : rows;
+        if (page.isEmpty()) {
+            return new ReservationPageResponse(List.of(), null);
+        }
+
+        // Then guests and rooms for just this page, without paginating a collection fetch.
+        // Rows deleted in between are left out; the cursor still comes from the probe.
+        Map<UUID, Reservation> details = reservationRepository
+                .findAllWithDetailsByIdIn(page.stream().map(Reservation::getId).toList()).stream()
+                .collect(Collectors.toMap(Reservation::getId, Function.identity()));
+        List<ReservationResponse> items = page.stream()
+                .map(reservation -> details.get(reservation.getId()))
+                .filter(Objects::nonNull)
                 .map(reservationMapper::toResponse)
                 .toList();
+
+        String nextCursor = hasMore ? ReservationCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new ReservationPageResponse(items, nextCursor);
     }
 
     @Override
@@ -110,14 +273,25 @@ public class ReservationServiceImpl implements IReservationService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ReservationResponse> getReservationsByStatus(UUID statusId) {
-        // Note: This implementation assumes statusId maps to ReservationStatus enum
-        // Adjust if using database lookup table for statuses
-        log.debug("Fetching reservations by status");
-        return reservationRepository.findAll().stream()
-                .filter(r -> r.getStatus() != null)
-                .map(reservationMapper::toResponse)
-                .toList();
+    public ReservationPageResponse getReservationsByStatus(ReservationStatus status, String cursor, int limit) {
+        log.debug("Fetching reservations with status {}", status);
+        return searchReservations(new ReservationFilter(status, null, null, null, null), cursor, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationStatusSummaryResponse getStatusSummary() {
+        log.debug("Counting reservations by status");
+        Map<ReservationStatus, Long> counts = new EnumMap<>(ReservationStatus.class);
+        for (ReservationStatus status : ReservationStatus.values()) {
+            counts.put(status, 0L);
+        }
+        long total = 0;
+        for (ReservationRepository.StatusCount row : reservationRepository.countByStatus()) {
+            counts.put(row.getStatus(), row.getCount());
+            total += row.getCount();
+        }
+        return new ReservationStatusSummaryResponse(counts, total);
     }
 
     @Override
@@ -130,10 +304,11 @@ public class ReservationServiceImpl implements IReservationService {
     }
 
     @Override
-    public ReservationResponse updateReservation(UUID id, ReservationRequest request) {
+    public ReservationResponse updateReservation(UUID id, ReservationRequest request, Long expectedVersion) {
         log.debug("Updating reservation with ID: {}", id);
 
         Reservation reservation = findReservationById(id);
+        checkVersion(reservation, expectedVersion);
 
         // Cannot modify cancelled or checked out reservations
         if (reservation.getStatus() == ReservationStatus.CANCELLED ||
@@ -149,7 +324,11 @@ public class ReservationServiceImpl implements IReservationService {
         }
 
         // Validate room availability (excluding current reservation)
-        List<Room> rooms = validateAndGetRooms(request.roomIds(), request.checkIn(), request.checkOut(), id);
+        List<Room> rooms = validateAndGetRooms(request.roomIds(), request.checkIn(), request.checkOut(), id, null);
+
+        List<Room> previousRooms = roomsOf(reservation);
+        LocalDate previousCheckIn = reservation.getCheckIn();
+        LocalDate previousCheckOut = reservation.getCheckOut();
 
         // Update reservation details
         reservation.setCheckIn(request.checkIn());
@@ -172,6 +351,14 @@ public class ReservationServiceImpl implements IReservationService {
         }
 
         Reservation updatedReservation = reservationRepository.save(reservation);
+
+        inventoryService.release(previousRooms, previousCheckIn, previousCheckOut);
+        releaseAfterCommit(roomIdsOf(previousRooms), previousCheckIn, previousCheckOut);
+        if (isBlocking(updatedReservation.getStatus())) {
+            inventoryService.reserve(rooms, updatedReservation.getCheckIn(), updatedReservation.getCheckOut());
+            occupyAfterCommit(roomIdsOf(rooms), updatedReservation.getCheckIn(), updatedReservation.getCheckOut());
+        }
+
         log.info("Reservation updated successfully with ID: {}", updatedReservation.getId());
         return reservationMapper.toResponse(updatedReservation);
     }
@@ -186,10 +373,11 @@ public class ReservationServiceImpl implements IReservationService {
     }
 
     @Override
-    public ReservationResponse addRoomToReservation(UUID reservationId, UUID roomId) {
+    public ReservationResponse addRoomToReservation(UUID reservationId, UUID roomId, Long expectedVersion) {
         log.debug("Adding room {} to reservation {}", roomId, reservationId);
 
         Reservation reservation = findReservationById(reservationId);
+        checkVersion(reservation, expectedVersion);
 
         // Cannot modify cancelled or checked out reservations
         if (reservation.getStatus() == ReservationStatus.CANCELLED ||
@@ -207,6 +395,11 @@ public class ReservationServiceImpl implements IReservationService {
             throw ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError()
                     .withDetail("roomId", roomId);
         }
+        if (!roomHoldService.findHeldRoomIds(List.of(room.getId()), reservation.getCheckIn(),
+                reservation.getCheckOut(), null).isEmpty()) {
+            throw ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError()
+                    .withDetail("roomId", roomId);
+        }
 
         ReservationRoom reservationRoom = ReservationRoom.builder()
                 .reservation(reservation)
@@ -220,14 +413,20 @@ public class ReservationServiceImpl implements IReservationService {
                 .toList();
         reservation.setTotalAmount(calculateTotalAmount(allRooms, reservation.getCheckIn(), reservation.getCheckOut()));
 
-        return reservationMapper.toResponse(reservationRepository.save(reservation));
+        Reservation updatedReservation = reservationRepository.save(reservation);
+        if (isBlocking(updatedReservation.getStatus())) {
+            inventoryService.reserve(List.of(room), reservation.getCheckIn(), reservation.getCheckOut());
+            occupyAfterCommit(List.of(room.getId()), reservation.getCheckIn(), reservation.getCheckOut());
+        }
+        return reservationMapper.toResponse(updatedReservation);
     }
 
     @Override
-    public void removeRoomFromReservation(UUID reservationId, UUID roomId) {
+    public void removeRoomFromReservation(UUID reservationId, UUID roomId, Long expectedVersion) {
         log.debug("Removing room {} from reservation {}", roomId, reservationId);
 
         Reservation reservation = findReservationById(reservationId);
+        checkVersion(reservation, expectedVersion);
 
         // Cannot modify cancelled or checked out reservations
         if (reservation.getStatus() == ReservationStatus.CANCELLED ||
@@ -235,6 +434,9 @@ public class ReservationServiceImpl implements IReservationService {
             throw ErrorDefinition.RESERVATION_CANNOT_MODIFY.toAppError();
         }
 
+        List<Room> removedRooms = roomsOf(reservation).stream()
+                .filter(room -> room.getId().equals(roomId.toString()))
+                .toList();
         reservation.getReservationRooms().removeIf(rr -> rr.getRoom().getId().equals(roomId.toString()));
 
         // Recalculate total
@@ -245,6 +447,8 @@ public class ReservationServiceImpl implements IReservationService {
                 calculateTotalAmount(remainingRooms, reservation.getCheckIn(), reservation.getCheckOut()));
 
         reservationRepository.save(reservation);
+        inventoryService.release(removedRooms, reservation.getCheckIn(), reservation.getCheckOut());
+        releaseAfterCommit(List.of(roomId.toString()), reservation.getCheckIn(), reservation.getCheckOut());
     }
 
     @Override
@@ -273,6 +477,12 @@ public class ReservationServiceImpl implements IReservationService {
         if (reservation.getStatus() == ReservationStatus.CHECKED_IN) {
             throw ErrorDefinition.RESERVATION_ALREADY_CHECKED_IN.toAppError();
         }
+        // A checked-out stay has already released its rooms; only PENDING or CONFIRMED can check in
+        if (reservation.getStatus() != ReservationStatus.PENDING &&
+                reservation.getStatus() != ReservationStatus.CONFIRMED) {
+            throw ErrorDefinition.RESERVATION_CANNOT_MODIFY.toAppError()
+                    .withDetail("status", reservation.getStatus());
+        }
 
         reservation.setStatus(ReservationStatus.CHECKED_IN);
         Reservation updatedReservation = reservationRepository.save(reservation);
@@ -294,6 +504,8 @@ public class ReservationServiceImpl implements IReservationService {
 
         reservation.setStatus(ReservationStatus.CHECKED_OUT);
         Reservation updatedReservation = reservationRepository.save(reservation);
+        inventoryService.release(roomsOf(reservation), reservation.getCheckIn(), reservation.getCheckOut());
+        releaseAfterCommit(roomIdsOf(reservation), reservation.getCheckIn(), reservation.getCheckOut());
 
         log.info("Reservation {} checked out successfully", id);
         return reservationMapper.toResponse(updatedReservation);
@@ -316,6 +528,13 @@ public class ReservationServiceImpl implements IReservationService {
 
         reservation.setStatus(ReservationStatus.CANCELLED);
         Reservation updatedReservation = reservationRepository.save(reservation);
+        inventoryService.release(roomsOf(reservation), reservation.getCheckIn(), reservation.getCheckOut());
+        releaseAfterCommit(roomIdsOf(reservation), reservation.getCheckIn(), reservation.getCheckOut());
+
+        Guest guest = reservation.getGuest();
+        emailService.sendReservationCancellation(guest.getEmail(), guest.getFullName(), id,
+                reservation.getCheckIn(), reservation.getCheckOut(), roomNumbersOf(roomsOf(reservation)),
+                reservation.getTotalAmount());
 
         log.info("Reservation {} cancelled successfully", id);
         return reservationMapper.toResponse(updatedReservation);
@@ -345,6 +564,17 @@ public class ReservationServiceImpl implements IReservationService {
                         .withDetail("reservationId", id));
     }
 
+    /**
+     * Reject an edit made against an older version than the one loaded. It
+     * fails like a stale @Version write, so ReservationConflictExecutor
+     * answers 409 with the current reservation.
+     */
+    private void checkVersion(Reservation reservation, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(reservation.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Reservation.class, reservation.getId());
+        }
+    }
+
     private void validateDateRange(LocalDate checkIn, LocalDate checkOut) {
         if (checkIn.isBefore(LocalDate.now())) {
             throw ErrorDefinition.PAST_CHECK_IN_DATE.toAppError()
@@ -357,38 +587,179 @@ public class ReservationServiceImpl implements IReservationService {
         }
     }
 
+    /**
+     * Load the requested rooms with their types and check them for conflicts,
+     * two statements in total however many rooms are booked. Errors list every
+     * missing or unavailable room at once. Rooms held by anyone but
+     * {@code holdId} are unavailable too.
+     */
     private List<Room> validateAndGetRooms(List<UUID> roomIds, LocalDate checkIn, LocalDate checkOut,
-            UUID excludeReservationId) {
-        List<Room> rooms = new ArrayList<>();
+            UUID excludeReservationId, UUID holdId) {
+        if (roomIds.isEmpty()) {
+            return List.of();
+        }
 
-        for (UUID roomId : roomIds) {
-            Room room = roomRepository.findById(roomId.toString())
-                    .orElseThrow(() -> ErrorDefinition.ROOM_NOT_FOUND.toAppError()
-                            .withDetail("roomId", roomId));
-
-            // Check availability
-            boolean hasConflict;
-            if (excludeReservationId != null) {
-                hasConflict = reservationRoomRepository.hasConflictingReservationExcluding(
-                        room.getId(), checkIn, checkOut, excludeReservationId);
-            } else {
-                hasConflict = reservationRoomRepository.hasConflictingReservation(
-                        room.getId(), checkIn, checkOut);
-            }
+        Set<String> ids = roomIds.stream()
+                .map(UUID::toString)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Room> roomsById = roomRepository.findAllWithTypeByIdIn(ids).stream()
+                .collect(Collectors.toMap(Room::getId, Function.identity()));
 
-            if (hasConflict) {
-                throw ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError()
-                        .withDetail("roomId", roomId)
-                        .withDetail("roomNumber", room.getRoomNumber());
-            }
+        List<String> missing = ids.stream().filter(id -> !roomsById.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw ErrorDefinition.ROOM_NOT_FOUND.toAppError()
+                    .withDetail("roomIds", missing);
+        }
+
+        // Early, descriptive check; concurrent bookings that slip past it are
+        // rejected at commit by the reservation_rooms_no_overlap constraint
+        List<String> unavailable = excludeReservationId != null
+                ? reservationRoomRepository.findConflictingRoomNumbersExcluding(ids, checkIn, checkOut,
+                        excludeReservationId)
+                : reservationRoomRepository.findConflictingRoomNumbers(ids, checkIn, checkOut);
+        if (!unavailable.isEmpty()) {
+            throw ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError()
+                    .withDetail("roomNumbers", unavailable);
+        }
 
-            rooms.add(room);
+        Set<String> held = roomHoldService.findHeldRoomIds(ids, checkIn, checkOut, holdId);
+        if (!held.isEmpty()) {
+            throw ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError()
+                    .withDetail("roomNumbers", held.stream().map(id -> roomsById.get(id).getRoomNumber())
+                            .sorted().toList());
         }
 
+        List<Room> rooms = new ArrayList<>(roomIds.size());
+        for (UUID roomId : roomIds) {
+            rooms.add(roomsById.get(roomId.toString()));
+        }
         return rooms;
     }
 
-    private BigDecimal calculateTotalAmount(List<Room> rooms, LocalDate checkIn, LocalDate checkOut) {
+    private void verifyHold(ReservationRequest request, String principal) {
+        RoomHoldResponse hold = roomHoldService.findHold(request.holdId())
+                .orElseThrow(() -> ErrorDefinition.HOLD_NOT_FOUND.toAppError()
+                        .withDetail("holdId", request.holdId()));
+        // Owner resolved from the authenticated user, as when the hold was taken, not from the body
+        UUID owner = roomHoldService.resolveOwner(principal);
+        List<String> requestedRoomIds = request.roomIds().stream().map(UUID::toString).toList();
+        if (!hold.keycloakUserId().equals(owner)
+                || !hold.keycloakUserId().equals(request.keycloakUserId())
+                || !hold.checkIn().equals(request.checkIn())
+                || !hold.checkOut().equals(request.checkOut())
+                || !hold.roomIds().containsAll(requestedRoomIds)) {
+            throw ErrorDefinition.HOLD_MISMATCH.toAppError()
+                    .withDetail("holdId", request.holdId());
+        }
+    }
+
+    /**
+     * Validate one bulk line against the preloaded guests, rooms and stays and
+     * build its reservation. Its stays are recorded so later lines cannot
+     * double-book the same rooms.
+     *
+     * @throws AppError if the line is invalid or a room is taken
+     */
+    private Reservation newBulkReservation(ReservationRequest line, Map<UUID, Guest> guests,
+            Map<String, Room> roomsById, Map<String, List<Stay>> stays) {
+        validateDateRange(line.checkIn(), line.checkOut());
+
+        Guest guest = guests.get(line.keycloakUserId());
+        if (guest == null) {
+            throw ErrorDefinition.GUEST_NOT_FOUND.toAppError()
+                    .withDetail("keycloakUserId", line.keycloakUserId());
+        }
+
+        Set<String> ids = line.roomIds().stream()
+                .map(UUID::toString)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<String> missing = ids.stream().filter(id -> !roomsById.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw ErrorDefinition.ROOM_NOT_FOUND.toAppError()
+                    .withDetail("roomIds", missing);
+        }
+
+        List<Room> rooms = ids.stream().map(roomsById::get).toList();
+        List<String> unavailable = rooms.stream()
+                .filter(room -> stays.getOrDefault(room.getId(), List.of()).stream()
+                        .anyMatch(stay -> stay.overlaps(line.checkIn(), line.checkOut())))
+                .map(Room::getRoomNumber)
+                .sorted()
+                .toList();
+        if (!unavailable.isEmpty()) {
+            throw ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError()
+                    .withDetail("roomNumbers", unavailable);
+        }
+
+        ReservationStatus status = line.status() != null ? line.status() : ReservationStatus.PENDING;
+        if (isBlocking(status)) {
+            rooms.forEach(room -> stays.computeIfAbsent(room.getId(), id -> new ArrayList<>())
+                    .add(new Stay(line.checkIn(), line.checkOut())));
+        }
+
+        Reservation reservation = Reservation.builder()
+                .guest(guest)
+                .checkIn(line.checkIn())
+                .checkOut(line.checkOut())
+                .status(status)
+                .totalAmount(calculateTotalAmount(rooms, line.checkIn(), line.checkOut()))
+                .reservationRooms(new ArrayList<>())
+                .build();
+        for (Room room : rooms) {
+            reservation.getReservationRooms().add(ReservationRoom.builder()
+                    .reservation(reservation)
+                    .room(room)
+                    .build());
+        }
+        return reservation;
+    }
+
+    /**
+     * Half-open stay [checkIn, checkOut), as in the reservation_rooms_no_overlap
+     * constraint.
+     */
+    private record Stay(LocalDate checkIn, LocalDate checkOut) {
+
+        boolean overlaps(LocalDate otherCheckIn, LocalDate otherCheckOut) {
+            return checkIn.isBefore(otherCheckOut) && checkOut.isAfter(otherCheckIn);
+        }
+    }
+
+    private boolean isBlocking(ReservationStatus status) {
+        return status != ReservationStatus.CANCELLED && status != ReservationStatus.CHECKED_OUT;
+    }
+
+    private List<String> roomIdsOf(List<Room> rooms) {
+        return rooms.stream().map(Room::getId).toList();
+    }
+
+    private List<String> roomNumbersOf(List<Room> rooms) {
+        return rooms.stream().map(Room::getRoomNumber).toList();
+    }
+
+    private List<String> roomIdsOf(Reservation reservation) {
+        return roomIdsOf(roomsOf(reservation));
+    }
+
+    private List<Room> roomsOf(Reservation reservation) {
+        return reservation.getReservationRooms().stream()
+                .map(ReservationRoom::getRoom)
+                .toList();
+    }
+
+    /**
+     * Apply occupancy changes only once the surrounding transaction commits, so
+     * the in-memory index never reflects a rolled-back booking.
+     */
+    private void occupyAfterCommit(List<String> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        TransactionHooks.afterCommit(() -> occupancyIndex.occupy(roomIds, checkIn, checkOut));
+    }
+
+    private void releaseAfterCommit(List<String> roomIds, LocalDate checkIn, LocalDate checkOut) {
+        TransactionHooks.afterCommit(() -> occupancyIndex.release(roomIds, checkIn, checkOut));
+    }
+
+    static BigDecimal calculateTotalAmount(List<Room> rooms, LocalDate checkIn, LocalDate checkOut) {
         long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
         if (nights < 1)
             nights = 1;
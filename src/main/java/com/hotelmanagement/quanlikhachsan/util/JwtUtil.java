@@ -1,5 +1,8 @@
 package com.hotelmanagement.quanlikhachsan.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -8,9 +11,14 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 @Slf4j
@@ -22,9 +30,40 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize = 10_000;
+
+    // Key, parser and claims cache are built once, on first use
+    private volatile Verifier verifier;
+
+    /**
+     * Immutable signing key and parser plus verified claims keyed by the
+     * SHA-256 of the token, each entry expiring at the token's exp.
+     */
+    private record Verifier(SecretKey signingKey, JwtParser parser, Cache<String, Claims> verifiedClaims) {
+    }
+
+    private Verifier verifier() {
+        Verifier current = verifier;
+        if (current == null) {
+            synchronized (this) {
+                current = verifier;
+                if (current == null) {
+                    SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+                    Cache<String, Claims> cache = Caffeine.newBuilder()
+                            .maximumSize(claimsCacheMaxSize)
+                            .expireAfter(Expiry.creating((String tokenHash, Claims claims) -> timeToExpiry(claims)))
+                            .build();
+                    current = new Verifier(key, Jwts.parser().verifyWith(key).build(), cache);
+                    verifier = current;
+                }
+            }
+        }
+        return current;
+    }
+
     private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return verifier().signingKey();
     }
 
     public String generateToken(String userId, String email, String fullName, String role) {
@@ -43,12 +82,42 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verify the signature and expiry of a token and return its claims. A token
+     * seen before is answered from the verified-claims cache without any crypto.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Verifier current = verifier();
+        if (token == null || token.isBlank()) {
+            // Let the parser reject it with its usual IllegalArgumentException
+            return current.parser().parseSignedClaims(token).getPayload();
+        }
+
+        String tokenHash = hash(token);
+        Claims cached = current.verifiedClaims().getIfPresent(tokenHash);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+
+        Claims claims = current.parser().parseSignedClaims(token).getPayload();
+        current.verifiedClaims().put(tokenHash, claims);
+        return claims;
+    }
+
+    /**
+     * Single verify-and-parse entry point for request authentication.
+     *
+     * @return the verified claims, or empty if the token is invalid or expired
+     */
+    public Optional<Claims> parseVerifiedClaims(String token) {
+        try {
+            return Optional.of(extractAllClaims(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
     public String extractUserId(String token) {
@@ -69,10 +138,7 @@ public class JwtUtil {
 
     public boolean isTokenValid(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            extractAllClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
@@ -82,8 +148,7 @@ public class JwtUtil {
 
     public boolean isTokenExpired(String token) {
         try {
-            Date expiration = extractAllClaims(token).getExpiration();
-            return expiration.before(new Date());
+            return isExpired(extractAllClaims(token));
         } catch (JwtException e) {
             return true;
         }
@@ -92,4 +157,24 @@ public class JwtUtil {
     public Long getExpirationTime() {
         return expiration / 1000; // Convert to seconds
     }
+
+    private boolean isExpired(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp != null && exp.before(new Date());
+    }
+
+    private Duration timeToExpiry(Claims claims) {
+        Date exp = claims.getExpiration();
+        long millis = exp != null ? exp.getTime() - System.currentTimeMillis() : expiration;
+        return Duration.ofMillis(Math.max(0, millis));
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
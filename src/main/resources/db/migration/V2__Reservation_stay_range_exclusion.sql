@@ -0,0 +1,88 @@
+-- Reservation Stay Range + Exclusion Constraint
+-- Version: V2
+-- Description: Prevent double-booking in the database with a daterange
+--              exclusion constraint instead of check-then-insert
+--
+-- Stays are half-open '[check_in, check_out)': a guest checking out on a day
+-- does not block another guest checking in on that same day.
+--
+-- Rollback:
+--   ALTER TABLE reservation_rooms DROP CONSTRAINT IF EXISTS reservation_rooms_no_overlap;
+--   DROP TRIGGER IF EXISTS trg_reservations_sync_stay ON reservations;
+--   DROP TRIGGER IF EXISTS trg_reservation_rooms_fill_stay ON reservation_rooms;
+--   DROP FUNCTION IF EXISTS sync_reservation_rooms_stay();
+--   DROP FUNCTION IF EXISTS fill_reservation_room_stay();
+--   ALTER TABLE reservation_rooms DROP COLUMN IF EXISTS stay_range, DROP COLUMN IF EXISTS blocking;
+--   ALTER TABLE reservations DROP COLUMN IF EXISTS stay_range;
+
+-- btree_gist lets the exclusion constraint combine '=' on room_id with '&&' on ranges
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- ===============================
+-- Reservations
+-- ===============================
+
+ALTER TABLE reservations
+    ADD COLUMN IF NOT EXISTS stay_range DATERANGE
+        GENERATED ALWAYS AS (daterange(check_in, check_out, '[)')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_reservations_stay_range ON reservations USING gist (stay_range);
+
+-- ===============================
+-- Reservation Rooms
+-- ===============================
+
+-- An exclusion constraint can only look at one table, so the stay range and
+-- whether the parent reservation still holds the room are copied down from
+-- reservations and kept in sync by triggers.
+ALTER TABLE reservation_rooms
+    ADD COLUMN IF NOT EXISTS stay_range DATERANGE,
+    ADD COLUMN IF NOT EXISTS blocking BOOLEAN NOT NULL DEFAULT TRUE;
+
+UPDATE reservation_rooms rr
+SET stay_range = r.stay_range,
+    blocking = r.status NOT IN ('CANCELLED', 'CHECKED_OUT')
+FROM reservations r
+WHERE r.id = rr.reservation_id;
+
+ALTER TABLE reservation_rooms ALTER COLUMN stay_range SET NOT NULL;
+
+CREATE OR REPLACE FUNCTION fill_reservation_room_stay() RETURNS TRIGGER AS $$
+BEGIN
+    SELECT r.stay_range, r.status NOT IN ('CANCELLED', 'CHECKED_OUT')
+    INTO NEW.stay_range, NEW.blocking
+    FROM reservations r
+    WHERE r.id = NEW.reservation_id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_reservation_rooms_fill_stay
+    BEFORE INSERT OR UPDATE OF reservation_id ON reservation_rooms
+    FOR EACH ROW EXECUTE FUNCTION fill_reservation_room_stay();
+
+CREATE OR REPLACE FUNCTION sync_reservation_rooms_stay() RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE reservation_rooms
+    SET stay_range = NEW.stay_range,
+        blocking = NEW.status NOT IN ('CANCELLED', 'CHECKED_OUT')
+    WHERE reservation_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_reservations_sync_stay
+    AFTER UPDATE OF check_in, check_out, status ON reservations
+    FOR EACH ROW
+    WHEN (OLD.check_in IS DISTINCT FROM NEW.check_in
+        OR OLD.check_out IS DISTINCT FROM NEW.check_out
+        OR OLD.status IS DISTINCT FROM NEW.status)
+    EXECUTE FUNCTION sync_reservation_rooms_stay();
+
+-- Deferred to commit: Hibernate flushes reservation_rooms inserts before the
+-- reservation date update, so rows briefly carry the old range mid-transaction.
+ALTER TABLE reservation_rooms
+    ADD CONSTRAINT reservation_rooms_no_overlap
+        EXCLUDE USING gist (room_id WITH =, stay_range WITH &&)
+        WHERE (blocking)
+        DEFERRABLE INITIALLY DEFERRED;
@@ -0,0 +1,34 @@
+-- Room Type Inventory (ARI grid)
+-- Version: V3
+-- Description: Per-room-type daily inventory so searches by type and dates
+--              are a single primary-key range scan instead of a room scan
+--
+-- total = rooms of the type, sold = rooms of the type booked for that night.
+-- Maintained incrementally by ReservationServiceImpl/RoomServiceImpl and
+-- rebuilt nightly from reservation_rooms by RoomTypeInventoryService.reconcile.
+--
+-- Rollback:
+--   DROP TABLE IF EXISTS room_type_inventory;
+
+CREATE TABLE IF NOT EXISTS room_type_inventory (
+    room_type_id VARCHAR(36) NOT NULL REFERENCES room_types(id) ON DELETE CASCADE,
+    stay_date DATE NOT NULL,
+    total INTEGER NOT NULL DEFAULT 0,
+    sold INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (room_type_id, stay_date),
+    CONSTRAINT room_type_inventory_non_negative CHECK (total >= 0 AND sold >= 0)
+);
+
+-- Initial fill for the next year; the application keeps the horizon rolling
+INSERT INTO room_type_inventory (room_type_id, stay_date, total, sold)
+SELECT t.id,
+       CAST(d AS date),
+       (SELECT COUNT(*) FROM rooms r WHERE r.room_type_id = t.id),
+       (SELECT COUNT(*) FROM reservation_rooms rr
+        JOIN rooms r ON r.id = rr.room_id
+        WHERE r.room_type_id = t.id
+        AND rr.blocking
+        AND rr.stay_range @> CAST(d AS date))
+FROM room_types t
+CROSS JOIN generate_series(CURRENT_DATE, CURRENT_DATE + 364, interval '1 day') d
+ON CONFLICT (room_type_id, stay_date) DO NOTHING;
@@ -0,0 +1,18 @@
+-- Reservation Keyset Pagination Indexes
+-- Version: V4
+-- Description: Index reservations on (created_at, id) so listing pages are
+--              an index range scan from the cursor, whatever the page number
+--
+-- Rollback:
+--   DROP INDEX IF EXISTS idx_reservations_guest_created_at_id;
+--   DROP INDEX IF EXISTS idx_reservations_created_at_id;
+--   ALTER TABLE reservations ALTER COLUMN created_at DROP NOT NULL;
+
+-- The cursor compares created_at, so it must always be set
+UPDATE reservations SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP) WHERE created_at IS NULL;
+ALTER TABLE reservations ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_reservations_created_at_id ON reservations (created_at DESC, id DESC);
+
+-- Per-guest history pages
+CREATE INDEX IF NOT EXISTS idx_reservations_guest_created_at_id ON reservations (guest_id, created_at DESC, id DESC);
@@ -0,0 +1,14 @@
+-- Reservation Status Listing Index
+-- Version: V5
+-- Description: Replace the single-column status index with one that also
+--              serves status-filtered keyset pages and per-status counts
+--
+-- Rollback:
+--   CREATE INDEX IF NOT EXISTS idx_reservations_status ON reservations(status);
+--   DROP INDEX IF EXISTS idx_reservations_status_created_at_id;
+
+CREATE INDEX IF NOT EXISTS idx_reservations_status_created_at_id
+    ON reservations (status, created_at DESC, id DESC);
+
+-- Leading column of the new index covers every lookup the old one served
+DROP INDEX IF EXISTS idx_reservations_status;
@@ -0,0 +1,35 @@
+-- Outbound Email Queue
+-- Version: V6
+-- Description: Durable queue of outbound emails. Requests only insert a row;
+--              EmailDispatcher claims due rows with FOR UPDATE SKIP LOCKED and
+--              delivers them on a bounded worker pool with retry and backoff.
+--
+-- PENDING -> SENDING -> SENT, or back to PENDING with a later next_attempt_at,
+-- or DEAD once max attempts are used up. SENDING rows whose claim is older
+-- than the claim timeout are picked up again (worker crash).
+--
+-- Rollback:
+--   DROP TABLE IF EXISTS email_outbox;
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id UUID PRIMARY KEY,
+    type VARCHAR(32) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL DEFAULT '{}'::jsonb,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claimed_at TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP,
+    CONSTRAINT email_outbox_status_check CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'DEAD'))
+);
+
+-- Claim scan: only rows that can still be delivered
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due
+    ON email_outbox (next_attempt_at)
+    WHERE status IN ('PENDING', 'SENDING');
+
+-- Queue depth gauges and retention purge
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status ON email_outbox (status);
@@ -0,0 +1,12 @@
+-- Optimistic Locking Versions
+-- Version: V7
+-- Description: Version columns for JPA @Version on reservations and rooms, so
+--              concurrent updates fail instead of overwriting each other
+--
+-- Rollback:
+--   ALTER TABLE rooms DROP COLUMN IF EXISTS version;
+--   ALTER TABLE reservations DROP COLUMN IF EXISTS version;
+
+-- Existing rows start at 0; constant defaults do not rewrite the tables
+ALTER TABLE reservations ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
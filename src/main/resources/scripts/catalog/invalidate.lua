@@ -0,0 +1,13 @@
+-- Drop catalog entries and bump the catalog generation, so loads that read
+-- the database before this ran cannot write their stale result back.
+--
+-- KEYS[1]      catalog generation
+-- KEYS[2..n]   catalog entries to delete
+--
+-- Returns the new generation.
+
+local generation = redis.call('INCR', KEYS[1])
+if #KEYS > 1 then
+    redis.call('DEL', unpack(KEYS, 2))
+end
+return generation
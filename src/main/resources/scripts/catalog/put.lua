@@ -0,0 +1,16 @@
+-- Write a catalog entry back to Redis unless the catalog was invalidated
+-- after the entry was read from the database.
+--
+-- KEYS[1]   catalog entry
+-- KEYS[2]   catalog generation, bumped by invalidate.lua
+-- ARGV[1]   generation read before the entry was loaded, empty if unset
+-- ARGV[2]   entry JSON
+-- ARGV[3]   TTL (millis)
+--
+-- Returns 1 if the entry was written, 0 if an invalidation ran in between.
+
+if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+return 1
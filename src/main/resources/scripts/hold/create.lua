@@ -0,0 +1,42 @@
+-- Hold every night of every room, or none of them.
+--
+-- KEYS[1]        hold hash, fields: owner, rooms (comma separated), checkIn,
+--                checkOut, expiresAt (epoch millis)
+-- KEYS[2]        owner's open holds, sorted set of hold ids scored by expiresAt
+-- KEYS[3..n]     one key per room and night, value: id of the holding hold
+-- ARGV[1]        hold id
+-- ARGV[2]        TTL (millis)
+-- ARGV[3..7]     owner, rooms, checkIn, checkOut, expiresAt
+-- ARGV[8]        now (epoch millis)
+-- ARGV[9]        most open holds per owner
+--
+-- Returns {} when held, {-1} when the owner already has the most open holds,
+-- otherwise the positions (1-based, among the night keys) of every night
+-- already held by another hold.
+
+redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[8])
+if redis.call('ZCARD', KEYS[2]) >= tonumber(ARGV[9]) then
+    return {-1}
+end
+
+local taken = {}
+for i = 3, #KEYS do
+    local holder = redis.call('GET', KEYS[i])
+    if holder and holder ~= ARGV[1] then
+        taken[#taken + 1] = i - 2
+    end
+end
+if #taken > 0 then
+    return taken
+end
+
+for i = 3, #KEYS do
+    redis.call('SET', KEYS[i], ARGV[1], 'PX', ARGV[2])
+end
+redis.call('HSET', KEYS[1], 'owner', ARGV[3], 'rooms', ARGV[4], 'checkIn', ARGV[5], 'checkOut', ARGV[6],
+    'expiresAt', ARGV[7])
+redis.call('PEXPIRE', KEYS[1], ARGV[2])
+-- The newest hold expires last, so the set lives exactly as long as its members
+redis.call('ZADD', KEYS[2], ARGV[7], ARGV[1])
+redis.call('PEXPIRE', KEYS[2], ARGV[2])
+return {}
@@ -0,0 +1,19 @@
+-- Release a hold; nights since taken over by another hold are left alone.
+--
+-- KEYS[1]        hold hash, see create.lua
+-- KEYS[2]        owner's open holds, see create.lua
+-- KEYS[3..n]     the hold's night keys
+-- ARGV[1]        hold id
+--
+-- Returns the number of nights released.
+
+local released = 0
+for i = 3, #KEYS do
+    if redis.call('GET', KEYS[i]) == ARGV[1] then
+        redis.call('DEL', KEYS[i])
+        released = released + 1
+    end
+end
+redis.call('DEL', KEYS[1])
+redis.call('ZREM', KEYS[2], ARGV[1])
+return released
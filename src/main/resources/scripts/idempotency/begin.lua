@@ -0,0 +1,18 @@
+-- Claim an idempotency key, or read what is stored under it.
+--
+-- KEYS[1]   record hash, fields: fp request fingerprint, owner token of the
+--           claiming request, then once the request has finished: status,
+--           type content type, body
+-- ARGV[1]   fingerprint of this request
+-- ARGV[2]   lock TTL (millis) while the request runs
+-- ARGV[3]   owner token of this request
+--
+-- Returns {} when this request now owns the key, otherwise
+-- {fp, status, type, body}; status is nil while the owner is still running.
+
+if redis.call('HSETNX', KEYS[1], 'fp', ARGV[1]) == 1 then
+    redis.call('HSET', KEYS[1], 'owner', ARGV[3])
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+    return {}
+end
+return redis.call('HMGET', KEYS[1], 'fp', 'status', 'type', 'body')
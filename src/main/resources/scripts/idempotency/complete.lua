@@ -0,0 +1,18 @@
+-- Store the response of a request that owns an idempotency key.
+--
+-- KEYS[1]   record hash, see begin.lua
+-- ARGV[1]   owner token of the request
+-- ARGV[2]   HTTP status
+-- ARGV[3]   content type, may be empty
+-- ARGV[4]   response body
+-- ARGV[5]   TTL (millis) of the stored response
+--
+-- Returns 0 without writing if the lock expired and another request took
+-- the key, 1 otherwise.
+
+if redis.call('HGET', KEYS[1], 'owner') ~= ARGV[1] then
+    return 0
+end
+redis.call('HSET', KEYS[1], 'status', ARGV[2], 'type', ARGV[3], 'body', ARGV[4])
+redis.call('PEXPIRE', KEYS[1], ARGV[5])
+return 1
@@ -0,0 +1,13 @@
+-- Release an idempotency key after its request failed, so a retry runs it
+-- again. The key is left alone if the lock expired and another request
+-- (possibly a retry with the same fingerprint) has claimed it since.
+--
+-- KEYS[1]   record hash, see begin.lua
+-- ARGV[1]   owner token of the request
+--
+-- Returns 1 if the key was deleted, 0 otherwise.
+
+if redis.call('HGET', KEYS[1], 'owner') ~= ARGV[1] then
+    return 0
+end
+return redis.call('DEL', KEYS[1])
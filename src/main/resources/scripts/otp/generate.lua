@@ -0,0 +1,33 @@
+-- Issue a new OTP unless the resend cooldown is active.
+--
+-- KEYS[1] otp:state:{email}  hash, fields:
+--         c code, e code expiry, a failed attempts, r resend allowed after,
+--         v verified until (times in epoch millis)
+-- ARGV[1] OTP code
+-- ARGV[2] now (epoch millis)
+-- ARGV[3] OTP lifetime in millis
+-- ARGV[4] resend cooldown in millis
+--
+-- Returns 0 when issued, otherwise the remaining cooldown in millis.
+
+local function extend(key, ttl)
+    if redis.call('PTTL', key) < ttl then
+        redis.call('PEXPIRE', key, ttl)
+    end
+end
+
+local now = tonumber(ARGV[2])
+local resendAt = tonumber(redis.call('HGET', KEYS[1], 'r') or '0')
+if resendAt > now then
+    return resendAt - now
+end
+
+local lifetime = tonumber(ARGV[3])
+redis.call('HSET', KEYS[1],
+        'c', ARGV[1],
+        'e', string.format('%d', now + lifetime),
+        'a', '0',
+        'r', string.format('%d', now + tonumber(ARGV[4])))
+-- The key lives as long as its longest-lived field
+extend(KEYS[1], math.max(lifetime, tonumber(ARGV[4])))
+return 0
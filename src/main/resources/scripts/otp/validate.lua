@@ -0,0 +1,46 @@
+-- Check an OTP and count the attempt in one step, so parallel verifies
+-- cannot both pass the attempt limit.
+--
+-- KEYS[1] otp:state:{email}  hash, see generate.lua
+-- ARGV[1] submitted OTP
+-- ARGV[2] maximum attempts
+-- ARGV[3] now (epoch millis)
+-- ARGV[4] verified marker lifetime in millis
+--
+-- Returns 0 EXPIRED, 1 VALID, 2 INVALID, 3 ATTEMPTS_EXCEEDED
+-- (the order of OTPService.ValidationResult).
+
+local function extend(key, ttl)
+    if redis.call('PTTL', key) < ttl then
+        redis.call('PEXPIRE', key, ttl)
+    end
+end
+
+local now = tonumber(ARGV[3])
+local state = redis.call('HMGET', KEYS[1], 'c', 'e', 'a')
+local code = state[1]
+local expiresAt = tonumber(state[2] or '0')
+local attempts = tonumber(state[3] or '0')
+
+if not code then
+    return 0
+end
+if expiresAt <= now then
+    redis.call('HDEL', KEYS[1], 'c', 'e', 'a')
+    return 0
+end
+if attempts >= tonumber(ARGV[2]) then
+    redis.call('HDEL', KEYS[1], 'c', 'e', 'a')
+    return 3
+end
+
+if code == ARGV[1] then
+    local lifetime = tonumber(ARGV[4])
+    redis.call('HDEL', KEYS[1], 'c', 'e', 'a')
+    redis.call('HSET', KEYS[1], 'v', string.format('%d', now + lifetime))
+    extend(KEYS[1], lifetime)
+    return 1
+end
+
+redis.call('HINCRBY', KEYS[1], 'a', 1)
+return 2
@@ -0,0 +1,34 @@
+-- Take one token from every bucket, or from none of them.
+--
+-- KEYS[i]        bucket hash, fields: t tokens left, ts last refill (epoch millis)
+-- ARGV[1]        now (epoch millis)
+-- ARGV[2i]       capacity of bucket i
+-- ARGV[2i + 1]   refill rate of bucket i in tokens per millisecond
+--
+-- Returns {0, 0} when allowed, otherwise {retry after millis, i} for the
+-- first bucket that is empty.
+
+local now = tonumber(ARGV[1])
+local tokens = {}
+
+for i, key in ipairs(KEYS) do
+    local capacity = tonumber(ARGV[2 * i])
+    local rate = tonumber(ARGV[2 * i + 1])
+    local bucket = redis.call('HMGET', key, 't', 'ts')
+    local left = tonumber(bucket[1] or capacity)
+    local last = tonumber(bucket[2] or now)
+    left = math.min(capacity, left + math.max(0, now - last) * rate)
+    if left < 1 then
+        return {math.ceil((1 - left) / rate), i}
+    end
+    tokens[i] = left
+end
+
+for i, key in ipairs(KEYS) do
+    local capacity = tonumber(ARGV[2 * i])
+    local rate = tonumber(ARGV[2 * i + 1])
+    redis.call('HSET', key, 't', tostring(tokens[i] - 1), 'ts', string.format('%d', now))
+    -- An untouched bucket is full again after capacity / rate
+    redis.call('PEXPIRE', key, math.ceil(capacity / rate))
+end
+return {0, 0}
@@ -0,0 +1,81 @@
+package com.hotelmanagement.quanlikhachsan.config;
+
+import org.apache.catalina.Valve;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.RemoteIpValve;
+import org.apache.catalina.valves.ValveBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatWebServerFactoryCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the forwarded-header settings in application.yml
+ * Rate limits key on getRemoteAddr(), which must be the client behind our
+ * proxy but must not be spoofable by clients that connect directly
+ */
+@DisplayName("Forwarded Headers Tests")
+class ForwardedHeadersTest {
+
+    private RemoteIpValve valve;
+    private final AtomicReference<String> remoteAddr = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+                .forEach(source -> environment.getPropertySources().addLast(source));
+        ServerProperties serverProperties = Binder.get(environment).bind("server", ServerProperties.class).get();
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory();
+        new TomcatWebServerFactoryCustomizer(environment, serverProperties).customize(factory);
+        valve = factory.getEngineValves().stream()
+                .filter(RemoteIpValve.class::isInstance)
+                .map(RemoteIpValve.class::cast)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("RemoteIpValve is not configured"));
+        valve.setNext(new ValveBase() {
+            @Override
+            public void invoke(Request request, Response response) {
+                remoteAddr.set(request.getRemoteAddr());
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Request through an internal proxy - Client address comes from X-Forwarded-For")
+    void internalProxy_UsesForwardedClient() throws Exception {
+        invoke(valve, "10.0.0.5", "203.0.113.7");
+
+        assertEquals("203.0.113.7", remoteAddr.get());
+    }
+
+    @Test
+    @DisplayName("Direct client - A forged X-Forwarded-For is ignored")
+    void directClient_ForgedHeaderIgnored() throws Exception {
+        invoke(valve, "198.51.100.20", "203.0.113.7");
+
+        assertEquals("198.51.100.20", remoteAddr.get());
+    }
+
+    private void invoke(Valve valve, String peer, String forwardedFor) throws Exception {
+        Request request = new Request(new Connector());
+        request.setCoyoteRequest(new org.apache.coyote.Request());
+        request.setRemoteAddr(peer);
+        request.setRemoteHost(peer);
+        request.getCoyoteRequest().getMimeHeaders().addValue("X-Forwarded-For").setString(forwardedFor);
+        valve.invoke(request, new Response());
+    }
+}
@@ -0,0 +1,83 @@
+package com.hotelmanagement.quanlikhachsan.config;
+
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MetricsConfig
+ * Class-level @Timed must time every public method; @Counted counts outcomes
+ */
+@DisplayName("MetricsConfig Tests")
+class MetricsConfigTest {
+
+    private final MetricsConfig metricsConfig = new MetricsConfig();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private BookingService service;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BookingService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(metricsConfig.timedAspect(registry));
+        factory.addAspect(metricsConfig.countedAspect(registry));
+        service = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("@Timed on the class - Every method is timed with method and exception tags")
+    void timedClass_TimesEachMethod() {
+        service.find();
+        service.find();
+        assertThrows(IllegalStateException.class, service::fail);
+
+        Timer find = registry.get("booking.service").tag("method", "find").tag("exception", "none").timer();
+        Timer fail = registry.get("booking.service").tag("method", "fail")
+                .tag("exception", "IllegalStateException").timer();
+        assertEquals(2, find.count());
+        assertEquals(1, fail.count());
+    }
+
+    @Test
+    @DisplayName("@Counted - Counts successful calls separately from failures")
+    void counted_CountsByResult() {
+        service.create(true);
+        service.create(true);
+        assertThrows(IllegalArgumentException.class, () -> service.create(false));
+
+        assertEquals(2, registry.get("bookings.created").tag("result", "success").counter().count());
+        assertEquals(1, registry.get("bookings.created").tag("result", "failure").counter().count());
+        // The class-level timer still applies alongside the counter
+        assertEquals(3, registry.get("booking.service").tag("method", "create").timers().stream()
+                .mapToLong(Timer::count).sum());
+    }
+
+    @Timed("booking.service")
+    static class BookingService {
+
+        public String find() {
+            return "room";
+        }
+
+        public void fail() {
+            throw new IllegalStateException("unavailable");
+        }
+
+        @Counted("bookings.created")
+        public String create(boolean valid) {
+            if (!valid) {
+                throw new IllegalArgumentException("invalid");
+            }
+            return "created";
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hotelmanagement.quanlikhachsan.config;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: cost of class-level {@code @Timed} on a service call, as
+ * scraped by Prometheus, against a plain Spring proxy (what
+ * {@code @Transactional} services already pay) and a direct call. The
+ * target does about as much work as an index lookup on the availability path.
+ *
+ * Run with: mvn -Pbenchmark test -Djmh.includes=MetricsOverheadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private AvailabilityTarget direct;
+    private AvailabilityTarget proxied;
+    private AvailabilityTarget timed;
+    private AvailabilityTarget timedHistogram;
+
+    @Setup
+    public void setUp() {
+        direct = new TimedTarget();
+
+        ProxyFactory proxyFactory = new ProxyFactory(new TimedTarget());
+        proxyFactory.setProxyTargetClass(true);
+        proxied = (AvailabilityTarget) proxyFactory.getProxy();
+
+        timed = timedProxy(new TimedTarget());
+        timedHistogram = timedProxy(new HistogramTarget());
+    }
+
+    @Benchmark
+    public int direct() {
+        return direct.countFree(7);
+    }
+
+    @Benchmark
+    public int proxied() {
+        return proxied.countFree(7);
+    }
+
+    @Benchmark
+    public int timed() {
+        return timed.countFree(7);
+    }
+
+    @Benchmark
+    public int timedHistogram() {
+        return timedHistogram.countFree(7);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MetricsOverheadBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private static AvailabilityTarget timedProxy(AvailabilityTarget target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new TimedAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT)));
+        return factory.getProxy();
+    }
+
+    public interface AvailabilityTarget {
+        int countFree(int nights);
+    }
+
+    @Timed("bench.service")
+    public static class TimedTarget implements AvailabilityTarget {
+
+        private final BitSet occupied = new BitSet(512);
+
+        public TimedTarget() {
+            for (int room = 0; room < 512; room += 3) {
+                occupied.set(room);
+            }
+        }
+
+        @Override
+        public int countFree(int nights) {
+            return 512 - occupied.get(0, 512).cardinality() + nights;
+        }
+    }
+
+    public static class HistogramTarget extends TimedTarget {
+
+        @Override
+        @Timed(value = "bench.search", histogram = true)
+        public int countFree(int nights) {
+            return super.countFree(nights);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.hotelmanagement.quanlikhachsan.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SecurityConfig
+ * Tests which requests may reach the actuator without authentication
+ */
+@DisplayName("SecurityConfig Tests")
+class SecurityConfigTest {
+
+    @Test
+    @DisplayName("Separate management port - Scrapes on it are internal, API port requests are not")
+    void separatePort_OnlyManagementPortIsInternal() {
+        RequestMatcher matcher = SecurityConfig.internalManagementPort(8080, 8081);
+
+        assertTrue(matcher.matches(prometheusOn(8081)));
+        assertFalse(matcher.matches(prometheusOn(8080)));
+    }
+
+    @Test
+    @DisplayName("Shared port - Nothing is internal, so metrics need authentication")
+    void sharedPort_NothingIsInternal() {
+        RequestMatcher matcher = SecurityConfig.internalManagementPort(8080, 8080);
+
+        assertFalse(matcher.matches(prometheusOn(8080)));
+    }
+
+    private MockHttpServletRequest prometheusOn(int localPort) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        request.setLocalPort(localPort);
+        return request;
+    }
+}
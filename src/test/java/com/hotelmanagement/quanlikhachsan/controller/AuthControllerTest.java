@@ -5,6 +5,8 @@ import com.hotelmanagement.quanlikhachsan.dto.request.auth.LoginRequest;
 import com.hotelmanagement.quanlikhachsan.dto.request.auth.RegisterRequest;
 import com.hotelmanagement.quanlikhachsan.dto.response.auth.AuthResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.auth.UserInfo;
+import com.hotelmanagement.quanlikhachsan.security.IdempotencyStore;
+import com.hotelmanagement.quanlikhachsan.security.RateLimiter;
 import com.hotelmanagement.quanlikhachsan.services.auth.AuthService;
 import com.hotelmanagement.quanlikhachsan.util.JwtUtil;
 import jakarta.servlet.http.Cookie;
@@ -45,6 +47,12 @@ class AuthControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private RateLimiter rateLimiter;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
     private LoginRequest loginRequest;
     private RegisterRequest registerRequest;
     private AuthResponse authResponse;
@@ -52,6 +60,7 @@ class AuthControllerTest {
 
     @BeforeEach
     void setUp() {
+        when(rateLimiter.tryAcquire(any())).thenReturn(RateLimiter.Decision.ALLOWED);
         loginRequest = new LoginRequest("test@example.com", "password123");
 
         registerRequest = new RegisterRequest(
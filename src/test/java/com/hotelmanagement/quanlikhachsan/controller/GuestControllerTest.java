@@ -3,7 +3,10 @@ package com.hotelmanagement.quanlikhachsan.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hotelmanagement.quanlikhachsan.dto.request.guest.GuestRequest;
 import com.hotelmanagement.quanlikhachsan.dto.response.guest.GuestResponse;
+import com.hotelmanagement.quanlikhachsan.security.IdempotencyStore;
+import com.hotelmanagement.quanlikhachsan.security.RateLimiter;
 import com.hotelmanagement.quanlikhachsan.services.guest.IGuestService;
+import com.hotelmanagement.quanlikhachsan.util.JwtUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +35,15 @@ class GuestControllerTest {
     @MockBean
     private IGuestService guestService;
 
+    @MockBean
+    private RateLimiter rateLimiter;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -5,7 +5,10 @@ import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomRequest;
 import com.hotelmanagement.quanlikhachsan.dto.response.RoomResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.RoomStatusResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.RoomTypeResponse;
+import com.hotelmanagement.quanlikhachsan.security.IdempotencyStore;
+import com.hotelmanagement.quanlikhachsan.security.RateLimiter;
 import com.hotelmanagement.quanlikhachsan.services.IRoomService;
+import com.hotelmanagement.quanlikhachsan.util.JwtUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,6 +37,15 @@ class RoomControllerTest {
     @MockBean
     private IRoomService roomService;
 
+    @MockBean
+    private RateLimiter rateLimiter;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
     @Autowired
     private ObjectMapper objectMapper;
 
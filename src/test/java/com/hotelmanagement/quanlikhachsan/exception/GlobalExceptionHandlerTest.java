@@ -0,0 +1,129 @@
+package com.hotelmanagement.quanlikhachsan.exception;
+
+import com.hotelmanagement.quanlikhachsan.dto.response.ApiResponse;
+import com.hotelmanagement.quanlikhachsan.model.reservation.Reservation;
+import jakarta.persistence.RollbackException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GlobalExceptionHandler
+ * Tests how database and transaction failures are mapped to API errors
+ */
+@DisplayName("GlobalExceptionHandler Tests")
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    @DisplayName("Exclusion violation on insert - 409 ROOM_NOT_AVAILABLE")
+    void exclusionViolation_OnStatement_IsRoomNotAvailable() {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException(
+                "could not execute statement", exclusionViolation());
+
+        ResponseEntity<?> response = handler.handleDataAccessException(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError().getErrorCode(), errorCode(response));
+    }
+
+    @Test
+    @DisplayName("Exclusion violation at commit (deferred constraint) - 409 ROOM_NOT_AVAILABLE")
+    void exclusionViolation_AtCommit_IsRoomNotAvailable() {
+        TransactionSystemException ex = new TransactionSystemException("Could not commit JPA transaction",
+                new RollbackException("Error while committing the transaction", exclusionViolation()));
+
+        ResponseEntity<?> response = handler.handleDataAccessException(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError().getErrorCode(), errorCode(response));
+    }
+
+    @Test
+    @DisplayName("Exclusion violation with server detail - Names the colliding room")
+    @SuppressWarnings("unchecked")
+    void exclusionViolation_WithDetail_NamesRoom() {
+        TransactionSystemException ex = new TransactionSystemException("Could not commit JPA transaction",
+                new RollbackException("Error while committing the transaction", new PSQLException(
+                        "ERROR: conflicting key value violates exclusion constraint \"reservation_rooms_no_overlap\"\n"
+                                + "  Detail: Key (room_id, stay_range)=(room-7, [2030-01-01,2030-01-03)) conflicts "
+                                + "with existing key (room_id, stay_range)=(room-7, [2030-01-02,2030-01-04)).",
+                        PSQLState.EXCLUSION_VIOLATION)));
+
+        ResponseEntity<?> response = handler.handleDataAccessException(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        ApiResponse<Map<String, Object>> body = (ApiResponse<Map<String, Object>>) response.getBody();
+        assertNotNull(body);
+        assertEquals("room-7", body.data().get("roomId"));
+    }
+
+    @Test
+    @DisplayName("Stale @Version write - 409 CONCURRENT_MODIFICATION, marked retryable")
+    void optimisticLockFailure_IsConcurrentModification() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            ResponseEntity<?> response = handler.handleDataAccessException(
+                    new ObjectOptimisticLockingFailureException(Reservation.class, UUID.randomUUID()));
+
+            assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+            assertEquals(ErrorDefinition.CONCURRENT_MODIFICATION.toAppError().getErrorCode(), errorCode(response));
+            assertEquals(Boolean.TRUE, request.getAttribute(GlobalExceptionHandler.RETRYABLE_ATTRIBUTE));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    @DisplayName("Other conflicts - Not marked retryable")
+    void otherConflict_NotRetryable() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            handler.handleAppError(ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError());
+
+            assertNull(request.getAttribute(GlobalExceptionHandler.RETRYABLE_ATTRIBUTE));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    @DisplayName("Other constraint violations - 500")
+    void otherConstraintViolation_IsUnexpected() {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("could not execute statement",
+                new PSQLException("duplicate key value", PSQLState.UNIQUE_VIOLATION));
+
+        ResponseEntity<?> response = handler.handleDataAccessException(ex);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+    }
+
+    private PSQLException exclusionViolation() {
+        return new PSQLException("conflicting key value violates exclusion constraint "
+                + "\"reservation_rooms_no_overlap\"", PSQLState.EXCLUSION_VIOLATION);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String errorCode(ResponseEntity<?> response) {
+        ApiResponse<Map<String, Object>> body = (ApiResponse<Map<String, Object>>) response.getBody();
+        assertNotNull(body);
+        return (String) body.data().get("errorCode");
+    }
+}
@@ -0,0 +1,162 @@
+package com.hotelmanagement.quanlikhachsan.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanagement.quanlikhachsan.dto.response.RoomResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationResponse;
+import com.hotelmanagement.quanlikhachsan.model.guest.Guest;
+import com.hotelmanagement.quanlikhachsan.model.reservation.Reservation;
+import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationRoom;
+import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus;
+import com.hotelmanagement.quanlikhachsan.model.room.Room;
+import com.hotelmanagement.quanlikhachsan.model.room.RoomImages;
+import com.hotelmanagement.quanlikhachsan.model.room.RoomStatus;
+import com.hotelmanagement.quanlikhachsan.model.room.RoomType;
+import com.hotelmanagement.quanlikhachsan.repository.RoomStatusRepository;
+import com.hotelmanagement.quanlikhachsan.repository.RoomTypeRepository;
+import com.hotelmanagement.quanlikhachsan.services.catalog.RoomCatalogCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JMH benchmark: entity to response mapping for a room and for a
+ * three-room reservation, with room types and statuses served from a warm
+ * catalog cache as in production.
+ *
+ * Run with: mvn -Pbenchmark test -Djmh.includes=MapperBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private RoomMapper roomMapper;
+    private ReservationMapper reservationMapper;
+    private Room room;
+    private Reservation reservation;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        RoomType type = RoomType.builder().id("type-1").name("Deluxe").description("Sea view")
+                .pricePerNight(120.0).build();
+        RoomStatus status = RoomStatus.builder().id("status-1").name("AVAILABLE").build();
+
+        // Catalog cache warmed from stubbed repositories; lookups never leave the local cache
+        RoomTypeRepository roomTypeRepository = mock(RoomTypeRepository.class);
+        RoomStatusRepository roomStatusRepository = mock(RoomStatusRepository.class);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(roomTypeRepository.findAll()).thenReturn(List.of(type));
+        when(roomStatusRepository.findAll()).thenReturn(List.of(status));
+        when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+
+        RoomCatalogCache catalogCache = new RoomCatalogCache(redisTemplate, new ObjectMapper(),
+                mock(RedisMessageListenerContainer.class), roomTypeRepository, roomStatusRepository, meterRegistry);
+        ReflectionTestUtils.setField(catalogCache, "localMaxEntries", 1000L);
+        ReflectionTestUtils.setField(catalogCache, "localTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(catalogCache, "remoteTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(catalogCache, "invalidationChannel", "catalog:invalidate");
+        ReflectionTestUtils.invokeMethod(catalogCache, "init");
+        catalogCache.warmUp();
+
+        roomMapper = new RoomMapper(new RoomImageMapper(), catalogCache);
+        reservationMapper = new ReservationMapper(roomMapper);
+
+        room = room("101", type, status);
+        reservation = Reservation.builder()
+                .id(UUID.randomUUID())
+                .guest(Guest.builder().id("guest-1").fullName("Nguyễn Văn An")
+                        .keycloakUserId(UUID.randomUUID()).createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now()).build())
+                .checkIn(LocalDate.of(2026, 12, 20))
+                .checkOut(LocalDate.of(2026, 12, 24))
+                .status(ReservationStatus.CONFIRMED)
+                .totalAmount(new BigDecimal("1440.00"))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .reservationRooms(new ArrayList<>())
+                .build();
+        for (String number : List.of("101", "102", "103")) {
+            reservation.getReservationRooms().add(ReservationRoom.builder()
+                    .reservation(reservation)
+                    .room(room(number, type, status))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public RoomResponse roomToResponse() {
+        return roomMapper.toResponse(room);
+    }
+
+    @Benchmark
+    public ReservationResponse reservationToResponse() {
+        return reservationMapper.toResponse(reservation);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private static Room room(String number, RoomType type, RoomStatus status) {
+        Room room = Room.builder()
+                .id("room-" + number)
+                .roomNumber(number)
+                .type(type)
+                .status(status)
+                .floor((short) 1)
+                .note("Non-smoking")
+                .images(new ArrayList<>())
+                .build();
+        for (short order = 0; order < 2; order++) {
+            room.getImages().add(RoomImages.builder()
+                    .id("image-" + number + "-" + order)
+                    .room(room)
+                    .imageUrl("https://cdn.example.com/rooms/" + number + "/" + order + ".jpg")
+                    .isPrimary(order == 0)
+                    .displayOrder(order)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return room;
+    }
+}
@@ -0,0 +1,140 @@
+package com.hotelmanagement.quanlikhachsan.repository;
+
+import com.hotelmanagement.quanlikhachsan.model.reservation.Reservation;
+import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationRoom;
+import com.hotelmanagement.quanlikhachsan.model.room.Room;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count regression test for reservation loading
+ * Walks the same associations as ReservationMapper and asserts that the number
+ * of statements does not grow with the number of reservations.
+ * Runs against PostgreSQL with the Flyway schema; skipped when Docker is unavailable.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("ReservationRepository Query Count Tests")
+class ReservationRepositoryQueryCountTest {
+
+    private static final int RESERVATIONS = 12;
+    private static final LocalDate START = LocalDate.of(2030, 1, 1);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        sql("INSERT INTO room_types (id, name, price_per_night) VALUES ('type-1', 'Standard', 100), ('type-2', 'Deluxe', 200)");
+        sql("INSERT INTO room_statuses (id, name) VALUES ('status-1', 'Available')");
+        for (int i = 0; i < 4; i++) {
+            sql("INSERT INTO rooms (id, room_number, room_type_id, room_status_id, floor) VALUES ('room-" + i
+                    + "', '10" + i + "', 'type-" + (i % 2 + 1) + "', 'status-1', 1)");
+            sql("INSERT INTO room_images (room_id, image_url) VALUES ('room-" + i + "', 'a.jpg'), ('room-" + i
+                    + "', 'b.jpg')");
+        }
+        for (int i = 0; i < RESERVATIONS; i++) {
+            sql("INSERT INTO guests (id, full_name, email) VALUES ('guest-" + i + "', 'Guest " + i + "', 'guest" + i
+                    + "@example.com')");
+            LocalDate checkIn = START.plusDays(2L * i);
+            sql("INSERT INTO reservations (id, guest_id, status, check_in, check_out) VALUES ('00000000-0000-0000-0000-"
+                    + String.format("%012d", i) + "', 'guest-" + i + "', 'CONFIRMED', '" + checkIn + "', '"
+                    + checkIn.plusDays(1) + "')");
+            for (int room = 0; room < 2; room++) {
+                sql("INSERT INTO reservation_rooms (reservation_id, room_id) VALUES ('00000000-0000-0000-0000-"
+                        + String.format("%012d", i) + "', 'room-" + ((i + room) % 4) + "')");
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("findByDateRange - Statement count is independent of result size")
+    void findByDateRange_ConstantStatementCount() {
+        long few = countStatements(() -> walk(reservationRepository.findByDateRange(START, START.plusDays(2))));
+        long many = countStatements(() -> walk(reservationRepository.findByDateRange(START, START.plusDays(100))));
+
+        assertEquals(few, many);
+        assertTrue(many <= 4, "Expected at most 4 statements but was " + many);
+    }
+
+    @Test
+    @DisplayName("findAllWithDetailsByIdIn - Loads a page of reservations in a fixed number of statements")
+    void findAllWithDetailsByIdIn_ConstantStatementCount() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            ids.add(UUID.fromString("00000000-0000-0000-0000-" + String.format("%012d", i)));
+        }
+        long statements = countStatements(() -> {
+            List<Reservation> reservations = reservationRepository.findAllWithDetailsByIdIn(ids);
+            assertEquals(RESERVATIONS, reservations.size());
+            walk(reservations);
+        });
+
+        assertTrue(statements <= 4, "Expected at most 4 statements but was " + statements);
+    }
+
+    // Same traversal as ReservationMapper/RoomMapper without the catalog cache
+    private void walk(List<Reservation> reservations) {
+        for (Reservation reservation : reservations) {
+            assertNotNull(reservation.getGuest().getFullName());
+            for (ReservationRoom reservationRoom : reservation.getReservationRooms()) {
+                Room room = reservationRoom.getRoom();
+                assertNotNull(room.getRoomNumber());
+                assertNotNull(room.getType().getName());
+                assertNotNull(room.getStatus().getName());
+                assertEquals(2, room.getImages().size());
+            }
+        }
+    }
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void sql(String statement) {
+        entityManager.createNativeQuery(statement).executeUpdate();
+    }
+}
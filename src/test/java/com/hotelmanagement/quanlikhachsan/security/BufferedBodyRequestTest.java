@@ -0,0 +1,85 @@
+package com.hotelmanagement.quanlikhachsan.security;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BufferedBodyRequest
+ * Tests blocking replay past the buffer and non-blocking reads of buffered bodies
+ */
+@DisplayName("BufferedBodyRequest Tests")
+class BufferedBodyRequestTest {
+
+    private static final String BODY = "{\"email\":\"guest@example.com\"}";
+
+    @Test
+    @DisplayName("Body larger than the buffer - Head is cut, full body still replayed")
+    void largeBody_ReplaysEverything() throws Exception {
+        BufferedBodyRequest request = new BufferedBodyRequest(post(BODY), 8);
+
+        assertEquals(BODY.substring(0, 8), new String(request.head(), StandardCharsets.UTF_8));
+        assertEquals(BODY, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("setReadListener - Buffered body is delivered, then all-data-read")
+    void setReadListener_DeliversBufferedBody() throws Exception {
+        BufferedBodyRequest request = new BufferedBodyRequest(post(BODY), BODY.length());
+        ServletInputStream input = request.getInputStream();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data");
+                byte[] chunk = new byte[8];
+                while (input.isReady() && !input.isFinished()) {
+                    int read = input.read(chunk);
+                    if (read < 0) {
+                        break;
+                    }
+                    received.write(chunk, 0, read);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), events);
+        assertEquals(BODY, received.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("setReadListener - Body larger than the buffer is rejected")
+    void setReadListener_LargeBody_Rejected() throws Exception {
+        BufferedBodyRequest request = new BufferedBodyRequest(post(BODY), 8);
+
+        assertThrows(IllegalStateException.class, () -> request.getInputStream().setReadListener(null));
+    }
+
+    private MockHttpServletRequest post(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,230 @@
+package com.hotelmanagement.quanlikhachsan.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotelmanagement.quanlikhachsan.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IdempotencyFilter
+ * Tests first execution, replay, fingerprint mismatch and waiting on a running duplicate
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyFilter Tests")
+class IdempotencyFilterTest {
+
+    private static final String RESERVATIONS = "/api/v1/reservations";
+    private static final String BODY = "{\"keycloakUserId\":\"6f1c7c1e-8d1a-4a43-9f55-0c1f2f4a9b10\"}";
+    private static final String KEY = "guest-1:retry-42";
+
+    @Mock
+    private IdempotencyStore store;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(meterRegistry.getIfAvailable(any())).thenReturn(registry);
+        filter = new IdempotencyFilter(store, new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "paths", List.of(RESERVATIONS, RESERVATIONS + "/*/cancel"));
+        ReflectionTestUtils.setField(filter, "waitTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(filter, "pollInterval", Duration.ofMillis(1));
+        filter.init();
+    }
+
+    @Test
+    @DisplayName("First request - Runs once and stores the response under the user's key")
+    void firstRequest_ExecutesAndStores() throws Exception {
+        ArgumentCaptor<IdempotencyStore.StoredResponse> stored =
+                ArgumentCaptor.forClass(IdempotencyStore.StoredResponse.class);
+        doAnswer(invocation -> {
+            HttpServletRequest forwarded = invocation.getArgument(0);
+            HttpServletResponse response = invocation.getArgument(1);
+            assertEquals(BODY, new String(forwarded.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            response.setStatus(201);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"success\":true}");
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(create(), response, filterChain);
+
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        verify(store).begin(eq(KEY), anyString(), owner.capture());
+        verify(store).complete(eq(KEY), eq(owner.getValue()), stored.capture());
+        assertEquals(201, stored.getValue().status());
+        assertEquals("{\"success\":true}", new String(stored.getValue().body(), StandardCharsets.UTF_8));
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"success\":true}", response.getContentAsString());
+        verify(store, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Retry - Stored response is replayed without running the request")
+    void retry_ReplaysStoredResponse() throws Exception {
+        when(store.begin(eq(KEY), anyString(), anyString())).thenAnswer(invocation -> new IdempotencyStore.Entry(
+                invocation.getArgument(1), new IdempotencyStore.StoredResponse(201, "application/json",
+                "{\"success\":true}".getBytes(StandardCharsets.UTF_8))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(create(), response, filterChain);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("{\"success\":true}", response.getContentAsString());
+        assertEquals(1.0, registry.get("idempotency.requests").tag("result", "replayed").counter().count());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    @DisplayName("Same key, different body - 422 without running the request")
+    void differentBody_Rejected() throws Exception {
+        when(store.begin(eq(KEY), anyString(), anyString())).thenReturn(new IdempotencyStore.Entry("other", null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(create(), response, filterChain);
+
+        assertEquals(422, response.getStatus());
+        assertTrue(response.getContentAsString().contains("REQUEST_003"));
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicate - Waits for the first attempt and replays its response")
+    void concurrentDuplicate_WaitsForResult() throws Exception {
+        when(store.begin(eq(KEY), anyString(), anyString()))
+                .thenAnswer(invocation -> new IdempotencyStore.Entry(invocation.getArgument(1), null))
+                .thenAnswer(invocation -> new IdempotencyStore.Entry(invocation.getArgument(1), null))
+                .thenAnswer(invocation -> new IdempotencyStore.Entry(invocation.getArgument(1),
+                        new IdempotencyStore.StoredResponse(200, null, new byte[0])));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(create(), response, filterChain);
+
+        assertEquals(200, response.getStatus());
+        verify(store, times(3)).begin(eq(KEY), anyString(), anyString());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    @DisplayName("Server error - Key is released so a retry runs again")
+    void serverError_ReleasesKey() throws Exception {
+        doAnswer(invocation -> {
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(500);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(create(), new MockHttpServletResponse(), filterChain);
+
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        verify(store).begin(eq(KEY), anyString(), owner.capture());
+        verify(store).release(KEY, owner.getValue());
+        verify(store, never()).complete(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Lost concurrent modification or rate limited - Key is released, not stored")
+    void retryableClientErrors_ReleaseKey() throws Exception {
+        doAnswer(invocation -> {
+            HttpServletRequest request = invocation.getArgument(0);
+            request.setAttribute(GlobalExceptionHandler.RETRYABLE_ATTRIBUTE, Boolean.TRUE);
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(409);
+            return null;
+        }).doAnswer(invocation -> {
+            ((HttpServletResponse) invocation.getArgument(1)).setStatus(429);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(create(), new MockHttpServletResponse(), filterChain);
+        filter.doFilter(create(), new MockHttpServletResponse(), filterChain);
+
+        verify(store, times(2)).release(eq(KEY), anyString());
+        verify(store, never()).complete(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Unmarked conflict - Stored like any client error, whatever its body says")
+    void otherConflict_Stored() throws Exception {
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setStatus(409);
+            response.getWriter().write("{\"success\":false,\"data\":{\"errorCode\":\"REQUEST_005\"}}");
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        filter.doFilter(create(), new MockHttpServletResponse(), filterChain);
+
+        verify(store).complete(eq(KEY), anyString(), any());
+        verify(store, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Redis down - Request runs without replay protection")
+    void storeUnavailable_FailsOpen() throws Exception {
+        when(store.begin(anyString(), anyString(), anyString())).thenThrow(new IllegalStateException("connection refused"));
+
+        filter.doFilter(create(), new MockHttpServletResponse(), filterChain);
+
+        verify(filterChain).doFilter(any(), any());
+        assertEquals(1.0, registry.get("idempotency.requests").tag("result", "bypassed").counter().count());
+    }
+
+    @Test
+    @DisplayName("No key or other endpoint - Not filtered")
+    void withoutKey_NotFiltered() throws Exception {
+        MockHttpServletRequest withoutKey = new MockHttpServletRequest("POST", RESERVATIONS);
+        MockHttpServletRequest otherPath = new MockHttpServletRequest("POST", "/api/v1/rooms");
+        otherPath.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-42");
+
+        filter.doFilter(withoutKey, new MockHttpServletResponse(), filterChain);
+        filter.doFilter(otherPath, new MockHttpServletResponse(), filterChain);
+
+        verifyNoInteractions(store);
+        verify(filterChain).doFilter(eq(withoutKey), any());
+        verify(filterChain).doFilter(eq(otherPath), any());
+    }
+
+    private MockHttpServletRequest create() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", RESERVATIONS);
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "retry-42");
+        request.setUserPrincipal(() -> "guest-1");
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
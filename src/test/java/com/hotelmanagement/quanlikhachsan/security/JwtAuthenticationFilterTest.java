@@ -1,6 +1,8 @@
 package com.hotelmanagement.quanlikhachsan.security;
 
 import com.hotelmanagement.quanlikhachsan.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -16,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -53,16 +56,12 @@ class JwtAuthenticationFilterTest {
     void doFilterInternal_WithValidJwtInCookie_SetsAuthentication() throws ServletException, IOException {
         // Given
         String validToken = "valid-jwt-token";
-        String userId = "user-123";
         String email = "test@example.com";
         String role = "USER";
 
         Cookie jwtCookie = new Cookie("jwt", validToken);
         when(request.getCookies()).thenReturn(new Cookie[] { jwtCookie });
-        when(jwtUtil.isTokenValid(validToken)).thenReturn(true);
-        when(jwtUtil.extractUserId(validToken)).thenReturn(userId);
-        when(jwtUtil.extractEmail(validToken)).thenReturn(email);
-        when(jwtUtil.extractRole(validToken)).thenReturn(role);
+        when(jwtUtil.parseVerifiedClaims(validToken)).thenReturn(Optional.of(claims(email, role)));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -70,9 +69,12 @@ class JwtAuthenticationFilterTest {
         // Then
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
         assertEquals(email, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        assertTrue(SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_USER".equals(authority.getAuthority())));
 
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil).isTokenValid(validToken);
+        verify(jwtUtil, times(1)).parseVerifiedClaims(validToken);
+        verifyNoMoreInteractions(jwtUtil);
     }
 
     @Test
@@ -87,7 +89,7 @@ class JwtAuthenticationFilterTest {
         // Then
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).isTokenValid(anyString());
+        verify(jwtUtil, never()).parseVerifiedClaims(anyString());
     }
 
     @Test
@@ -98,7 +100,7 @@ class JwtAuthenticationFilterTest {
         Cookie jwtCookie = new Cookie("jwt", invalidToken);
 
         when(request.getCookies()).thenReturn(new Cookie[] { jwtCookie });
-        when(jwtUtil.isTokenValid(invalidToken)).thenReturn(false);
+        when(jwtUtil.parseVerifiedClaims(invalidToken)).thenReturn(Optional.empty());
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -106,8 +108,7 @@ class JwtAuthenticationFilterTest {
         // Then
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil).isTokenValid(invalidToken);
-        verify(jwtUtil, never()).extractUserId(anyString());
+        verify(jwtUtil).parseVerifiedClaims(invalidToken);
     }
 
     @Test
@@ -123,7 +124,7 @@ class JwtAuthenticationFilterTest {
         // Then
         assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).isTokenValid(anyString());
+        verify(jwtUtil, never()).parseVerifiedClaims(anyString());
     }
 
     @Test
@@ -136,17 +137,14 @@ class JwtAuthenticationFilterTest {
         Cookie cookie3 = new Cookie("preference", "dark-mode");
 
         when(request.getCookies()).thenReturn(new Cookie[] { cookie1, jwtCookie, cookie3 });
-        when(jwtUtil.isTokenValid(validToken)).thenReturn(true);
-        when(jwtUtil.extractUserId(validToken)).thenReturn("user-123");
-        when(jwtUtil.extractEmail(validToken)).thenReturn("test@example.com");
-        when(jwtUtil.extractRole(validToken)).thenReturn("USER");
+        when(jwtUtil.parseVerifiedClaims(validToken)).thenReturn(Optional.of(claims("test@example.com", "USER")));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
-        verify(jwtUtil).isTokenValid(validToken);
+        verify(jwtUtil).parseVerifiedClaims(validToken);
     }
 
     @Test
@@ -157,7 +155,7 @@ class JwtAuthenticationFilterTest {
         Cookie jwtCookie = new Cookie("jwt", token);
 
         when(request.getCookies()).thenReturn(new Cookie[] { jwtCookie });
-        when(jwtUtil.isTokenValid(token)).thenThrow(new RuntimeException("Token parsing error"));
+        when(jwtUtil.parseVerifiedClaims(token)).thenThrow(new RuntimeException("Token parsing error"));
 
         // When & Then - Should not throw exception
         assertDoesNotThrow(() -> {
@@ -166,4 +164,8 @@ class JwtAuthenticationFilterTest {
 
         verify(filterChain).doFilter(request, response);
     }
+
+    private Claims claims(String email, String role) {
+        return Jwts.claims().subject(email).add("role", role).build();
+    }
 }
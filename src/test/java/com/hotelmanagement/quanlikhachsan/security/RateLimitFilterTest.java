@@ -0,0 +1,118 @@
+package com.hotelmanagement.quanlikhachsan.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RateLimitFilter
+ * Tests bucket keys, 429 responses and replay of the inspected body
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimitFilter Tests")
+class RateLimitFilterTest {
+
+    private static final String LOGIN = "/api/v1/auth/login";
+    private static final String BODY = "{\"email\":\"Guest@Example.com\",\"password\":\"secret\"}";
+
+    @Mock
+    private RateLimiter rateLimiter;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(meterRegistry.getIfAvailable(any())).thenReturn(registry);
+        filter = new RateLimitFilter(rateLimiter, new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "paths", Set.of(LOGIN));
+        ReflectionTestUtils.setField(filter, "ipCapacity", 20);
+        ReflectionTestUtils.setField(filter, "ipRefillPerMinute", 10.0);
+        ReflectionTestUtils.setField(filter, "emailCapacity", 5);
+        ReflectionTestUtils.setField(filter, "emailRefillPerMinute", 2.0);
+        filter.init();
+    }
+
+    @Test
+    @DisplayName("Allowed request - Limits by IP and normalized email, body still readable downstream")
+    @SuppressWarnings("unchecked")
+    void allowed_PassesBodyThrough() throws Exception {
+        when(rateLimiter.tryAcquire(any())).thenReturn(RateLimiter.Decision.ALLOWED);
+        ArgumentCaptor<HttpServletRequest> forwarded = ArgumentCaptor.forClass(HttpServletRequest.class);
+
+        filter.doFilter(login(), new MockHttpServletResponse(), filterChain);
+
+        ArgumentCaptor<List<RateLimiter.Limit>> limits = ArgumentCaptor.forClass(List.class);
+        verify(rateLimiter).tryAcquire(limits.capture());
+        assertEquals(List.of(LOGIN + ":ip:10.0.0.1", LOGIN + ":email:guest@example.com"),
+                limits.getValue().stream().map(RateLimiter.Limit::key).toList());
+
+        verify(filterChain).doFilter(forwarded.capture(), any());
+        assertEquals(BODY, new String(forwarded.getValue().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Rejected request - 429 with Retry-After and a counter per scope")
+    void rejected_Returns429() throws Exception {
+        when(rateLimiter.tryAcquire(any())).thenReturn(new RateLimiter.Decision(false, 1500, 1));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(login(), response, filterChain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("REQUEST_001"));
+        assertEquals(1.0, registry.get("ratelimit.rejected").tag("scope", "email").counter().count());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    @DisplayName("Other endpoints - Not limited")
+    void otherPath_NotFiltered() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/rooms");
+
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verifyNoInteractions(rateLimiter);
+        verify(filterChain).doFilter(eq(request), any());
+    }
+
+    private MockHttpServletRequest login() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", LOGIN);
+        request.setRemoteAddr("10.0.0.1");
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,109 @@
+package com.hotelmanagement.quanlikhachsan.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RateLimiter
+ * Tests decoding of the Redis script result and the local fallback
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RateLimiter Tests")
+class RateLimiterTest {
+
+    private static final List<RateLimiter.Limit> LIMITS = List.of(
+            new RateLimiter.Limit("login:ip:10.0.0.1", 2, 60),
+            new RateLimiter.Limit("login:email:guest@example.com", 1, 60));
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private RateLimiter rateLimiter;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(rateLimiter, "fallbackRetryAfter", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(rateLimiter, "fallbackMaxBuckets", 1000L);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(registry);
+        rateLimiter.init();
+    }
+
+    @Test
+    @DisplayName("tryAcquire - One script call covers every bucket of the request")
+    @SuppressWarnings("unchecked")
+    void tryAcquire_Redis_SingleCall() {
+        when(redisTemplate.execute(any(RedisScript.class),
+                eq(List.of("rl:login:ip:10.0.0.1", "rl:login:email:guest@example.com")),
+                any(Object[].class)))
+                .thenReturn(List.of(0L, 0L), List.of(1500L, 2L));
+
+        assertTrue(rateLimiter.tryAcquire(LIMITS).allowed());
+
+        RateLimiter.Decision rejected = rateLimiter.tryAcquire(LIMITS);
+        assertFalse(rejected.allowed());
+        assertEquals(1500L, rejected.retryAfterMillis());
+        assertEquals(1, rejected.rejectedBy());
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("tryAcquire - Redis down falls back to local buckets and skips Redis for a while")
+    @SuppressWarnings("unchecked")
+    void tryAcquire_RedisDown_LocalFallback() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertTrue(rateLimiter.tryAcquire(LIMITS).allowed());
+        RateLimiter.Decision second = rateLimiter.tryAcquire(LIMITS);
+
+        // The email bucket holds one token; the IP bucket still has one left
+        assertFalse(second.allowed());
+        assertEquals(1, second.rejectedBy());
+        assertTrue(second.retryAfterMillis() > 0);
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        assertEquals(2.0, registry.get("ratelimit.fallback.decisions").counter().count());
+    }
+
+    @Test
+    @DisplayName("tryAcquire - Local rejection takes no token from the other buckets")
+    @SuppressWarnings("unchecked")
+    void tryAcquire_LocalRejection_AllOrNothing() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        List<RateLimiter.Limit> ipOnly = List.of(LIMITS.get(0));
+
+        rateLimiter.tryAcquire(LIMITS);
+        rateLimiter.tryAcquire(LIMITS);
+
+        // The rejected request left the IP bucket's second token in place
+        assertTrue(rateLimiter.tryAcquire(ipOnly).allowed());
+        assertFalse(rateLimiter.tryAcquire(ipOnly).allowed());
+    }
+}
@@ -1,27 +1,44 @@
 package com.hotelmanagement.quanlikhachsan.services;
 
+import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomAvailabilityRequest;
 import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomRequest;
 import com.hotelmanagement.quanlikhachsan.dto.response.RoomResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.RoomStatusResponse;
 import com.hotelmanagement.quanlikhachsan.dto.response.RoomTypeResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomAvailabilityCalendarResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomAvailabilityResponse;
 import com.hotelmanagement.quanlikhachsan.exception.AppError;
 import com.hotelmanagement.quanlikhachsan.mapper.RoomMapper;
 import com.hotelmanagement.quanlikhachsan.model.room.Room;
 import com.hotelmanagement.quanlikhachsan.model.room.RoomStatus;
+import com.hotelmanagement.quanlikhachsan.model.room.RoomType;
 
+import com.hotelmanagement.quanlikhachsan.repository.ReservationRoomRepository;
 import com.hotelmanagement.quanlikhachsan.repository.RoomRepository;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomHoldService;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomOccupancyIndex;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomTypeInventoryService;
+import com.hotelmanagement.quanlikhachsan.services.catalog.RoomCatalogCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +50,21 @@ class RoomServiceImplTest {
     @Mock
     private RoomMapper roomMapper;
 
+    @Mock
+    private ReservationRoomRepository reservationRoomRepository;
+
+    @Mock
+    private RoomOccupancyIndex occupancyIndex;
+
+    @Mock
+    private RoomTypeInventoryService inventoryService;
+
+    @Mock
+    private RoomCatalogCache catalogCache;
+
+    @Mock
+    private RoomHoldService roomHoldService;
+
     @InjectMocks
     private RoomServiceImpl roomService;
 
@@ -43,6 +75,12 @@ class RoomServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        // Catalog cache always misses and reads through to the loader
+        lenient().when(catalogCache.getAllRooms(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        lenient().when(catalogCache.getRoom(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+
         roomId = "room-123";
         roomRequest = new RoomRequest(
                 "101",
@@ -100,13 +138,25 @@ class RoomServiceImplTest {
 
     @Test
     void getRoomsByStatusName_Success() {
-        when(roomRepository.findAllByStatusName("Available")).thenReturn(List.of(room));
+        when(roomRepository.findAll()).thenReturn(List.of(room));
         when(roomMapper.toResponse(room)).thenReturn(roomResponse);
 
         List<RoomResponse> responses = roomService.getRoomsByStatusName("Available");
 
         assertFalse(responses.isEmpty());
         assertEquals(1, responses.size());
+        assertTrue(roomService.getRoomsByStatusName("Occupied").isEmpty());
+    }
+
+    @Test
+    void createRoom_InvalidatesCatalogCache() {
+        when(roomRepository.existsByRoomNumber(roomRequest.roomNumber())).thenReturn(false);
+        when(roomMapper.toEntity(any(RoomRequest.class))).thenReturn(room);
+        when(roomRepository.save(any(Room.class))).thenReturn(room);
+
+        roomService.createRoom(roomRequest);
+
+        verify(catalogCache).invalidateRoom(roomId);
     }
 
     @Test
@@ -156,6 +206,21 @@ class RoomServiceImplTest {
         assertThrows(AppError.class, () -> roomService.updateRoom(roomId, roomRequest));
     }
 
+    @Test
+    void updateRoom_TypeChanged_MovesInventoryAndStays() {
+        room.setType(RoomType.builder().id("type-old").build());
+        ReservationRoomRepository.RoomStay stay = mock(ReservationRoomRepository.RoomStay.class);
+        when(roomRepository.findById(roomId)).thenReturn(Optional.of(room));
+        when(roomRepository.save(any(Room.class))).thenReturn(room);
+        when(roomMapper.toResponse(any(Room.class))).thenReturn(roomResponse);
+        when(reservationRoomRepository.findActiveStaysOfRoomsOverlapping(eq(List.of(roomId)),
+                eq(LocalDate.now()), any())).thenReturn(List.of(stay));
+
+        roomService.updateRoom(roomId, roomRequest);
+
+        verify(inventoryService).changeRoomType("type-old", "type-1", List.of(stay));
+    }
+
     @Test
     void deleteRoom_Success() {
         when(roomRepository.findById(roomId)).thenReturn(Optional.of(room));
@@ -179,4 +244,142 @@ class RoomServiceImplTest {
         assertThrows(AppError.class, () -> roomService.deleteRoom(roomId));
         verify(roomRepository, never()).delete(any(Room.class));
     }
+
+    @Test
+    void checkAvailability_SingleQuery_KeepsRequestOrder() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = checkIn.plusDays(2);
+        RoomRepository.RoomAvailabilityView free = availabilityView(roomId, "101", true);
+        RoomRepository.RoomAvailabilityView booked = availabilityView("room-456", "102", false);
+
+        when(roomRepository.findAvailability(any(), eq(checkIn), eq(checkOut))).thenReturn(List.of(free, booked));
+
+        RoomAvailabilityResponse response = roomService.checkAvailability(
+                new RoomAvailabilityRequest(List.of("room-456", roomId), checkIn, checkOut));
+
+        assertFalse(response.allAvailable());
+        assertEquals("room-456", response.rooms().get(0).roomId());
+        assertEquals(0, new BigDecimal("200.00").compareTo(response.estimatedTotal()));
+        verify(roomRepository, never()).findById(anyString());
+        verify(reservationRoomRepository, never()).hasConflictingReservation(anyString(), any(), any());
+    }
+
+    @Test
+    void checkAvailability_UnknownRoom_Throws() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = checkIn.plusDays(2);
+
+        when(roomRepository.findAvailability(any(), eq(checkIn), eq(checkOut))).thenReturn(List.of());
+
+        assertThrows(AppError.class, () -> roomService.checkAvailability(
+                new RoomAvailabilityRequest(List.of(roomId), checkIn, checkOut)));
+    }
+
+    @Test
+    void getAvailableRooms_UsesOccupancyIndex() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = checkIn.plusDays(2);
+        Room bookedRoom = new Room();
+        bookedRoom.setId("room-456");
+
+        when(occupancyIndex.findOccupiedRoomIds(checkIn, checkOut)).thenReturn(Optional.of(Set.of("room-456")));
+        when(roomRepository.findAll()).thenReturn(List.of(room, bookedRoom));
+        when(roomMapper.toResponse(room)).thenReturn(roomResponse);
+        when(roomMapper.toResponse(bookedRoom)).thenReturn(new RoomResponse(
+                "room-456", "102", null, null, (short) 1, null, List.of()));
+
+        List<RoomResponse> responses = roomService.getAvailableRooms(checkIn, checkOut);
+
+        assertEquals(1, responses.size());
+        assertEquals(roomId, responses.get(0).id());
+        verify(reservationRoomRepository, never()).hasConflictingReservation(anyString(), any(), any());
+    }
+
+    @Test
+    void getAvailableRooms_HeldRoomsExcluded() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = checkIn.plusDays(2);
+        Room heldRoom = new Room();
+        heldRoom.setId("room-456");
+
+        when(occupancyIndex.findOccupiedRoomIds(checkIn, checkOut)).thenReturn(Optional.of(Set.of()));
+        when(roomRepository.findAll()).thenReturn(List.of(room, heldRoom));
+        when(roomMapper.toResponse(room)).thenReturn(roomResponse);
+        when(roomMapper.toResponse(heldRoom)).thenReturn(new RoomResponse(
+                "room-456", "102", null, null, (short) 1, null, List.of()));
+        when(roomHoldService.findHeldRoomIds(List.of(roomId, "room-456"), checkIn, checkOut, null))
+                .thenReturn(Set.of("room-456"));
+
+        List<RoomResponse> responses = roomService.getAvailableRooms(checkIn, checkOut);
+
+        assertEquals(List.of(roomId), responses.stream().map(RoomResponse::id).toList());
+    }
+
+    @Test
+    void getAvailableRooms_IndexUnavailable_FallsBackToDatabase() {
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        LocalDate checkOut = checkIn.plusDays(2);
+
+        Room bookedRoom = new Room();
+        bookedRoom.setId("room-456");
+        RoomRepository.RoomAvailabilityView free = availabilityView(roomId, "101", true);
+        RoomRepository.RoomAvailabilityView booked = availabilityView("room-456", "102", false);
+
+        when(occupancyIndex.findOccupiedRoomIds(checkIn, checkOut)).thenReturn(Optional.empty());
+        when(roomRepository.findAvailabilityOfAllRooms(checkIn, checkOut)).thenReturn(List.of(free, booked));
+        when(roomRepository.findAll()).thenReturn(List.of(room, bookedRoom));
+        when(roomMapper.toResponse(room)).thenReturn(roomResponse);
+        when(roomMapper.toResponse(bookedRoom)).thenReturn(new RoomResponse(
+                "room-456", "102", null, null, (short) 1, null, List.of()));
+
+        List<RoomResponse> responses = roomService.getAvailableRooms(checkIn, checkOut);
+
+        assertEquals(List.of(roomId), responses.stream().map(RoomResponse::id).toList());
+        verify(roomRepository, times(1)).findAvailabilityOfAllRooms(checkIn, checkOut);
+        verify(reservationRoomRepository, never()).hasConflictingReservation(anyString(), any(), any());
+    }
+
+    @Test
+    void getAvailabilityCalendar_ClipsStaysToWindow() {
+        ReflectionTestUtils.setField(roomService, "calendarMaxNights", 62);
+        LocalDate from = LocalDate.of(2030, 3, 1);
+        LocalDate to = from.plusDays(10);
+        Room freeRoom = new Room();
+        freeRoom.setId("room-456");
+        freeRoom.setRoomNumber("102");
+
+        ReservationRoomRepository.RoomStay stay = mock(ReservationRoomRepository.RoomStay.class);
+        when(stay.getRoomId()).thenReturn(roomId);
+        when(stay.getCheckIn()).thenReturn(from.minusDays(2));
+        when(stay.getCheckOut()).thenReturn(from.plusDays(3));
+        when(reservationRoomRepository.findActiveStaysOverlapping(from, to)).thenReturn(List.of(stay));
+        when(roomRepository.findAll(any(Sort.class))).thenReturn(List.of(room, freeRoom));
+
+        RoomAvailabilityCalendarResponse response = roomService.getAvailabilityCalendar(from, to);
+
+        assertEquals(10, response.nights());
+        assertEquals(2, response.rooms().size());
+        // Nights 0, 1 and 2 booked -> 0b111
+        assertEquals("Bw==", response.rooms().get(0).booked());
+        assertEquals("", response.rooms().get(1).booked());
+    }
+
+    @Test
+    void getAvailabilityCalendar_WindowTooLarge_Throws() {
+        ReflectionTestUtils.setField(roomService, "calendarMaxNights", 62);
+        LocalDate from = LocalDate.of(2030, 3, 1);
+
+        assertThrows(AppError.class, () -> roomService.getAvailabilityCalendar(from, from.plusDays(100)));
+        verifyNoInteractions(reservationRoomRepository);
+    }
+
+    private RoomRepository.RoomAvailabilityView availabilityView(String id, String number, boolean available) {
+        RoomRepository.RoomAvailabilityView view = mock(RoomRepository.RoomAvailabilityView.class);
+        lenient().when(view.getRoomId()).thenReturn(id);
+        lenient().when(view.getRoomNumber()).thenReturn(number);
+        lenient().when(view.getRoomType()).thenReturn("Standard");
+        lenient().when(view.getPricePerNight()).thenReturn(new BigDecimal("100.00"));
+        lenient().when(view.getAvailable()).thenReturn(available);
+        return view;
+    }
 }
@@ -92,8 +92,8 @@ class AuthServiceTest {
         // Given
         when(keycloakAuthService.authenticateUser(anyString(), anyString()))
                 .thenReturn(tokenResponse);
-        when(keycloakAuthService.getUserByEmail(anyString()))
-                .thenReturn(keycloakUser);
+        when(keycloakAuthService.resolveUserId(tokenResponse, "test@example.com"))
+                .thenReturn(keycloakUser.getId());
         when(guestService.getGuestByKeycloakUserId(any(UUID.class)))
                 .thenReturn(guestResponse);
         when(jwtUtil.generateToken(anyString(), anyString(), anyString(), anyString()))
@@ -115,7 +115,8 @@ class AuthServiceTest {
 
         // Verify interactions
         verify(keycloakAuthService).authenticateUser("test@example.com", "password123");
-        verify(keycloakAuthService).getUserByEmail("test@example.com");
+        verify(keycloakAuthService).resolveUserId(tokenResponse, "test@example.com");
+        verify(keycloakAuthService, never()).getUserByEmail(anyString());
         verify(guestService).getGuestByKeycloakUserId(any(UUID.class));
         verify(jwtUtil).generateToken(anyString(), anyString(), anyString(), eq("USER"));
     }
@@ -143,8 +144,8 @@ class AuthServiceTest {
         // Given
         when(keycloakAuthService.authenticateUser(anyString(), anyString()))
                 .thenReturn(tokenResponse);
-        when(keycloakAuthService.getUserByEmail(anyString()))
-                .thenReturn(keycloakUser);
+        when(keycloakAuthService.resolveUserId(tokenResponse, "test@example.com"))
+                .thenReturn(keycloakUser.getId());
         when(guestService.getGuestByKeycloakUserId(any(UUID.class)))
                 .thenThrow(new RuntimeException("Guest not found"));
 
@@ -12,9 +12,15 @@ import org.keycloak.representations.idm.UserRepresentation;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 
@@ -34,6 +40,9 @@ class KeycloakAuthenticationServiceTest {
     @Mock
     private Keycloak adminKeycloak;
 
+    @Mock
+    private KeycloakTokenClient tokenClient;
+
     @Mock
     private RealmResource realmResource;
 
@@ -44,15 +53,11 @@ class KeycloakAuthenticationServiceTest {
     private KeycloakAuthenticationService keycloakAuthService;
 
     private static final String TEST_REALM = "test-realm";
-    private static final String TEST_CLIENT_ID = "test-client";
-    private static final String TEST_AUTH_URL = "http://localhost:8180";
 
     @BeforeEach
     void setUp() {
         // Set configuration values using reflection
-        ReflectionTestUtils.setField(keycloakAuthService, "authServerUrl", TEST_AUTH_URL);
         ReflectionTestUtils.setField(keycloakAuthService, "realm", TEST_REALM);
-        ReflectionTestUtils.setField(keycloakAuthService, "clientId", TEST_CLIENT_ID);
     }
 
     @Test
@@ -61,14 +66,77 @@ class KeycloakAuthenticationServiceTest {
         // Given
         String email = "test@example.com";
         String password = "password123";
+        AccessTokenResponse tokenResponse = new AccessTokenResponse();
+        tokenResponse.setToken("access-token");
 
-        // Note: This test is challenging because KeycloakBuilder creates a new instance
-        // In real scenario, we'd need to refactor or use PowerMock
-        // For now, we test that the method exists and has correct signature
+        when(tokenClient.passwordGrant(email, password)).thenReturn(tokenResponse);
 
-        assertThrows(Exception.class, () -> {
-            keycloakAuthService.authenticateUser(email, password);
-        });
+        // When
+        AccessTokenResponse result = keycloakAuthService.authenticateUser(email, password);
+
+        // Then
+        assertEquals("access-token", result.getToken());
+        verify(tokenClient).passwordGrant(email, password);
+    }
+
+    @Test
+    @DisplayName("Authenticate User - Rejected credentials throw BadCredentialsException")
+    void authenticateUser_WithRejectedCredentials_ThrowsBadCredentials() {
+        // Given
+        when(tokenClient.passwordGrant("test@example.com", "wrong"))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized",
+                        HttpHeaders.EMPTY, new byte[0], null));
+
+        // When & Then
+        assertThrows(BadCredentialsException.class,
+                () -> keycloakAuthService.authenticateUser("test@example.com", "wrong"));
+    }
+
+    @Test
+    @DisplayName("Authenticate User - Unreachable Keycloak throws BadCredentialsException")
+    void authenticateUser_WhenKeycloakUnreachable_ThrowsBadCredentials() {
+        // Given
+        when(tokenClient.passwordGrant(anyString(), anyString()))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        // When & Then
+        assertThrows(BadCredentialsException.class,
+                () -> keycloakAuthService.authenticateUser("test@example.com", "password123"));
+    }
+
+    @Test
+    @DisplayName("Resolve User Id - Reads the subject of the access token")
+    void resolveUserId_WithSubjectInToken_SkipsAdminSearch() {
+        // Given
+        AccessTokenResponse tokenResponse = new AccessTokenResponse();
+        tokenResponse.setToken(unsignedToken("{\"sub\":\"550e8400-e29b-41d4-a716-446655440000\"}"));
+
+        // When
+        String userId = keycloakAuthService.resolveUserId(tokenResponse, "test@example.com");
+
+        // Then
+        assertEquals("550e8400-e29b-41d4-a716-446655440000", userId);
+        verifyNoInteractions(adminKeycloak);
+    }
+
+    @Test
+    @DisplayName("Resolve User Id - Falls back to admin search without a subject")
+    void resolveUserId_WithoutSubject_SearchesByEmail() {
+        // Given
+        AccessTokenResponse tokenResponse = new AccessTokenResponse();
+        tokenResponse.setToken(unsignedToken("{\"email\":\"test@example.com\"}"));
+        UserRepresentation user = new UserRepresentation();
+        user.setId("user-123");
+
+        when(adminKeycloak.realm(TEST_REALM)).thenReturn(realmResource);
+        when(realmResource.users()).thenReturn(usersResource);
+        when(usersResource.search("test@example.com", true)).thenReturn(List.of(user));
+
+        // When
+        String userId = keycloakAuthService.resolveUserId(tokenResponse, "test@example.com");
+
+        // Then
+        assertEquals("user-123", userId);
     }
 
     @Test
@@ -207,4 +275,11 @@ class KeycloakAuthenticationServiceTest {
         assertNotNull(result);
         assertEquals(email, result.getEmail());
     }
+
+    private String unsignedToken(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString("signature".getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,125 @@
+package com.hotelmanagement.quanlikhachsan.services.auth;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.keycloak.representations.AccessTokenResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for KeycloakTokenClient
+ * Runs against a local stub of the realm token endpoint
+ */
+@DisplayName("KeycloakTokenClient Tests")
+class KeycloakTokenClientTest {
+
+    private static final String TEST_REALM = "test-realm";
+    private static final String TOKEN_PATH = "/realms/" + TEST_REALM + "/protocol/openid-connect/token";
+
+    private HttpServer stubServer;
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private KeycloakTokenClient tokenClient;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        stubServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stubServer.createContext(TOKEN_PATH, this::handleToken);
+        stubServer.start();
+
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(registry);
+
+        tokenClient = new KeycloakTokenClient(meterRegistry);
+        ReflectionTestUtils.setField(tokenClient, "authServerUrl",
+                "http://127.0.0.1:" + stubServer.getAddress().getPort());
+        ReflectionTestUtils.setField(tokenClient, "realm", TEST_REALM);
+        ReflectionTestUtils.setField(tokenClient, "clientId", "hotel-app");
+        ReflectionTestUtils.setField(tokenClient, "maxConnections", 5);
+        ReflectionTestUtils.setField(tokenClient, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(tokenClient, "responseTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(tokenClient, "poolTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(tokenClient, "keepAlive", Duration.ofSeconds(30));
+        tokenClient.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenClient.close();
+        stubServer.stop(0);
+    }
+
+    @Test
+    @DisplayName("passwordGrant - Posts the password grant form and parses the token response")
+    void passwordGrant_ValidCredentials_ReturnsToken() {
+        AccessTokenResponse response = tokenClient.passwordGrant("test@example.com", "secret");
+
+        assertEquals("access-token", response.getToken());
+        assertEquals("refresh-token", response.getRefreshToken());
+        assertEquals(300, response.getExpiresIn());
+        assertEquals(
+                "grant_type=password&client_id=hotel-app&username=test%40example.com&password=secret",
+                requestBodies.get(0));
+        assertEquals(1, registry.get("keycloak.token.requests").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("passwordGrant - Rejected credentials surface as a client error")
+    void passwordGrant_InvalidCredentials_ThrowsClientError() {
+        assertThrows(HttpClientErrorException.Unauthorized.class,
+                () -> tokenClient.passwordGrant("test@example.com", "wrong"));
+
+        assertEquals(1, registry.get("keycloak.token.requests").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    @DisplayName("passwordGrant - Sequential logins reuse one pooled connection")
+    void passwordGrant_SequentialCalls_ReuseConnection() {
+        for (int i = 0; i < 5; i++) {
+            tokenClient.passwordGrant("test@example.com", "secret");
+        }
+
+        assertEquals(5, requestBodies.size());
+        assertEquals(1, clientPorts.size());
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requestBodies.add(body);
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+
+        boolean valid = body.contains("password=secret");
+        byte[] json = (valid
+                ? "{\"access_token\":\"access-token\",\"refresh_token\":\"refresh-token\",\"expires_in\":300,"
+                        + "\"token_type\":\"Bearer\"}"
+                : "{\"error\":\"invalid_grant\",\"error_description\":\"Invalid user credentials\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(valid ? 200 : 401, json.length);
+        exchange.getResponseBody().write(json);
+        exchange.close();
+    }
+}
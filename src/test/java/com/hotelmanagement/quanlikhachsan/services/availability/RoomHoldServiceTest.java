@@ -0,0 +1,233 @@
+package com.hotelmanagement.quanlikhachsan.services.availability;
+
+import com.hotelmanagement.quanlikhachsan.dto.request.room.RoomHoldRequest;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomHoldResponse;
+import com.hotelmanagement.quanlikhachsan.exception.AppError;
+import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
+import com.hotelmanagement.quanlikhachsan.model.room.Room;
+import com.hotelmanagement.quanlikhachsan.repository.GuestRepository;
+import com.hotelmanagement.quanlikhachsan.repository.ReservationRoomRepository;
+import com.hotelmanagement.quanlikhachsan.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RoomHoldService
+ * Tests night key layout, conflict reporting, caps, ownership and held-room lookup
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoomHoldService Tests")
+class RoomHoldServiceTest {
+
+    private static final UUID ROOM_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID ROOM_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID OWNER = UUID.fromString("00000000-0000-0000-0000-0000000000aa");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private ReservationRoomRepository reservationRoomRepository;
+
+    @Mock
+    private GuestRepository guestRepository;
+
+    @InjectMocks
+    private RoomHoldService roomHoldService;
+
+    private final LocalDate checkIn = LocalDate.now().plusDays(10);
+    private final LocalDate checkOut = checkIn.plusDays(2);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(roomHoldService, "ttl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(roomHoldService, "maxNights", 30);
+        ReflectionTestUtils.setField(roomHoldService, "maxRoomNights", 60);
+        ReflectionTestUtils.setField(roomHoldService, "maxOpenPerGuest", 3);
+    }
+
+    @Test
+    @DisplayName("createHold - One script call holds every night of every room")
+    @SuppressWarnings("unchecked")
+    void createHold_HoldsAllNightsAtOnce() {
+        stubRooms();
+        when(reservationRoomRepository.findConflictingRoomNumbers(any(), any(), any())).thenReturn(List.of());
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of());
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+
+        RoomHoldResponse hold = roomHoldService.createHold(request(), OWNER);
+
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), any(Object[].class));
+        assertEquals(List.of("hold:" + hold.holdId(), "hold:owner:" + OWNER,
+                "hold:night:" + ROOM_1 + ":" + checkIn, "hold:night:" + ROOM_1 + ":" + checkIn.plusDays(1),
+                "hold:night:" + ROOM_2 + ":" + checkIn, "hold:night:" + ROOM_2 + ":" + checkIn.plusDays(1)),
+                keys.getValue());
+        assertEquals(List.of(ROOM_1.toString(), ROOM_2.toString()), hold.roomIds());
+        assertEquals(OWNER, hold.keycloakUserId());
+    }
+
+    @Test
+    @DisplayName("createHold - Nights held by others are reported by room number")
+    @SuppressWarnings("unchecked")
+    void createHold_HeldByOthers_ReportsRoomNumbers() {
+        stubRooms();
+        when(reservationRoomRepository.findConflictingRoomNumbers(any(), any(), any())).thenReturn(List.of());
+        // Second night of room 2
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of(4L));
+
+        AppError error = assertThrows(AppError.class, () -> roomHoldService.createHold(request(), OWNER));
+
+        assertEquals(ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError().getErrorCode(), error.getErrorCode());
+        assertEquals(List.of("102"), error.getDetails().get("roomNumbers"));
+    }
+
+    @Test
+    @DisplayName("createHold - Booked rooms are rejected before Redis is touched")
+    void createHold_BookedRoom_Rejected() {
+        stubRooms();
+        when(reservationRoomRepository.findConflictingRoomNumbers(any(), any(), any())).thenReturn(List.of("101"));
+
+        AppError error = assertThrows(AppError.class, () -> roomHoldService.createHold(request(), OWNER));
+
+        assertEquals(List.of("101"), error.getDetails().get("roomNumbers"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("createHold - More room nights than the cap are rejected up front")
+    void createHold_TooManyRoomNights_Rejected() {
+        ReflectionTestUtils.setField(roomHoldService, "maxRoomNights", 3);
+
+        AppError error = assertThrows(AppError.class, () -> roomHoldService.createHold(request(), OWNER));
+
+        assertEquals(ErrorDefinition.HOLD_TOO_LARGE.toAppError().getErrorCode(), error.getErrorCode());
+        assertEquals(4L, error.getDetails().get("roomNights"));
+        verifyNoInteractions(roomRepository, redisTemplate);
+    }
+
+    @Test
+    @DisplayName("createHold - Guest with the most open holds is rejected")
+    @SuppressWarnings("unchecked")
+    void createHold_TooManyOpenHolds_Rejected() {
+        stubRooms();
+        when(reservationRoomRepository.findConflictingRoomNumbers(any(), any(), any())).thenReturn(List.of());
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of(-1L));
+
+        AppError error = assertThrows(AppError.class, () -> roomHoldService.createHold(request(), OWNER));
+
+        assertEquals(ErrorDefinition.HOLD_LIMIT_EXCEEDED.toAppError().getErrorCode(), error.getErrorCode());
+        assertEquals(3, error.getDetails().get("maxOpenHolds"));
+    }
+
+    @Test
+    @DisplayName("getOwnHold - Another guest's hold is forbidden")
+    void getOwnHold_OtherGuest_Forbidden() {
+        UUID holdId = UUID.randomUUID();
+        stubHold(holdId);
+
+        AppError error = assertThrows(AppError.class, () -> roomHoldService.getOwnHold(holdId, UUID.randomUUID()));
+
+        assertEquals(ErrorDefinition.HOLD_FORBIDDEN.toAppError().getErrorCode(), error.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("releaseOwnHold - Another guest's hold is left in place")
+    @SuppressWarnings("unchecked")
+    void releaseOwnHold_OtherGuest_NotReleased() {
+        UUID holdId = UUID.randomUUID();
+        stubHold(holdId);
+
+        assertThrows(AppError.class, () -> roomHoldService.releaseOwnHold(holdId, UUID.randomUUID()));
+
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("releaseOwnHold - Own hold is released with its owner's open-hold set")
+    @SuppressWarnings("unchecked")
+    void releaseOwnHold_Owner_Released() {
+        UUID holdId = UUID.randomUUID();
+        stubHold(holdId);
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+
+        roomHoldService.releaseOwnHold(holdId, OWNER);
+
+        verify(redisTemplate).execute(any(RedisScript.class), keys.capture(), any(Object[].class));
+        assertEquals(List.of("hold:" + holdId, "hold:owner:" + OWNER,
+                "hold:night:" + ROOM_1 + ":" + checkIn, "hold:night:" + ROOM_1 + ":" + checkIn.plusDays(1)),
+                keys.getValue());
+    }
+
+    @Test
+    @DisplayName("findHeldNights - One MGET; nights of the caller's own hold are ignored")
+    @SuppressWarnings("unchecked")
+    void findHeldNights_IgnoresOwnHold() {
+        UUID ownHold = UUID.randomUUID();
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList()))
+                .thenReturn(Arrays.asList(ownHold.toString(), null, null, "other-hold"));
+
+        Map<String, List<LocalDate>> held = roomHoldService.findHeldNights(
+                List.of(ROOM_1.toString(), ROOM_2.toString()), checkIn, checkOut, ownHold);
+
+        assertEquals(Map.of(ROOM_2.toString(), List.of(checkIn.plusDays(1))), held);
+        verify(valueOperations, times(1)).multiGet(anyList());
+    }
+
+    @Test
+    @DisplayName("findHeldRoomIds - Redis failure reports no holds")
+    void findHeldRoomIds_RedisDown_ReturnsEmpty() {
+        when(redisTemplate.opsForValue()).thenThrow(new IllegalStateException("connection refused"));
+
+        assertTrue(roomHoldService.findHeldRoomIds(List.of(ROOM_1.toString()), checkIn, checkOut, null).isEmpty());
+    }
+
+    private RoomHoldRequest request() {
+        return new RoomHoldRequest(List.of(ROOM_1, ROOM_2, ROOM_1), checkIn, checkOut);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubHold(UUID holdId) {
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.entries("hold:" + holdId)).thenReturn(Map.of(
+                "owner", OWNER.toString(),
+                "rooms", ROOM_1.toString(),
+                "checkIn", checkIn.toString(),
+                "checkOut", checkOut.toString(),
+                "expiresAt", String.valueOf(System.currentTimeMillis() + 60_000)));
+    }
+
+    private void stubRooms() {
+        when(roomRepository.findAllById(List.of(ROOM_1.toString(), ROOM_2.toString()))).thenReturn(List.of(
+                Room.builder().id(ROOM_1.toString()).roomNumber("101").build(),
+                Room.builder().id(ROOM_2.toString()).roomNumber("102").build()));
+    }
+}
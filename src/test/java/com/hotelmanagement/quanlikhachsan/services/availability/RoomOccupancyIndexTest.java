@@ -0,0 +1,182 @@
+package com.hotelmanagement.quanlikhachsan.services.availability;
+
+import com.hotelmanagement.quanlikhachsan.repository.ReservationRoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RoomOccupancyIndex
+ * Tests bitset maintenance and overlap rules against the repository semantics
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoomOccupancyIndex Tests")
+class RoomOccupancyIndexTest {
+
+    @Mock
+    private ReservationRoomRepository reservationRoomRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @InjectMocks
+    private RoomOccupancyIndex occupancyIndex;
+
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(occupancyIndex, "horizonDays", 30);
+        ReflectionTestUtils.setField(occupancyIndex, "syncChannel", "availability:occupancy");
+        today = LocalDate.now();
+    }
+
+    @Test
+    @DisplayName("findOccupiedRoomIds - Not built yet returns empty")
+    void findOccupiedRoomIds_BeforeRebuild_ReturnsEmpty() {
+        assertTrue(occupancyIndex.findOccupiedRoomIds(today.plusDays(1), today.plusDays(2)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("rebuild - Seeds occupancy from active stays")
+    void rebuild_SeedsFromRepository() {
+        when(reservationRoomRepository.findActiveStaysEndingOnOrAfter(any()))
+                .thenReturn(List.of(stay("room-1", today.plusDays(5), today.plusDays(8))));
+
+        occupancyIndex.rebuild();
+
+        assertTrue(occupancyIndex.isReady());
+        assertEquals(Optional.of(Set.of("room-1")),
+                occupancyIndex.findOccupiedRoomIds(today.plusDays(6), today.plusDays(7)));
+        assertEquals(Optional.of(Set.of()),
+                occupancyIndex.findOccupiedRoomIds(today.plusDays(10), today.plusDays(12)));
+    }
+
+    @Test
+    @DisplayName("findOccupiedRoomIds - Same-day turnover is not a conflict")
+    void findOccupiedRoomIds_TouchingStay_IsFree() {
+        when(reservationRoomRepository.findActiveStaysEndingOnOrAfter(any()))
+                .thenReturn(List.of(stay("room-1", today.plusDays(5), today.plusDays(8))));
+        occupancyIndex.rebuild();
+
+        assertEquals(Optional.of(Set.of()),
+                occupancyIndex.findOccupiedRoomIds(today.plusDays(8), today.plusDays(10)));
+        assertEquals(Optional.of(Set.of()),
+                occupancyIndex.findOccupiedRoomIds(today.plusDays(2), today.plusDays(5)));
+        assertEquals(Optional.of(Set.of("room-1")),
+                occupancyIndex.findOccupiedRoomIds(today.plusDays(7), today.plusDays(9)));
+    }
+
+    @Test
+    @DisplayName("occupy/release - Keeps index current")
+    void occupyAndRelease_UpdateIndex() {
+        when(reservationRoomRepository.findActiveStaysEndingOnOrAfter(any())).thenReturn(List.of());
+        occupancyIndex.rebuild();
+
+        occupancyIndex.occupy(List.of("room-1", "room-2"), today.plusDays(3), today.plusDays(4));
+        assertEquals(Optional.of(Set.of("room-1", "room-2")),
+                occupancyIndex.findOccupiedRoomIds(today.plusDays(3), today.plusDays(4)));
+
+        occupancyIndex.release(List.of("room-1"), today.plusDays(3), today.plusDays(4));
+        assertEquals(Optional.of(Set.of("room-2")),
+                occupancyIndex.findOccupiedRoomIds(today.plusDays(3), today.plusDays(4)));
+    }
+
+    @Test
+    @DisplayName("occupy - Change is published for the other nodes")
+    void occupy_PublishesChange() {
+        when(reservationRoomRepository.findActiveStaysEndingOnOrAfter(any())).thenReturn(List.of());
+        occupancyIndex.rebuild();
+
+        occupancyIndex.occupy(List.of("room-1", "room-2"), today.plusDays(3), today.plusDays(4));
+
+        verify(redisTemplate).convertAndSend(eq("availability:occupancy"),
+                endsWith("|occupy|" + today.plusDays(3) + "|" + today.plusDays(4) + "|room-1,room-2"));
+    }
+
+    @Test
+    @DisplayName("onMessage - Changes from other nodes are applied, own messages are skipped")
+    void onMessage_AppliesOtherNodesOnly() {
+        when(reservationRoomRepository.findActiveStaysEndingOnOrAfter(any())).thenReturn(List.of());
+        occupancyIndex.rebuild();
+        String nights = "|" + today.plusDays(3) + "|" + today.plusDays(4) + "|";
+        String ownNode = (String) ReflectionTestUtils.getField(occupancyIndex, "nodeId");
+
+        occupancyIndex.onMessage(message("other-node|occupy" + nights + "room-1,room-2"), null);
+        occupancyIndex.onMessage(message(ownNode + "|release" + nights + "room-1"), null);
+        occupancyIndex.onMessage(message("other-node|release" + nights + "room-2"), null);
+
+        assertEquals(Optional.of(Set.of("room-1")),
+                occupancyIndex.findOccupiedRoomIds(today.plusDays(3), today.plusDays(4)));
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("findOccupiedRoomIds - Range beyond horizon returns empty")
+    void findOccupiedRoomIds_BeyondHorizon_ReturnsEmpty() {
+        when(reservationRoomRepository.findActiveStaysEndingOnOrAfter(any())).thenReturn(List.of());
+        occupancyIndex.rebuild();
+
+        assertTrue(occupancyIndex.findOccupiedRoomIds(today.plusDays(29), today.plusDays(40)).isEmpty());
+        assertTrue(occupancyIndex.findOccupiedRoomIds(today.minusDays(3), today.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("rebuild - Repository failure leaves index unusable")
+    void rebuild_RepositoryFailure_NotReady() {
+        when(reservationRoomRepository.findActiveStaysEndingOnOrAfter(any()))
+                .thenThrow(new RuntimeException("DB down"));
+
+        occupancyIndex.rebuild();
+
+        assertFalse(occupancyIndex.isReady());
+        assertTrue(occupancyIndex.findOccupiedRoomIds(today.plusDays(1), today.plusDays(2)).isEmpty());
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage("availability:occupancy".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ReservationRoomRepository.RoomStay stay(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        return new ReservationRoomRepository.RoomStay() {
+            @Override
+            public String getRoomId() {
+                return roomId;
+            }
+
+            @Override
+            public LocalDate getCheckIn() {
+                return checkIn;
+            }
+
+            @Override
+            public LocalDate getCheckOut() {
+                return checkOut;
+            }
+        };
+    }
+}
@@ -0,0 +1,164 @@
+package com.hotelmanagement.quanlikhachsan.services.availability;
+
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomTypeInventoryResponse;
+import com.hotelmanagement.quanlikhachsan.exception.AppError;
+import com.hotelmanagement.quanlikhachsan.model.room.Room;
+import com.hotelmanagement.quanlikhachsan.model.room.RoomType;
+import com.hotelmanagement.quanlikhachsan.model.room.RoomTypeInventory;
+import com.hotelmanagement.quanlikhachsan.repository.ReservationRoomRepository;
+import com.hotelmanagement.quanlikhachsan.repository.RoomRepository;
+import com.hotelmanagement.quanlikhachsan.repository.RoomTypeInventoryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RoomTypeInventoryService
+ * Tests per-type grouping of sold rooms, locking, reconciliation and nightly inventory lookup
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoomTypeInventoryService Tests")
+class RoomTypeInventoryServiceTest {
+
+    @Mock
+    private RoomTypeInventoryRepository inventoryRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private RoomTypeInventoryService inventoryService;
+
+    private final LocalDate checkIn = LocalDate.of(2030, 5, 1);
+    private final LocalDate checkOut = LocalDate.of(2030, 5, 3);
+
+    @Test
+    @DisplayName("reserve - Adds sold rooms once per room type")
+    void reserve_GroupsRoomsByType() {
+        inventoryService.reserve(
+                List.of(room("r1", "deluxe"), room("r2", "deluxe"), room("r3", "suite")),
+                checkIn, checkOut);
+
+        InOrder inOrder = inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).lockShared();
+        inOrder.verify(inventoryRepository).addSold("deluxe", checkIn, checkOut, 2);
+        verify(inventoryRepository).addSold("suite", checkIn, checkOut, 1);
+        verifyNoMoreInteractions(inventoryRepository);
+    }
+
+    @Test
+    @DisplayName("release - Rooms without a type are ignored")
+    void release_RoomWithoutType_Ignored() {
+        inventoryService.release(List.of(room("r1", null)), checkIn, checkOut);
+
+        verify(inventoryRepository, never()).subtractSold(anyString(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("changeRoomType - Moves the room and the nights of its stays from today on")
+    void changeRoomType_MovesTotalAndRemainingNights() {
+        LocalDate today = LocalDate.now();
+        ReservationRoomRepository.RoomStay current = stay(today.minusDays(2), today.plusDays(1));
+        ReservationRoomRepository.RoomStay future = stay(checkIn, checkOut);
+
+        inventoryService.changeRoomType("deluxe", "suite", List.of(current, future));
+
+        InOrder inOrder = inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).lockShared();
+        inOrder.verify(inventoryRepository).adjustTotal("deluxe", -1);
+        verify(inventoryRepository).adjustTotal("suite", 1);
+        verify(inventoryRepository).subtractSold("deluxe", today, today.plusDays(1), 1);
+        verify(inventoryRepository).addSold("suite", today, today.plusDays(1), 1);
+        verify(inventoryRepository).subtractSold("deluxe", checkIn, checkOut, 1);
+        verify(inventoryRepository).addSold("suite", checkIn, checkOut, 1);
+        verifyNoMoreInteractions(inventoryRepository);
+    }
+
+    @Test
+    @DisplayName("reconcile - Rebuilds under the exclusive lock")
+    void reconcile_RebuildsUnderExclusiveLock() {
+        runTransactionCallbacks();
+
+        inventoryService.reconcile();
+
+        InOrder inOrder = inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).lockExclusive();
+        inOrder.verify(inventoryRepository).rebuild(any(), any());
+        inOrder.verify(inventoryRepository).deleteBefore(any());
+    }
+
+    @Test
+    @DisplayName("reconcile - A failed rebuild is logged, not thrown")
+    void reconcile_Failure_Contained() {
+        runTransactionCallbacks();
+        when(inventoryRepository.rebuild(any(), any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertDoesNotThrow(() -> inventoryService.reconcile());
+        verify(inventoryRepository, never()).deleteBefore(any());
+    }
+
+    @Test
+    @DisplayName("getInventory - Missing nights default to the room count")
+    void getInventory_FillsMissingNights() {
+        when(inventoryRepository.findByRoomTypeIdAndStayDateBetweenOrderByStayDate(
+                "deluxe", checkIn, checkOut.minusDays(1)))
+                .thenReturn(List.of(new RoomTypeInventory("deluxe", checkIn, 5, 2)));
+        when(roomRepository.countByTypeId("deluxe")).thenReturn(5L);
+
+        List<RoomTypeInventoryResponse> nights = inventoryService.getInventory("deluxe", checkIn, checkOut);
+
+        assertEquals(List.of(
+                new RoomTypeInventoryResponse(checkIn, 5, 2, 3),
+                new RoomTypeInventoryResponse(checkIn.plusDays(1), 5, 0, 5)), nights);
+    }
+
+    @Test
+    @DisplayName("getInventory - Empty range throws")
+    void getInventory_InvalidRange_Throws() {
+        assertThrows(AppError.class, () -> inventoryService.getInventory("deluxe", checkOut, checkIn));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionCallbacks() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private Room room(String id, String typeId) {
+        Room room = new Room();
+        room.setId(id);
+        if (typeId != null) {
+            room.setType(RoomType.builder().id(typeId).build());
+        }
+        return room;
+    }
+
+    private ReservationRoomRepository.RoomStay stay(LocalDate from, LocalDate to) {
+        ReservationRoomRepository.RoomStay stay = mock(ReservationRoomRepository.RoomStay.class);
+        when(stay.getCheckIn()).thenReturn(from);
+        when(stay.getCheckOut()).thenReturn(to);
+        return stay;
+    }
+}
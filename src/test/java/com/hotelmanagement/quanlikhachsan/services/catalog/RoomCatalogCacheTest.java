@@ -0,0 +1,214 @@
+package com.hotelmanagement.quanlikhachsan.services.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotelmanagement.quanlikhachsan.dto.response.RoomResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.RoomTypeResponse;
+import com.hotelmanagement.quanlikhachsan.model.room.RoomType;
+import com.hotelmanagement.quanlikhachsan.repository.RoomStatusRepository;
+import com.hotelmanagement.quanlikhachsan.repository.RoomTypeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RoomCatalogCache
+ * Tests local/Redis read-through, Redis failure fallback, invalidation and
+ * generation-checked write-back
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoomCatalogCache Tests")
+class RoomCatalogCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private RoomTypeRepository roomTypeRepository;
+
+    @Mock
+    private RoomStatusRepository roomStatusRepository;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private RoomCatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogCache, "localMaxEntries", 100L);
+        ReflectionTestUtils.setField(catalogCache, "localTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(catalogCache, "remoteTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(catalogCache, "invalidationChannel", "catalog:invalidate");
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        catalogCache.init();
+    }
+
+    @Test
+    @DisplayName("getRoomType - Loads once, then serves from the local cache")
+    void getRoomType_SecondReadIsLocal() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+        when(roomTypeRepository.findById("type-1")).thenReturn(Optional.of(
+                RoomType.builder().id("type-1").name("Deluxe").pricePerNight(120.0).build()));
+
+        RoomTypeResponse first = catalogCache.getRoomType("type-1");
+        RoomTypeResponse second = catalogCache.getRoomType("type-1");
+
+        assertEquals("Deluxe", first.name());
+        assertSame(first, second);
+        verify(roomTypeRepository, times(1)).findById("type-1");
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("catalog:roomType:type-1",
+                "catalog:generation")), eq(""), anyString(), eq("3600000"));
+    }
+
+    @Test
+    @DisplayName("getRoom - Write-back is conditional on the generation read with the miss")
+    void getRoom_WriteBackCarriesGeneration() {
+        when(valueOperations.multiGet(List.of("catalog:room:room-1", "catalog:generation")))
+                .thenReturn(Arrays.asList(null, "7"));
+
+        catalogCache.getRoom("room-1", () -> new RoomResponse("room-1", "101", null, null, (short) 1, null,
+                List.of()));
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("catalog:room:room-1",
+                "catalog:generation")), eq("7"), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("getRoom - Invalidation during the load skips the write-back")
+    void getRoom_InvalidatedWhileLoading_NotWrittenBack() {
+        RoomResponse room = new RoomResponse("room-1", "101", null, null, (short) 1, null, List.of());
+
+        catalogCache.getRoom("room-1", () -> {
+            catalogCache.onMessage(new DefaultMessage("catalog:invalidate".getBytes(StandardCharsets.UTF_8),
+                    "catalog:room:room-1".getBytes(StandardCharsets.UTF_8)), null);
+            return room;
+        });
+
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("getRoomType - Redis hit does not reach the database")
+    void getRoomType_RemoteHit_SkipsDatabase() {
+        when(valueOperations.multiGet(List.of("catalog:roomType:type-1", "catalog:generation")))
+                .thenReturn(Arrays.asList(
+                        "{\"id\":\"type-1\",\"name\":\"Deluxe\",\"description\":null,\"pricePerNight\":120.0}",
+                        "7"));
+
+        RoomTypeResponse type = catalogCache.getRoomType("type-1");
+
+        assertEquals(new RoomTypeResponse("type-1", "Deluxe", null, 120.0), type);
+        verifyNoInteractions(roomTypeRepository);
+    }
+
+    @Test
+    @DisplayName("getAllRooms - Redis down falls back to the loader")
+    void getAllRooms_RedisDown_UsesLoader() {
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("down"));
+        RoomResponse room = new RoomResponse("room-1", "101", null, null, (short) 1, null, List.of());
+
+        List<RoomResponse> rooms = catalogCache.getAllRooms(() -> List.of(room));
+
+        assertEquals(List.of(room), rooms);
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("getAllRooms - Cached list is unmodifiable whether loaded or read from Redis")
+    void getAllRooms_SharedListUnmodifiable() {
+        when(valueOperations.multiGet(anyList()))
+                .thenReturn(Arrays.asList(null, "7"))
+                .thenReturn(Arrays.asList("[{\"id\":\"room-1\",\"roomNumber\":\"101\"}]", "7"));
+        RoomResponse room = new RoomResponse("room-1", "101", null, null, (short) 1, null, List.of());
+
+        List<RoomResponse> loaded = catalogCache.getAllRooms(() -> new ArrayList<>(List.of(room)));
+        catalogCache.onMessage(new DefaultMessage("catalog:invalidate".getBytes(StandardCharsets.UTF_8),
+                "catalog:room:all".getBytes(StandardCharsets.UTF_8)), null);
+        List<RoomResponse> remote = catalogCache.getAllRooms(ArrayList::new);
+
+        assertThrows(UnsupportedOperationException.class, () -> loaded.remove(0));
+        assertThrows(UnsupportedOperationException.class, () -> remote.remove(0));
+        assertEquals("room-1", remote.get(0).id());
+    }
+
+    @Test
+    @DisplayName("invalidateRoom - Evicts locally, bumps the generation, deletes in Redis and publishes")
+    void invalidateRoom_EvictsAndPublishes() {
+        AtomicInteger loads = new AtomicInteger();
+        catalogCache.getAllRooms(() -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        catalogCache.invalidateRoom("room-1");
+        catalogCache.getAllRooms(() -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(2, loads.get());
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("catalog:generation", "catalog:room:all", "catalog:room:room-1")));
+        verify(redisTemplate).convertAndSend("catalog:invalidate", "catalog:room:all,catalog:room:room-1");
+    }
+
+    @Test
+    @DisplayName("onMessage - Invalidation from another node evicts local entries")
+    void onMessage_EvictsLocalEntries() {
+        AtomicInteger loads = new AtomicInteger();
+        catalogCache.getRoom("room-1", () -> {
+            loads.incrementAndGet();
+            return new RoomResponse("room-1", "101", null, null, (short) 1, null, List.of());
+        });
+
+        catalogCache.onMessage(new DefaultMessage("catalog:invalidate".getBytes(StandardCharsets.UTF_8),
+                "catalog:room:all,catalog:room:room-1".getBytes(StandardCharsets.UTF_8)), null);
+        catalogCache.getRoom("room-1", () -> {
+            loads.incrementAndGet();
+            return new RoomResponse("room-1", "101", null, null, (short) 1, null, List.of());
+        });
+
+        assertEquals(2, loads.get());
+    }
+}
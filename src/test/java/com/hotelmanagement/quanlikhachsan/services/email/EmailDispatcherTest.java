@@ -0,0 +1,149 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import com.hotelmanagement.quanlikhachsan.model.email.EmailType;
+import com.hotelmanagement.quanlikhachsan.model.email.OutboundEmail;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailDispatcher
+ * Tests claiming for idle workers, enqueue wake-ups and delivery outcome handling
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailDispatcher Tests")
+class EmailDispatcherTest {
+
+    @Mock
+    private EmailQueue emailQueue;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "workers", 2);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 20);
+        ReflectionTestUtils.setField(dispatcher, "workerBatchSize", 4);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("poll - Claims at most one worker batch per idle worker")
+    void poll_ClaimsUpToIdleWorkerBatches() {
+        when(emailQueue.claim(anyInt())).thenReturn(List.of());
+
+        dispatcher.poll();
+
+        verify(emailQueue).claim(8);
+    }
+
+    @Test
+    @DisplayName("poll - Claimed emails are split into one batch per idle worker")
+    void poll_SplitsClaimAcrossWorkers() {
+        List<OutboundEmail> claimed = List.of(email(), email(), email());
+        when(emailQueue.claim(anyInt())).thenReturn(claimed);
+        when(emailService.deliverBatch(anyList())).thenReturn(Map.of());
+
+        dispatcher.poll();
+
+        verify(emailService, timeout(2000)).deliverBatch(claimed.subList(0, 2));
+        verify(emailService, timeout(2000)).deliverBatch(claimed.subList(2, 3));
+        verify(emailQueue, timeout(2000).times(3)).markSent(any());
+    }
+
+    @Test
+    @DisplayName("poll - Failed email is handed back to the queue, the rest are marked sent")
+    void poll_PartialFailure_MarksEachEmail() {
+        OutboundEmail delivered = email();
+        OutboundEmail rejected = email();
+        MessagingException failure = new MessagingException("Mailbox unavailable");
+        when(emailQueue.claim(anyInt())).thenReturn(List.of(delivered, rejected));
+        when(emailService.deliverBatch(anyList())).thenAnswer(invocation -> {
+            List<OutboundEmail> batch = invocation.getArgument(0);
+            return batch.contains(rejected) ? Map.of(rejected.getId(), failure) : Map.of();
+        });
+
+        dispatcher.poll();
+
+        verify(emailQueue, timeout(2000)).markSent(delivered.getId());
+        verify(emailQueue, timeout(2000)).markFailed(eq(rejected.getId()), eq(failure));
+    }
+
+    @Test
+    @DisplayName("poll - Unexpected error fails the whole batch")
+    void poll_BatchError_MarksAllFailed() {
+        OutboundEmail email = email();
+        RuntimeException failure = new IllegalStateException("Pool closed");
+        when(emailQueue.claim(anyInt())).thenReturn(List.of(email));
+        when(emailService.deliverBatch(anyList())).thenThrow(failure);
+
+        dispatcher.poll();
+
+        verify(emailQueue, timeout(2000)).markFailed(email.getId(), failure);
+        verify(emailQueue, never()).markSent(any());
+    }
+
+    @Test
+    @DisplayName("onEmailEnqueued - Returns at once and claims on the poller thread")
+    void onEmailEnqueued_ClaimsOffTheCallerThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        CountDownLatch claimStarted = new CountDownLatch(1);
+        CountDownLatch finishClaim = new CountDownLatch(1);
+        when(emailQueue.claim(anyInt())).thenAnswer(invocation -> {
+            assertNotSame(caller, Thread.currentThread());
+            claimStarted.countDown();
+            finishClaim.await(2, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        dispatcher.onEmailEnqueued(new EmailQueue.EmailEnqueuedEvent(UUID.randomUUID()));
+
+        assertTrue(claimStarted.await(2, TimeUnit.SECONDS));
+        finishClaim.countDown();
+        verify(emailQueue, timeout(2000)).claim(8);
+    }
+
+    private OutboundEmail email() {
+        return OutboundEmail.builder()
+                .id(UUID.randomUUID())
+                .type(EmailType.WELCOME)
+                .recipient("guest@example.com")
+                .build();
+    }
+}
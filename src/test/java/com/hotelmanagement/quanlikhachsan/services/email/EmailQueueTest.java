@@ -0,0 +1,165 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import com.hotelmanagement.quanlikhachsan.model.email.EmailType;
+import com.hotelmanagement.quanlikhachsan.model.email.OutboundEmail;
+import com.hotelmanagement.quanlikhachsan.model.email.OutboundEmailStatus;
+import com.hotelmanagement.quanlikhachsan.repository.OutboundEmailRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailQueue
+ * Tests enqueue, claiming, retry backoff and dead-lettering
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailQueue Tests")
+class EmailQueueTest {
+
+    @Mock
+    private OutboundEmailRepository outboundEmailRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private EmailQueue emailQueue;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(emailQueue, "maxAttempts", 3);
+        ReflectionTestUtils.setField(emailQueue, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(emailQueue, "maxBackoff", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(emailQueue, "claimTimeout", Duration.ofMinutes(5));
+        when(meterRegistry.getIfAvailable(any())).thenReturn(registry);
+        emailQueue.init();
+    }
+
+    @Test
+    @DisplayName("enqueue - Saves a pending row and publishes an event")
+    void enqueue_SavesPendingEmail() {
+        UUID id = UUID.randomUUID();
+        when(outboundEmailRepository.save(any(OutboundEmail.class))).thenAnswer(invocation -> {
+            OutboundEmail email = invocation.getArgument(0);
+            email.setId(id);
+            return email;
+        });
+
+        UUID queued = emailQueue.enqueue(EmailType.WELCOME, "guest@example.com", Map.of("fullName", "Guest"));
+
+        assertEquals(id, queued);
+        verify(outboundEmailRepository).save(argThat(email -> email.getStatus() == OutboundEmailStatus.PENDING
+                && email.getType() == EmailType.WELCOME
+                && "Guest".equals(email.getPayload().get("fullName"))));
+        verify(eventPublisher).publishEvent(new EmailQueue.EmailEnqueuedEvent(id));
+    }
+
+    @Test
+    @DisplayName("claim - Marks claimed rows SENDING and counts the attempt")
+    void claim_MarksSending() {
+        OutboundEmail email = email(0);
+        when(outboundEmailRepository.lockDeliverable(any(), any(), eq(5))).thenReturn(List.of(email));
+
+        List<OutboundEmail> claimed = emailQueue.claim(5);
+
+        assertEquals(List.of(email), claimed);
+        assertEquals(OutboundEmailStatus.SENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertNotNull(email.getClaimedAt());
+    }
+
+    @Test
+    @DisplayName("markFailed - Retries later with exponential backoff")
+    void markFailed_SchedulesRetry() {
+        OutboundEmail email = email(2);
+        when(outboundEmailRepository.findById(email.getId())).thenReturn(Optional.of(email));
+
+        LocalDateTime before = LocalDateTime.now();
+        emailQueue.markFailed(email.getId(), new IllegalStateException("SMTP down"));
+
+        assertEquals(OutboundEmailStatus.PENDING, email.getStatus());
+        // 30s doubled once, capped at 1m
+        assertFalse(email.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+        assertTrue(email.getLastError().contains("SMTP down"));
+        assertEquals(1, registry.get("email.delivery").tag("result", "retry").counter().count());
+    }
+
+    @Test
+    @DisplayName("markFailed - Dead-letters after the last attempt")
+    void markFailed_LastAttempt_DeadLetters() {
+        OutboundEmail email = email(3);
+        when(outboundEmailRepository.findById(email.getId())).thenReturn(Optional.of(email));
+
+        emailQueue.markFailed(email.getId(), new IllegalStateException("Mailbox unavailable"));
+
+        assertEquals(OutboundEmailStatus.DEAD, email.getStatus());
+        assertEquals(1, registry.get("email.delivery").tag("result", "dead").counter().count());
+    }
+
+    @Test
+    @DisplayName("markSent - Clears the payload so the OTP is not kept")
+    void markSent_ClearsPayload() {
+        OutboundEmail email = email(1);
+        when(outboundEmailRepository.findById(email.getId())).thenReturn(Optional.of(email));
+
+        emailQueue.markSent(email.getId());
+
+        assertEquals(OutboundEmailStatus.SENT, email.getStatus());
+        assertNotNull(email.getSentAt());
+        assertTrue(email.getPayload().isEmpty());
+    }
+
+    @Test
+    @DisplayName("markSent - Records the time from enqueue to delivery")
+    void markSent_RecordsQueueLatency() {
+        OutboundEmail email = email(1);
+        email.setCreatedAt(LocalDateTime.now().minusSeconds(90));
+        when(outboundEmailRepository.findById(email.getId())).thenReturn(Optional.of(email));
+
+        emailQueue.markSent(email.getId());
+
+        Timer latency = registry.get("email.queue.latency").timer();
+        assertEquals(1, latency.count());
+        assertTrue(latency.totalTime(TimeUnit.SECONDS) >= 90);
+    }
+
+    private OutboundEmail email(int attempts) {
+        return OutboundEmail.builder()
+                .id(UUID.randomUUID())
+                .type(EmailType.VERIFICATION)
+                .recipient("guest@example.com")
+                .payload(new HashMap<>(Map.of("otp", "123456")))
+                .attempts(attempts)
+                .status(attempts == 0 ? OutboundEmailStatus.PENDING : OutboundEmailStatus.SENDING)
+                .build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import com.hotelmanagement.quanlikhachsan.model.email.EmailType;
+import com.hotelmanagement.quanlikhachsan.model.email.OutboundEmail;
+import com.hotelmanagement.quanlikhachsan.services.email.template.EmailTemplateEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.SendFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailService queueing and batch delivery
+ * Runs against a local fake SMTP server
+ */
+@DisplayName("EmailService Tests")
+class EmailServiceTest {
+
+    private FakeSmtpServer smtpServer;
+    private SmtpConnectionPool pool;
+    private EmailQueue emailQueue;
+    private EmailService emailService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpServer.port());
+
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+        pool = new SmtpConnectionPool(mailSender, meterRegistry);
+        ReflectionTestUtils.setField(pool, "maxConnections", 2);
+        ReflectionTestUtils.setField(pool, "messagesPerConnection", 100);
+        ReflectionTestUtils.setField(pool, "idleTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(pool, "borrowTimeout", Duration.ofSeconds(5));
+        pool.init();
+
+        EmailTemplateEngine templateEngine = new EmailTemplateEngine();
+        ReflectionTestUtils.setField(templateEngine, "location", "classpath:templates/email/");
+        ReflectionTestUtils.setField(templateEngine, "defaultLanguage", "vi");
+        ReflectionTestUtils.invokeMethod(templateEngine, "init");
+
+        emailQueue = mock(EmailQueue.class);
+        emailService = new EmailService(mailSender, emailQueue, pool, templateEngine);
+        ReflectionTestUtils.setField(emailService, "fromAddress", "noreply@hotelapp.com");
+        ReflectionTestUtils.setField(emailService, "fromName", "Hotel Management System");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.close();
+        smtpServer.close();
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    @DisplayName("sendReservationConfirmation - Queues formatted details in the request locale")
+    @SuppressWarnings("unchecked")
+    void sendReservationConfirmation_QueuesPayload() {
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        UUID reservationId = UUID.fromString("ab12cd34-0000-0000-0000-000000000000");
+
+        emailService.sendReservationConfirmation("guest@example.com", "Guest", reservationId,
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 4), List.of("101", "102"),
+                new BigDecimal("4500000.00"));
+
+        ArgumentCaptor<Map<String, String>> payload = ArgumentCaptor.forClass(Map.class);
+        verify(emailQueue).enqueue(eq(EmailType.RESERVATION_CONFIRMATION), eq("guest@example.com"),
+                payload.capture());
+        assertEquals("AB12CD34", payload.getValue().get("reservationCode"));
+        assertEquals("01/03/2025", payload.getValue().get("checkIn"));
+        assertEquals("101, 102", payload.getValue().get("rooms"));
+        assertEquals("4,500,000", payload.getValue().get("totalAmount"));
+        assertEquals("en", payload.getValue().get("locale"));
+    }
+
+    @Test
+    @DisplayName("deliverBatch - Sends every email over one SMTP session")
+    void deliverBatch_AllDelivered_OneSession() {
+        List<OutboundEmail> emails = List.of(
+                verification("a@example.com"), welcome("b@example.com"), welcome("c@example.com"));
+
+        Map<UUID, Exception> failures = emailService.deliverBatch(emails);
+
+        assertTrue(failures.isEmpty());
+        assertEquals(3, smtpServer.messages());
+        assertEquals(1, smtpServer.sessions());
+    }
+
+    @Test
+    @DisplayName("deliverBatch - Renders reservation emails in the queued locale")
+    void deliverBatch_ReservationEmails_Delivered() {
+        OutboundEmail confirmation = OutboundEmail.builder()
+                .id(UUID.randomUUID())
+                .type(EmailType.RESERVATION_CONFIRMATION)
+                .recipient("a@example.com")
+                .payload(Map.of("fullName", "Guest", "reservationCode", "AB12CD34", "locale", "en"))
+                .build();
+        OutboundEmail cancellation = OutboundEmail.builder()
+                .id(UUID.randomUUID())
+                .type(EmailType.RESERVATION_CANCELLATION)
+                .recipient("b@example.com")
+                .payload(Map.of("fullName", "Guest", "reservationCode", "AB12CD34"))
+                .build();
+
+        Map<UUID, Exception> failures = emailService.deliverBatch(List.of(confirmation, cancellation));
+
+        assertTrue(failures.isEmpty());
+        assertEquals(2, smtpServer.messages());
+    }
+
+    @Test
+    @DisplayName("deliverBatch - Rejected recipient fails alone, the rest are delivered")
+    void deliverBatch_RejectedRecipient_OnlyThatEmailFails() {
+        OutboundEmail rejected = welcome("reject@example.com");
+        List<OutboundEmail> emails = List.of(welcome("a@example.com"), rejected, welcome("b@example.com"));
+
+        Map<UUID, Exception> failures = emailService.deliverBatch(emails);
+
+        assertEquals(1, failures.size());
+        assertInstanceOf(SendFailedException.class, failures.get(rejected.getId()));
+        assertEquals(2, smtpServer.messages());
+        assertEquals(1, smtpServer.sessions());
+    }
+
+    @Test
+    @DisplayName("deliverBatch - Unreachable server fails the whole batch")
+    void deliverBatch_ServerDown_AllFail() throws Exception {
+        smtpServer.close();
+        List<OutboundEmail> emails = List.of(welcome("a@example.com"), welcome("b@example.com"));
+
+        Map<UUID, Exception> failures = emailService.deliverBatch(emails);
+
+        assertEquals(2, failures.size());
+    }
+
+    private OutboundEmail verification(String to) {
+        return OutboundEmail.builder()
+                .id(UUID.randomUUID())
+                .type(EmailType.VERIFICATION)
+                .recipient(to)
+                .payload(Map.of("otp", "123456", "fullName", "Guest", "expirationMinutes", "5"))
+                .build();
+    }
+
+    private OutboundEmail welcome(String to) {
+        return OutboundEmail.builder()
+                .id(UUID.randomUUID())
+                .type(EmailType.WELCOME)
+                .recipient(to)
+                .payload(Map.of("fullName", "Guest"))
+                .build();
+    }
+}
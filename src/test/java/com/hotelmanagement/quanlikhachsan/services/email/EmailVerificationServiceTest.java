@@ -0,0 +1,70 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import com.hotelmanagement.quanlikhachsan.exception.email.OTPAttemptsExceededException;
+import com.hotelmanagement.quanlikhachsan.exception.email.OTPExpiredException;
+import com.hotelmanagement.quanlikhachsan.exception.email.OTPInvalidException;
+import com.hotelmanagement.quanlikhachsan.exception.email.ResendCooldownException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailVerificationService
+ * Tests mapping of OTP results onto the verification exceptions
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailVerificationService Tests")
+class EmailVerificationServiceTest {
+
+    private static final String EMAIL = "guest@example.com";
+
+    @Mock
+    private OTPService otpService;
+
+    @Mock
+    private EmailService emailService;
+
+    @InjectMocks
+    private EmailVerificationService verificationService;
+
+    @Test
+    @DisplayName("sendOTP - Cooldown from the generate script is a ResendCooldownException")
+    void sendOTP_Cooldown_Throws() {
+        when(otpService.generateOTP(EMAIL)).thenReturn(Optional.empty());
+
+        assertThrows(ResendCooldownException.class, () -> verificationService.sendOTP(EMAIL, "Guest"));
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    @DisplayName("verifyOTP - Valid OTP queues the welcome email")
+    void verifyOTP_Valid_SendsWelcome() {
+        when(otpService.validateOTP(EMAIL, "123456")).thenReturn(OTPService.ValidationResult.VALID);
+
+        assertTrue(verificationService.verifyOTP(EMAIL, "123456"));
+        verify(emailService).sendWelcomeEmail(EMAIL, "Guest");
+    }
+
+    @Test
+    @DisplayName("verifyOTP - Failed results map to the OTP exceptions")
+    void verifyOTP_Failures_MapToExceptions() {
+        when(otpService.validateOTP(anyString(), anyString())).thenReturn(
+                OTPService.ValidationResult.INVALID,
+                OTPService.ValidationResult.EXPIRED,
+                OTPService.ValidationResult.ATTEMPTS_EXCEEDED);
+
+        assertThrows(OTPInvalidException.class, () -> verificationService.verifyOTP(EMAIL, "000000"));
+        assertThrows(OTPExpiredException.class, () -> verificationService.verifyOTP(EMAIL, "000000"));
+        assertThrows(OTPAttemptsExceededException.class, () -> verificationService.verifyOTP(EMAIL, "000000"));
+        verifyNoInteractions(emailService);
+    }
+}
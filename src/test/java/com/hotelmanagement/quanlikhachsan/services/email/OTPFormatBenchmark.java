@@ -0,0 +1,45 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: zero-padding of a generated OTP. Uses a value that needs
+ * padding so the full path is measured.
+ *
+ * Run with: mvn -Pbenchmark test -Djmh.includes=OTPFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OTPFormatBenchmark {
+
+    private int otp = 4_821;
+    private int length = 6;
+
+    @Benchmark
+    public String formatOTP() {
+        return OTPService.formatOTP(otp, length);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OTPFormatBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
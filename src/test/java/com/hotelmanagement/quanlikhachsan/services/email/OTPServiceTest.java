@@ -0,0 +1,141 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OTPService
+ * Each operation must be a single script call on the one state hash
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OTPService Tests")
+class OTPServiceTest {
+
+    private static final String EMAIL = "guest@example.com";
+    private static final String STATE_KEY = "otp:state:" + EMAIL;
+    private static final List<String> KEYS = List.of(STATE_KEY);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @InjectMocks
+    private OTPService otpService;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(meterRegistry.getIfAvailable(any())).thenReturn(registry);
+        otpService.init();
+        ReflectionTestUtils.setField(otpService, "otpLength", 6);
+        ReflectionTestUtils.setField(otpService, "expirationMinutes", 5L);
+        ReflectionTestUtils.setField(otpService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(otpService, "resendCooldownSeconds", 60L);
+    }
+
+    @Test
+    @DisplayName("generateOTP - One script call stores a 6-digit OTP")
+    @SuppressWarnings("unchecked")
+    void generateOTP_Issued() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), anyString(), anyString(), eq("300000"),
+                eq("60000")))
+                .thenReturn(0L);
+
+        Optional<String> otp = otpService.generateOTP(EMAIL);
+
+        assertTrue(otp.isPresent());
+        assertTrue(otp.get().matches("\\d{6}"));
+        assertEquals(1, registry.counter("otp.issued", "result", "issued").count());
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS), eq(otp.get()), anyString(), eq("300000"),
+                eq("60000"));
+        verifyNoMoreInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("generateOTP - Active cooldown issues nothing")
+    @SuppressWarnings("unchecked")
+    void generateOTP_Cooldown_Empty() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), anyString(), anyString(), anyString(),
+                anyString()))
+                .thenReturn(42_000L);
+
+        assertTrue(otpService.generateOTP(EMAIL).isEmpty());
+        assertEquals(1, registry.counter("otp.issued", "result", "cooldown").count());
+    }
+
+    @Test
+    @DisplayName("validateOTP - Script codes decode to results in one call")
+    @SuppressWarnings("unchecked")
+    void validateOTP_DecodesScriptResult() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), eq("123456"), eq("3"), anyString(),
+                eq("3600000")))
+                .thenReturn(1L, 2L, 0L, 3L);
+
+        assertEquals(OTPService.ValidationResult.VALID, otpService.validateOTP(EMAIL, "123456"));
+        assertEquals(OTPService.ValidationResult.INVALID, otpService.validateOTP(EMAIL, "123456"));
+        assertEquals(OTPService.ValidationResult.EXPIRED, otpService.validateOTP(EMAIL, "123456"));
+        assertEquals(OTPService.ValidationResult.ATTEMPTS_EXCEEDED, otpService.validateOTP(EMAIL, "123456"));
+        verify(redisTemplate, times(4)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        verifyNoMoreInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("validateOTP - Outcomes are counted per result")
+    @SuppressWarnings("unchecked")
+    void validateOTP_CountsResults() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), anyString(), anyString(), anyString(),
+                anyString()))
+                .thenReturn(2L, 2L, 1L);
+
+        otpService.validateOTP(EMAIL, "000000");
+        otpService.validateOTP(EMAIL, "111111");
+        otpService.validateOTP(EMAIL, "123456");
+
+        assertEquals(2, registry.counter("otp.validations", "result", "invalid").count());
+        assertEquals(1, registry.counter("otp.validations", "result", "valid").count());
+        assertEquals(0, registry.counter("otp.validations", "result", "expired").count());
+    }
+
+    @Test
+    @DisplayName("State reads - Fields of the single hash are compared with the current time")
+    void stateReads_UseHashFields() {
+        long now = System.currentTimeMillis();
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.get(STATE_KEY, "r")).thenReturn(String.valueOf(now + 30_000));
+        when(hashOperations.get(STATE_KEY, "v")).thenReturn(String.valueOf(now + 60_000));
+        when(hashOperations.get(STATE_KEY, "a")).thenReturn("2");
+        when(hashOperations.get(STATE_KEY, "e")).thenReturn(null);
+
+        assertFalse(otpService.canResendOTP(EMAIL));
+        assertTrue(otpService.isVerified(EMAIL));
+        assertEquals(1, otpService.getRemainingAttempts(EMAIL));
+        assertEquals(0, otpService.getRemainingExpirationTime(EMAIL));
+    }
+}
@@ -0,0 +1,107 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: messages per second through a local fake SMTP server, with
+ * one session per message versus batches on a pooled connection. Both send
+ * a batch of messages per operation; scores are per message.
+ *
+ * Run with: mvn -Pbenchmark test -Djmh.includes=SmtpConnectionPoolBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmtpConnectionPoolBenchmark {
+
+    private static final int BATCH = 20;
+
+    private FakeSmtpServer smtpServer;
+    private JavaMailSenderImpl mailSender;
+    private SmtpConnectionPool pool;
+
+    @Setup
+    public void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpServer.port());
+
+        pool = new SmtpConnectionPool(mailSender,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        ReflectionTestUtils.setField(pool, "maxConnections", 1);
+        ReflectionTestUtils.setField(pool, "messagesPerConnection", 100);
+        ReflectionTestUtils.setField(pool, "ratePerConnection", 0.0);
+        ReflectionTestUtils.setField(pool, "idleTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(pool, "borrowTimeout", Duration.ofSeconds(5));
+        pool.init();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        pool.close();
+        smtpServer.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void sessionPerMessage() throws MessagingException {
+        for (int i = 0; i < BATCH; i++) {
+            mailSender.send(message());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void pooledBatch() throws MessagingException {
+        pool.withConnection(sender -> {
+            for (int i = 0; i < BATCH; i++) {
+                sender.send(message());
+            }
+            return null;
+        });
+    }
+
+    private MimeMessage message() throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom("noreply@hotelapp.com");
+        helper.setTo("guest@example.com");
+        helper.setSubject("Reservation confirmed");
+        helper.setText("See you soon");
+        return message;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SmtpConnectionPoolBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,160 @@
+package com.hotelmanagement.quanlikhachsan.services.email;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SmtpConnectionPool
+ * Runs against a local fake SMTP server; throughput is compared in
+ * SmtpConnectionPoolBenchmark
+ */
+@DisplayName("SmtpConnectionPool Tests")
+class SmtpConnectionPoolTest {
+
+    private FakeSmtpServer smtpServer;
+    private JavaMailSenderImpl mailSender;
+    private SmtpConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpServer.port());
+        pool = pool(4, 100, 0);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.close();
+        smtpServer.close();
+    }
+
+    @Test
+    @DisplayName("withConnection - Consecutive batches share one SMTP session")
+    void withConnection_ReusesSession() throws Exception {
+        for (int batch = 0; batch < 5; batch++) {
+            pool.withConnection(sender -> {
+                for (int i = 0; i < 10; i++) {
+                    sender.send(message("guest" + i + "@example.com"));
+                }
+                return null;
+            });
+        }
+
+        assertEquals(50, smtpServer.messages());
+        assertEquals(1, smtpServer.sessions());
+    }
+
+    @Test
+    @DisplayName("withConnection - Connection is replaced after messages-per-connection sends")
+    void withConnection_RotatesAfterMessageLimit() throws Exception {
+        pool.close();
+        pool = pool(1, 10, 0);
+
+        for (int i = 0; i < 25; i++) {
+            pool.withConnection(sender -> {
+                sender.send(message("guest@example.com"));
+                return null;
+            });
+        }
+
+        assertEquals(25, smtpServer.messages());
+        assertEquals(3, smtpServer.sessions());
+    }
+
+    @Test
+    @DisplayName("withConnection - Sends on one connection respect the rate limit")
+    void withConnection_RateLimited() throws Exception {
+        pool.close();
+        pool = pool(1, 100, 20);
+
+        long start = System.nanoTime();
+        pool.withConnection(sender -> {
+            for (int i = 0; i < 5; i++) {
+                sender.send(message("guest@example.com"));
+            }
+            return null;
+        });
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Four gaps of 50ms between five messages
+        assertTrue(elapsedMillis >= 190, "Expected at least 190ms but took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    @DisplayName("withConnection - A dropped connection is discarded and the next batch reconnects")
+    void withConnection_ReconnectsAfterFailure() throws Exception {
+        pool.close();
+        pool = pool(1, 100, 0);
+
+        assertThrows(MessagingException.class, () -> pool.withConnection(sender -> {
+            sender.send(message("drop@example.com"));
+            return null;
+        }));
+        pool.withConnection(sender -> {
+            sender.send(message("guest@example.com"));
+            return null;
+        });
+
+        assertEquals(1, smtpServer.messages());
+        assertEquals(2, smtpServer.sessions());
+    }
+
+    @Test
+    @DisplayName("withConnection - A rejected recipient keeps the session for the next batch")
+    void withConnection_RejectedRecipient_KeepsSession() throws Exception {
+        assertThrows(MessagingException.class, () -> pool.withConnection(sender -> {
+            sender.send(message("reject@example.com"));
+            return null;
+        }));
+        pool.withConnection(sender -> {
+            sender.send(message("guest@example.com"));
+            return null;
+        });
+
+        assertEquals(1, smtpServer.messages());
+        assertEquals(1, smtpServer.sessions());
+    }
+
+    @SuppressWarnings("unchecked")
+    private SmtpConnectionPool pool(int maxConnections, int messagesPerConnection, double rate) {
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+
+        SmtpConnectionPool connectionPool = new SmtpConnectionPool(mailSender, meterRegistry);
+        ReflectionTestUtils.setField(connectionPool, "maxConnections", maxConnections);
+        ReflectionTestUtils.setField(connectionPool, "messagesPerConnection", messagesPerConnection);
+        ReflectionTestUtils.setField(connectionPool, "ratePerConnection", rate);
+        ReflectionTestUtils.setField(connectionPool, "idleTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(connectionPool, "borrowTimeout", Duration.ofSeconds(5));
+        connectionPool.init();
+        return connectionPool;
+    }
+
+    private MimeMessage message(String to) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom("noreply@hotelapp.com");
+        helper.setTo(to);
+        helper.setSubject("Reservation confirmed");
+        helper.setText("See you soon");
+        return message;
+    }
+}
@@ -0,0 +1,78 @@
+package com.hotelmanagement.quanlikhachsan.services.email.template;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: precompiled verification template against the previous
+ * per-send String.formatted build of the same HTML.
+ *
+ * Run with: mvn -Pbenchmark test -Djmh.includes=EmailTemplateBenchmark
+ * (the profile adds -prof gc, so allocation per render is reported too)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final Locale VIETNAMESE = Locale.forLanguageTag("vi");
+    private static final Map<String, String> VALUES = Map.of(
+            "fullName", "Nguyễn Văn An", "otp", "482913", "expirationMinutes", "5");
+
+    private EmailTemplateEngine engine;
+    private String formatSource;
+
+    @Setup
+    public void setUp() throws Exception {
+        engine = new EmailTemplateEngine();
+        ReflectionTestUtils.setField(engine, "location", "classpath:templates/email/");
+        ReflectionTestUtils.setField(engine, "defaultLanguage", "vi");
+        engine.init();
+
+        // Same HTML as a format string, the way EmailService used to build it
+        formatSource = new ClassPathResource("templates/email/verification.vi.html")
+                .getContentAsString(StandardCharsets.UTF_8)
+                .replace("%", "%%")
+                .replace("{{fullName}}", "%1$s")
+                .replace("{{otp}}", "%2$s")
+                .replace("{{expirationMinutes}}", "%3$d");
+    }
+
+    @Benchmark
+    public String formatted() {
+        return formatSource.formatted(VALUES.get("fullName"), VALUES.get("otp"),
+                Long.parseLong(VALUES.get("expirationMinutes")));
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return engine.render("verification", VIETNAMESE, VALUES).html();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
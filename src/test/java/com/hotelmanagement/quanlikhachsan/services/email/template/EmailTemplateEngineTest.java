@@ -0,0 +1,88 @@
+package com.hotelmanagement.quanlikhachsan.services.email.template;
+
+import com.hotelmanagement.quanlikhachsan.model.email.EmailType;
+import com.hotelmanagement.quanlikhachsan.services.email.template.EmailTemplateEngine.RenderedEmail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmailTemplateEngine
+ * Uses the templates shipped in src/main/resources
+ */
+@DisplayName("EmailTemplateEngine Tests")
+class EmailTemplateEngineTest {
+
+    private EmailTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new EmailTemplateEngine();
+        ReflectionTestUtils.setField(engine, "location", "classpath:templates/email/");
+        ReflectionTestUtils.setField(engine, "defaultLanguage", "vi");
+        engine.init();
+    }
+
+    @Test
+    @DisplayName("render - Every email type has a template in both languages")
+    void render_AllTypes_BothLanguages() {
+        for (EmailType type : EmailType.values()) {
+            for (Locale locale : new Locale[]{Locale.forLanguageTag("vi"), Locale.ENGLISH}) {
+                RenderedEmail email = engine.render(type.templateName(), locale, Map.of());
+
+                assertFalse(email.subject().isBlank());
+                assertTrue(email.html().contains("<html lang=\"" + locale.getLanguage() + "\">"));
+                assertFalse(email.html().contains("{{"));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("render - Fills slots and escapes HTML in values")
+    void render_EscapesValues() {
+        RenderedEmail email = engine.render("verification", Locale.ENGLISH,
+                Map.of("fullName", "<b>Tom & \"Jerry\"</b>", "otp", "123456", "expirationMinutes", "5"));
+
+        assertEquals("🔐 Email Verification - Your OTP Code", email.subject());
+        assertTrue(email.html().contains("&lt;b&gt;Tom &amp; &quot;Jerry&quot;&lt;/b&gt;"));
+        assertTrue(email.html().contains("123456"));
+        assertTrue(email.html().contains("<strong>5 minutes</strong>"));
+    }
+
+    @Test
+    @DisplayName("render - Unsupported or missing locale falls back to the default")
+    void render_UnknownLocale_FallsBackToDefault() {
+        Map<String, String> values = Map.of("reservationCode", "AB12CD34");
+
+        assertEquals("✅ Xác nhận đặt phòng AB12CD34",
+                engine.render("reservation-confirmation", Locale.FRENCH, values).subject());
+        assertEquals("✅ Xác nhận đặt phòng AB12CD34",
+                engine.render("reservation-confirmation", null, values).subject());
+    }
+
+    @Test
+    @DisplayName("render - Unknown template throws")
+    void render_UnknownTemplate_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> engine.render("missing", Locale.ENGLISH, Map.of()));
+    }
+
+    @Test
+    @DisplayName("compile - Splits literals and slots, rejects unterminated placeholders")
+    void compile_Placeholders() {
+        EmailTemplate template = EmailTemplate.compile("t", "Hi {{ name }}, code {{code}}!", false);
+        StringBuilder out = new StringBuilder();
+
+        template.renderTo(out, Map.of("name", "<An>", "code", "42"));
+
+        assertEquals("Hi <An>, code 42!", out.toString());
+        assertEquals("Hi , code !".length(), template.literalLength());
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("t", "Hi {{name", true));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("t", "Hi {{ }}", true));
+    }
+}
@@ -0,0 +1,105 @@
+package com.hotelmanagement.quanlikhachsan.services.guest;
+
+import com.hotelmanagement.quanlikhachsan.dto.response.guest.GuestResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GuestProfileCache
+ * Tests cross-node invalidation over Redis pub/sub
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GuestProfileCache Tests")
+class GuestProfileCacheTest {
+
+    private static final UUID USER = UUID.fromString("00000000-0000-0000-0000-0000000000aa");
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @InjectMocks
+    private GuestProfileCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(cache, "invalidationChannel", "guest:invalidate");
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+        cache.init();
+    }
+
+    @Test
+    @DisplayName("invalidate - Evicts locally and publishes the user ID to other nodes")
+    void invalidate_PublishesToOtherNodes() {
+        cache.get(USER, loader());
+
+        cache.invalidate(USER);
+        cache.get(USER, loader());
+
+        verify(redisTemplate).convertAndSend("guest:invalidate", USER.toString());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("invalidate - Redis failure still evicts locally")
+    void invalidate_RedisDown_EvictsLocally() {
+        cache.get(USER, loader());
+        doThrow(new RedisConnectionFailureException("down")).when(redisTemplate).convertAndSend(any(), any());
+
+        assertDoesNotThrow(() -> cache.invalidate(USER));
+        cache.get(USER, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("onMessage - Invalidation from another node evicts the profile")
+    void onMessage_EvictsProfile() {
+        cache.get(USER, loader());
+
+        cache.onMessage(new DefaultMessage("guest:invalidate".getBytes(StandardCharsets.UTF_8),
+                USER.toString().getBytes(StandardCharsets.UTF_8)), null);
+        cache.get(USER, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    private Function<UUID, GuestResponse> loader() {
+        return id -> {
+            loads.incrementAndGet();
+            return mock(GuestResponse.class);
+        };
+    }
+}
@@ -17,6 +17,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +35,9 @@ class GuestServiceImplTest {
     @Mock
     private GuestMapper guestMapper;
 
+    @Mock
+    private GuestProfileCache guestProfileCache;
+
     @InjectMocks
     private GuestServiceImpl guestService;
 
@@ -70,6 +74,11 @@ class GuestServiceImplTest {
                 null,
                 null
         );
+
+        // Read through to the loader
+        lenient().when(guestProfileCache.get(any(UUID.class), any()))
+                .thenAnswer(invocation -> invocation.<Function<UUID, GuestResponse>>getArgument(1)
+                        .apply(invocation.getArgument(0)));
     }
 
     @Test
@@ -149,21 +158,24 @@ class GuestServiceImplTest {
 
         assertNotNull(response);
         verify(guestRepository).save(any(Guest.class));
+        verify(guestProfileCache).invalidate(keycloakUserId);
     }
 
     @Test
     void deleteGuest_Success() {
-        when(guestRepository.existsById(guestId)).thenReturn(true);
+        when(guestRepository.findById(guestId)).thenReturn(Optional.of(guest));
 
         guestService.deleteGuest(guestId.toString());
 
         verify(guestRepository).deleteById(guestId);
+        verify(guestProfileCache).invalidate(keycloakUserId);
     }
 
     @Test
     void deleteGuest_NotFound() {
-        when(guestRepository.existsById(guestId)).thenReturn(false);
+        when(guestRepository.findById(guestId)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> guestService.deleteGuest(guestId.toString()));
+        verify(guestProfileCache, never()).invalidate(any());
     }
 }
@@ -0,0 +1,111 @@
+package com.hotelmanagement.quanlikhachsan.services.reservation;
+
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationResponse;
+import com.hotelmanagement.quanlikhachsan.exception.AppError;
+import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
+import com.hotelmanagement.quanlikhachsan.model.reservation.Reservation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReservationConflictExecutor
+ * Transitions are retried on optimistic lock conflicts; edits answer 409 with the current state
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReservationConflictExecutor Tests")
+class ReservationConflictExecutorTest {
+
+    private static final UUID RESERVATION_ID = UUID.randomUUID();
+
+    @Mock
+    private IReservationService reservationService;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Mock
+    private ReservationResponse current;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ReservationConflictExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        when(meterRegistry.getIfAvailable(any())).thenReturn(registry);
+        executor = new ReservationConflictExecutor(reservationService, meterRegistry);
+        ReflectionTestUtils.setField(executor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(executor, "backoff", Duration.ofMillis(1));
+        executor.init();
+    }
+
+    @Test
+    @DisplayName("retrying - A transition that loses one race succeeds on the next attempt")
+    void retrying_SucceedsAfterConflict() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.retrying("check-in", RESERVATION_ID, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw staleWrite();
+            }
+            return "checked-in";
+        });
+
+        assertEquals("checked-in", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1.0, registry.get("reservation.conflicts").tag("outcome", "retried").counter().count());
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    @DisplayName("retrying - Gives up after max-attempts with 409 and the current state")
+    void retrying_ExhaustedReturnsCurrentState() {
+        AtomicInteger attempts = new AtomicInteger();
+        when(reservationService.getReservationById(RESERVATION_ID)).thenReturn(current);
+
+        AppError error = assertThrows(AppError.class, () -> executor.retrying("cancel", RESERVATION_ID, () -> {
+            attempts.incrementAndGet();
+            throw staleWrite();
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(ErrorDefinition.CONCURRENT_MODIFICATION.toAppError().getErrorCode(), error.getErrorCode());
+        assertSame(current, error.getDetails().get("current"));
+    }
+
+    @Test
+    @DisplayName("rejecting - An edit is not retried; 409 carries the current state")
+    void rejecting_ReturnsCurrentStateWithoutRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+        when(reservationService.getReservationById(RESERVATION_ID)).thenReturn(current);
+
+        AppError error = assertThrows(AppError.class, () -> executor.rejecting("update", RESERVATION_ID, () -> {
+            attempts.incrementAndGet();
+            throw staleWrite();
+        }));
+
+        assertEquals(1, attempts.get());
+        assertSame(current, error.getDetails().get("current"));
+        assertEquals(1.0, registry.get("reservation.conflicts").tag("outcome", "rejected").counter().count());
+    }
+
+    private ObjectOptimisticLockingFailureException staleWrite() {
+        return new ObjectOptimisticLockingFailureException(Reservation.class, RESERVATION_ID);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hotelmanagement.quanlikhachsan.services.reservation;
+
+import com.hotelmanagement.quanlikhachsan.exception.AppError;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReservationCursor
+ * Tests token round-trip and rejection of tampered tokens
+ */
+@DisplayName("ReservationCursor Tests")
+class ReservationCursorTest {
+
+    @Test
+    @DisplayName("encode/decode - Round-trips position")
+    void encodeDecode_RoundTrip() {
+        ReservationCursor cursor = new ReservationCursor(
+                LocalDateTime.of(2030, 1, 2, 3, 4, 5, 123_456_000), UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertFalse(token.contains("|"));
+        assertEquals(cursor, ReservationCursor.decode(token));
+    }
+
+    @Test
+    @DisplayName("decode - Garbage token throws")
+    void decode_InvalidToken_Throws() {
+        assertThrows(AppError.class, () -> ReservationCursor.decode("not-a-cursor"));
+        assertThrows(AppError.class, () -> ReservationCursor.decode("!!!"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.hotelmanagement.quanlikhachsan.services.reservation;
+
+import com.hotelmanagement.quanlikhachsan.model.room.Room;
+import com.hotelmanagement.quanlikhachsan.model.room.RoomType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: total amount of a stay, for a single room and for a group
+ * booking.
+ *
+ * Run with: mvn -Pbenchmark test -Djmh.includes=ReservationPricingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationPricingBenchmark {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 12, 20);
+    private static final LocalDate CHECK_OUT = LocalDate.of(2026, 12, 27);
+
+    @Param({"1", "20"})
+    private int roomCount;
+
+    private List<Room> rooms;
+
+    @Setup
+    public void setUp() {
+        rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            RoomType type = RoomType.builder().id("type-" + i % 3).pricePerNight(95.5 + 40 * (i % 3)).build();
+            rooms.add(Room.builder().id("room-" + i).roomNumber(String.valueOf(100 + i)).type(type).build());
+        }
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalAmount() {
+        return ReservationServiceImpl.calculateTotalAmount(rooms, CHECK_IN, CHECK_OUT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReservationPricingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
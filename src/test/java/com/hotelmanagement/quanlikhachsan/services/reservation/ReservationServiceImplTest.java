@@ -0,0 +1,420 @@
+package com.hotelmanagement.quanlikhachsan.services.reservation;
+
+import com.hotelmanagement.quanlikhachsan.dto.request.reservation.BulkReservationRequest;
+import com.hotelmanagement.quanlikhachsan.dto.request.reservation.ReservationFilter;
+import com.hotelmanagement.quanlikhachsan.dto.request.reservation.ReservationRequest;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.BulkReservationResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationPageResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.reservation.ReservationStatusSummaryResponse;
+import com.hotelmanagement.quanlikhachsan.dto.response.room.RoomHoldResponse;
+import com.hotelmanagement.quanlikhachsan.exception.AppError;
+import com.hotelmanagement.quanlikhachsan.exception.ErrorDefinition;
+import com.hotelmanagement.quanlikhachsan.mapper.ReservationMapper;
+import com.hotelmanagement.quanlikhachsan.model.guest.Guest;
+import com.hotelmanagement.quanlikhachsan.model.reservation.Reservation;
+import com.hotelmanagement.quanlikhachsan.model.reservation.ReservationStatus;
+import com.hotelmanagement.quanlikhachsan.model.room.Room;
+import com.hotelmanagement.quanlikhachsan.model.room.RoomType;
+import com.hotelmanagement.quanlikhachsan.repository.GuestRepository;
+import com.hotelmanagement.quanlikhachsan.repository.ReservationRepository;
+import com.hotelmanagement.quanlikhachsan.repository.ReservationRoomRepository;
+import com.hotelmanagement.quanlikhachsan.repository.RoomRepository;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomHoldService;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomOccupancyIndex;
+import com.hotelmanagement.quanlikhachsan.services.availability.RoomTypeInventoryService;
+import com.hotelmanagement.quanlikhachsan.services.email.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReservationServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReservationServiceImpl Tests")
+class ReservationServiceImplTest {
+
+    private static final String PRINCIPAL = "an@example.com";
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ReservationRoomRepository reservationRoomRepository;
+
+    @Mock
+    private GuestRepository guestRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private ReservationMapper reservationMapper;
+
+    @Mock
+    private RoomOccupancyIndex occupancyIndex;
+
+    @Mock
+    private RoomTypeInventoryService inventoryService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private RoomHoldService roomHoldService;
+
+    @InjectMocks
+    private ReservationServiceImpl reservationService;
+
+    @Test
+    @DisplayName("getStatusSummary - Every status present, missing ones zero")
+    void getStatusSummary_FillsMissingStatuses() {
+        List<ReservationRepository.StatusCount> rows = List.of(
+                statusCount(ReservationStatus.PENDING, 3),
+                statusCount(ReservationStatus.CHECKED_IN, 2));
+        when(reservationRepository.countByStatus()).thenReturn(rows);
+
+        ReservationStatusSummaryResponse summary = reservationService.getStatusSummary();
+
+        assertEquals(5, summary.total());
+        assertEquals(ReservationStatus.values().length, summary.counts().size());
+        assertEquals(3L, summary.counts().get(ReservationStatus.PENDING));
+        assertEquals(2L, summary.counts().get(ReservationStatus.CHECKED_IN));
+        assertEquals(0L, summary.counts().get(ReservationStatus.CANCELLED));
+        verify(reservationRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("createReservation - One lookup and one conflict query list every unavailable room")
+    void createReservation_ConflictsReportedTogether() {
+        ReservationRequest request = groupBooking(10);
+        List<Room> rooms = rooms(request.roomIds());
+        when(guestRepository.findByKeycloakUserId(request.keycloakUserId()))
+                .thenReturn(Optional.of(Guest.builder().id("guest-1").build()));
+        when(roomRepository.findAllWithTypeByIdIn(Set.copyOf(ids(request.roomIds())))).thenReturn(rooms);
+        when(reservationRoomRepository.findConflictingRoomNumbers(Set.copyOf(ids(request.roomIds())),
+                request.checkIn(), request.checkOut()))
+                .thenReturn(List.of("103", "107"));
+
+        AppError error = assertThrows(AppError.class,
+                () -> reservationService.createReservation(request, PRINCIPAL));
+
+        assertEquals(ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError().getErrorCode(), error.getErrorCode());
+        assertEquals(List.of("103", "107"), error.getDetails().get("roomNumbers"));
+        verify(roomRepository, times(1)).findAllWithTypeByIdIn(any());
+        verify(roomRepository, never()).findById(anyString());
+        verify(reservationRoomRepository, times(1)).findConflictingRoomNumbers(any(), any(), any());
+        verify(reservationRoomRepository, never()).hasConflictingReservation(anyString(), any(), any());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("createReservation - Every unknown room ID is reported before any conflict check")
+    void createReservation_MissingRoomsReportedTogether() {
+        ReservationRequest request = groupBooking(4);
+        List<Room> found = rooms(request.roomIds().subList(0, 2));
+        when(guestRepository.findByKeycloakUserId(request.keycloakUserId()))
+                .thenReturn(Optional.of(Guest.builder().id("guest-1").build()));
+        when(roomRepository.findAllWithTypeByIdIn(any())).thenReturn(found);
+
+        AppError error = assertThrows(AppError.class,
+                () -> reservationService.createReservation(request, PRINCIPAL));
+
+        assertEquals(ErrorDefinition.ROOM_NOT_FOUND.toAppError().getErrorCode(), error.getErrorCode());
+        assertEquals(ids(request.roomIds().subList(2, 4)), error.getDetails().get("roomIds"));
+        verifyNoInteractions(reservationRoomRepository);
+    }
+
+    @Test
+    @DisplayName("createReservations - Lines are checked against existing stays and earlier lines, saved in one batch")
+    @SuppressWarnings("unchecked")
+    void createReservations_RejectsConflictingLinesAndSavesRestTogether() {
+        ReservationRequest block = groupBooking(3);
+        List<Room> rooms = rooms(block.roomIds());
+        UUID taken = block.roomIds().get(2);
+        ReservationRequest ok = new ReservationRequest(block.keycloakUserId(), block.roomIds().subList(0, 2),
+                block.checkIn(), block.checkOut(), ReservationStatus.CONFIRMED, null);
+        ReservationRequest bookedBefore = new ReservationRequest(block.keycloakUserId(), List.of(taken),
+                block.checkIn(), block.checkOut(), null, null);
+        ReservationRequest bookedByLineZero = new ReservationRequest(block.keycloakUserId(),
+                List.of(block.roomIds().get(1)), block.checkIn().plusDays(1), block.checkOut().plusDays(1), null,
+                null);
+        Guest guest = Guest.builder().id("guest-1").keycloakUserId(block.keycloakUserId())
+                .email("an@example.com").fullName("Nguyễn Văn An").build();
+        ReservationRoomRepository.RoomStay stay = mock(ReservationRoomRepository.RoomStay.class);
+        when(stay.getRoomId()).thenReturn(taken.toString());
+        when(stay.getCheckIn()).thenReturn(block.checkIn().minusDays(1));
+        when(stay.getCheckOut()).thenReturn(block.checkIn().plusDays(1));
+        when(guestRepository.findAllByKeycloakUserIdIn(Set.of(block.keycloakUserId()))).thenReturn(List.of(guest));
+        when(roomRepository.findAllWithTypeByIdIn(Set.copyOf(ids(block.roomIds())))).thenReturn(rooms);
+        when(reservationRoomRepository.findActiveStaysOfRoomsOverlapping(Set.copyOf(ids(block.roomIds())),
+                block.checkIn(), block.checkOut().plusDays(1)))
+                .thenReturn(List.of(stay));
+
+        BulkReservationResponse response = reservationService.createReservations(
+                new BulkReservationRequest(List.of(ok, bookedBefore, bookedByLineZero)));
+
+        assertEquals(1, response.created());
+        assertEquals(2, response.rejected());
+        assertTrue(response.results().get(0).created());
+        assertEquals(0, new BigDecimal("600").compareTo(response.results().get(0).totalAmount()));
+        String notAvailable = ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError().getErrorCode();
+        assertEquals(notAvailable, response.results().get(1).errorCode());
+        assertEquals(List.of("103"), response.results().get(1).details().get("roomNumbers"));
+        assertEquals(notAvailable, response.results().get(2).errorCode());
+        assertEquals(List.of("102"), response.results().get(2).details().get("roomNumbers"));
+
+        ArgumentCaptor<Iterable<Reservation>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(reservationRepository, times(1)).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().spliterator().getExactSizeIfKnown());
+        verify(reservationRepository, never()).save(any());
+        verify(reservationRoomRepository, never()).findConflictingRoomNumbers(any(), any(), any());
+        verify(inventoryService, times(1)).reserve(rooms.subList(0, 2), block.checkIn(), block.checkOut());
+        verify(emailService, times(1)).sendReservationConfirmation(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("createReservation - Rooms held by another guest are not available")
+    void createReservation_RoomHeldByOthers() {
+        ReservationRequest request = groupBooking(2);
+        List<Room> rooms = rooms(request.roomIds());
+        when(guestRepository.findByKeycloakUserId(request.keycloakUserId()))
+                .thenReturn(Optional.of(Guest.builder().id("guest-1").build()));
+        when(roomRepository.findAllWithTypeByIdIn(any())).thenReturn(rooms);
+        when(reservationRoomRepository.findConflictingRoomNumbers(any(), any(), any())).thenReturn(List.of());
+        when(roomHoldService.findHeldRoomIds(Set.copyOf(ids(request.roomIds())), request.checkIn(),
+                request.checkOut(), null))
+                .thenReturn(Set.of(rooms.get(1).getId()));
+
+        AppError error = assertThrows(AppError.class,
+                () -> reservationService.createReservation(request, PRINCIPAL));
+
+        assertEquals(ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError().getErrorCode(), error.getErrorCode());
+        assertEquals(List.of("102"), error.getDetails().get("roomNumbers"));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("createReservation - The guest's own hold is converted and then released")
+    void createReservation_ConvertsHold() {
+        ReservationRequest booking = groupBooking(2);
+        UUID holdId = UUID.randomUUID();
+        ReservationRequest request = new ReservationRequest(booking.keycloakUserId(), booking.roomIds(),
+                booking.checkIn(), booking.checkOut(), null, holdId);
+        when(roomHoldService.findHold(holdId)).thenReturn(Optional.of(new RoomHoldResponse(holdId,
+                booking.keycloakUserId(), ids(booking.roomIds()), booking.checkIn(), booking.checkOut(),
+                Instant.now().plusSeconds(600))));
+        when(roomHoldService.resolveOwner(PRINCIPAL)).thenReturn(booking.keycloakUserId());
+        when(guestRepository.findByKeycloakUserId(request.keycloakUserId()))
+                .thenReturn(Optional.of(Guest.builder().id("guest-1").build()));
+        when(roomRepository.findAllWithTypeByIdIn(any())).thenReturn(rooms(booking.roomIds()));
+        when(reservationRoomRepository.findConflictingRoomNumbers(any(), any(), any())).thenReturn(List.of());
+        when(reservationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        reservationService.createReservation(request, PRINCIPAL);
+
+        verify(roomHoldService).findHeldRoomIds(any(), eq(booking.checkIn()), eq(booking.checkOut()), eq(holdId));
+        verify(roomHoldService).release(holdId);
+    }
+
+    @Test
+    @DisplayName("createReservation - A hold of another guest cannot be converted")
+    void createReservation_ForeignHoldRejected() {
+        ReservationRequest booking = groupBooking(1);
+        UUID holdId = UUID.randomUUID();
+        ReservationRequest request = new ReservationRequest(booking.keycloakUserId(), booking.roomIds(),
+                booking.checkIn(), booking.checkOut(), null, holdId);
+        when(guestRepository.findByKeycloakUserId(request.keycloakUserId()))
+                .thenReturn(Optional.of(Guest.builder().id("guest-1").build()));
+        when(roomHoldService.findHold(holdId)).thenReturn(Optional.of(new RoomHoldResponse(holdId,
+                UUID.randomUUID(), ids(booking.roomIds()), booking.checkIn(), booking.checkOut(),
+                Instant.now().plusSeconds(600))));
+        when(roomHoldService.resolveOwner(PRINCIPAL)).thenReturn(booking.keycloakUserId());
+
+        AppError error = assertThrows(AppError.class,
+                () -> reservationService.createReservation(request, PRINCIPAL));
+
+        assertEquals(ErrorDefinition.HOLD_MISMATCH.toAppError().getErrorCode(), error.getErrorCode());
+        verify(roomHoldService, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("createReservation - Naming the hold owner in the body does not let another user convert it")
+    void createReservation_HoldOfOtherAuthenticatedUser_Rejected() {
+        ReservationRequest booking = groupBooking(1);
+        UUID holdId = UUID.randomUUID();
+        ReservationRequest request = new ReservationRequest(booking.keycloakUserId(), booking.roomIds(),
+                booking.checkIn(), booking.checkOut(), null, holdId);
+        when(guestRepository.findByKeycloakUserId(request.keycloakUserId()))
+                .thenReturn(Optional.of(Guest.builder().id("guest-1").build()));
+        when(roomHoldService.findHold(holdId)).thenReturn(Optional.of(new RoomHoldResponse(holdId,
+                booking.keycloakUserId(), ids(booking.roomIds()), booking.checkIn(), booking.checkOut(),
+                Instant.now().plusSeconds(600))));
+        when(roomHoldService.resolveOwner("other@example.com")).thenReturn(UUID.randomUUID());
+
+        AppError error = assertThrows(AppError.class,
+                () -> reservationService.createReservation(request, "other@example.com"));
+
+        assertEquals(ErrorDefinition.HOLD_MISMATCH.toAppError().getErrorCode(), error.getErrorCode());
+        verify(reservationRepository, never()).save(any());
+        verify(roomHoldService, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("updateReservation - Stale If-Match version gets 409 with the current reservation")
+    @SuppressWarnings("unchecked")
+    void updateReservation_StaleVersion_ConflictWithCurrentState() {
+        UUID id = UUID.randomUUID();
+        Reservation reservation = Reservation.builder()
+                .id(id)
+                .status(ReservationStatus.CONFIRMED)
+                .version(4L)
+                .build();
+        ReservationResponse current = mock(ReservationResponse.class);
+        when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.findWithDetailsById(id)).thenReturn(Optional.of(reservation));
+        when(reservationMapper.toResponse(reservation)).thenReturn(current);
+        ObjectProvider<MeterRegistry> meterRegistry = mock(ObjectProvider.class);
+        when(meterRegistry.getIfAvailable(any())).thenReturn(new SimpleMeterRegistry());
+        ReservationConflictExecutor executor = new ReservationConflictExecutor(reservationService, meterRegistry);
+        executor.init();
+
+        AppError error = assertThrows(AppError.class, () -> executor.rejecting("update", id,
+                () -> reservationService.updateReservation(id, groupBooking(1), 3L)));
+
+        assertEquals(ErrorDefinition.CONCURRENT_MODIFICATION.toAppError().getErrorCode(), error.getErrorCode());
+        assertEquals(409, error.getStatusCode().value());
+        assertSame(current, error.getDetails().get("current"));
+        verify(reservationRepository, never()).save(any());
+        verifyNoInteractions(roomRepository);
+    }
+
+    @Test
+    @DisplayName("addRoomToReservation - A room held by another guest is not available")
+    void addRoomToReservation_RoomHeldByOthers() {
+        UUID id = UUID.randomUUID();
+        LocalDate checkIn = LocalDate.now().plusDays(7);
+        Reservation reservation = Reservation.builder()
+                .id(id)
+                .status(ReservationStatus.CONFIRMED)
+                .checkIn(checkIn)
+                .checkOut(checkIn.plusDays(3))
+                .build();
+        Room room = rooms(List.of(UUID.randomUUID())).get(0);
+        when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
+        when(roomRepository.findById(room.getId())).thenReturn(Optional.of(room));
+        when(reservationRoomRepository.hasConflictingReservationExcluding(room.getId(), checkIn,
+                checkIn.plusDays(3), id)).thenReturn(false);
+        when(roomHoldService.findHeldRoomIds(List.of(room.getId()), checkIn, checkIn.plusDays(3), null))
+                .thenReturn(Set.of(room.getId()));
+
+        AppError error = assertThrows(AppError.class, () -> reservationService.addRoomToReservation(id,
+                UUID.fromString(room.getId()), null));
+
+        assertEquals(ErrorDefinition.ROOM_NOT_AVAILABLE.toAppError().getErrorCode(), error.getErrorCode());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("checkIn - A checked-out reservation cannot check in again")
+    void checkIn_CheckedOut_CannotModify() {
+        UUID id = UUID.randomUUID();
+        Reservation reservation = Reservation.builder()
+                .id(id)
+                .status(ReservationStatus.CHECKED_OUT)
+                .build();
+        when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
+
+        AppError error = assertThrows(AppError.class, () -> reservationService.checkIn(id));
+
+        assertEquals(ErrorDefinition.RESERVATION_CANNOT_MODIFY.toAppError().getErrorCode(), error.getErrorCode());
+        assertEquals(ReservationStatus.CHECKED_OUT, reservation.getStatus());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("searchReservations - Row deleted before the details fetch is left out")
+    @SuppressWarnings("unchecked")
+    void searchReservations_DeletedRow_Skipped() {
+        Reservation kept = Reservation.builder().id(UUID.randomUUID()).build();
+        Reservation deleted = Reservation.builder().id(UUID.randomUUID()).build();
+        ReservationResponse keptResponse = mock(ReservationResponse.class);
+        when(reservationRepository.findBy(any(Specification.class), any())).thenReturn(List.of(kept, deleted));
+        when(reservationRepository.findAllWithDetailsByIdIn(List.of(kept.getId(), deleted.getId())))
+                .thenReturn(List.of(kept));
+        when(reservationMapper.toResponse(kept)).thenReturn(keptResponse);
+
+        ReservationPageResponse page = reservationService.searchReservations(ReservationFilter.none(), null, 10);
+
+        assertEquals(List.of(keptResponse), page.items());
+    }
+
+    @Test
+    @DisplayName("searchReservations - Unknown guest gives an empty page without a reservation query")
+    void searchReservations_UnknownGuest_EmptyPage() {
+        UUID keycloakUserId = UUID.randomUUID();
+        when(guestRepository.findByKeycloakUserId(keycloakUserId)).thenReturn(Optional.empty());
+
+        ReservationPageResponse page = reservationService.searchReservations(
+                new ReservationFilter(null, keycloakUserId, null, null, null), null, 10);
+
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+        verifyNoInteractions(reservationRepository);
+    }
+
+    private ReservationRequest groupBooking(int roomCount) {
+        List<UUID> roomIds = new ArrayList<>();
+        for (int i = 0; i < roomCount; i++) {
+            roomIds.add(UUID.randomUUID());
+        }
+        LocalDate checkIn = LocalDate.now().plusDays(7);
+        return new ReservationRequest(UUID.randomUUID(), roomIds, checkIn, checkIn.plusDays(3), null, null);
+    }
+
+    private List<Room> rooms(List<UUID> roomIds) {
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < roomIds.size(); i++) {
+            rooms.add(Room.builder()
+                    .id(roomIds.get(i).toString())
+                    .roomNumber(String.valueOf(101 + i))
+                    .type(RoomType.builder().id("type-1").pricePerNight(100.0).build())
+                    .build());
+        }
+        return rooms;
+    }
+
+    private List<String> ids(List<UUID> roomIds) {
+        return roomIds.stream().map(UUID::toString).toList();
+    }
+
+    private ReservationRepository.StatusCount statusCount(ReservationStatus status, long count) {
+        ReservationRepository.StatusCount row = mock(ReservationRepository.StatusCount.class);
+        when(row.getStatus()).thenReturn(status);
+        when(row.getCount()).thenReturn(count);
+        return row;
+    }
+}
@@ -0,0 +1,81 @@
+package com.hotelmanagement.quanlikhachsan.util;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark: token signing on login and claims extraction on every
+ * authenticated request, both for a token already in the verified-claims
+ * cache and for a full signature check (cache disabled).
+ *
+ * Run with: mvn -Pbenchmark test -Djmh.includes=JwtUtilBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET =
+            "benchmark-secret-key-that-is-at-least-256-bits-long-for-hmac-sha-signing";
+
+    private JwtUtil cachingJwtUtil;
+    private JwtUtil verifyingJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachingJwtUtil = jwtUtil(10_000);
+        verifyingJwtUtil = jwtUtil(0);
+        token = cachingJwtUtil.generateToken("user-123", "guest@example.com", "Nguyễn Văn An", "USER");
+        cachingJwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingJwtUtil.generateToken("user-123", "guest@example.com", "Nguyễn Văn An", "USER");
+    }
+
+    @Benchmark
+    public Claims extractAllClaimsCached() {
+        return cachingJwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims extractAllClaimsVerified() {
+        return verifyingJwtUtil.extractAllClaims(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    // ========== Private Helper Methods ==========
+
+    private static JwtUtil jwtUtil(long claimsCacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", claimsCacheMaxSize);
+        return jwtUtil;
+    }
+}
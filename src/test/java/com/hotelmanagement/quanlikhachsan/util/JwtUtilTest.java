@@ -1,5 +1,6 @@
 package com.hotelmanagement.quanlikhachsan.util;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -134,6 +135,36 @@ class JwtUtilTest {
         assertFalse(jwtUtil.isTokenValid(null));
     }
 
+    @Test
+    @DisplayName("Parse Verified Claims - Second parse of the same token is served from the cache")
+    void parseVerifiedClaims_SameToken_ReturnsCachedClaims() {
+        // Given
+        String token = jwtUtil.generateToken("user-123", "test@example.com", "John Doe", "USER");
+
+        // When
+        Claims first = jwtUtil.parseVerifiedClaims(token).orElseThrow();
+        Claims second = jwtUtil.parseVerifiedClaims(token).orElseThrow();
+
+        // Then
+        assertSame(first, second);
+        assertEquals("test@example.com", first.getSubject());
+        assertEquals("USER", first.get("role", String.class));
+    }
+
+    @Test
+    @DisplayName("Parse Verified Claims - Tampered token is rejected")
+    void parseVerifiedClaims_TamperedToken_ReturnsEmpty() {
+        // Given
+        String token = jwtUtil.generateToken("user-123", "test@example.com", "John Doe", "USER");
+        jwtUtil.parseVerifiedClaims(token);
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        // When & Then
+        assertTrue(jwtUtil.parseVerifiedClaims(tampered).isEmpty());
+        assertTrue(jwtUtil.parseVerifiedClaims(null).isEmpty());
+    }
+
     @Test
     @DisplayName("Is Token Expired - Returns false for fresh token")
     void isTokenExpired_WithFreshToken_ReturnsFalse() {